@@ -0,0 +1,65 @@
+package com.example.tripplanner.jmh;
+
+import com.example.tripplanner.metrics.ImportMetrics;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.service.CsvService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CsvService export (buffered and streaming) and chunked import, per whole dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CsvServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private final CsvService csvService = new CsvService(new ImportMetrics(new SimpleMeterRegistry()));
+    private List<TripResponse> trips;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        trips = SyntheticData.tripResponses(rows);
+        csv = SyntheticData.csv(rows);
+    }
+
+    @Benchmark
+    public byte[] exportToByteArray() throws IOException {
+        return csvService.exportTripsToCsv(trips);
+    }
+
+    @Benchmark
+    public void exportStreaming() {
+        // Discards the bytes so only the encoding cost is measured, as with a fast client
+        csvService.exportTripsToCsv(trips.stream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long importChunked(Blackhole blackhole) {
+        return csvService.importTripsFromCsv(new ByteArrayInputStream(csv), 500, blackhole::consume);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.tripplanner.jmh;
+
+import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.DestinationRequest;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.factory.DestinationFactory;
+import com.example.tripplanner.model.factory.TripFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TripFactory and DestinationFactory mapping, request DTOs to entities and entities to response DTOs,
+ * per whole dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FactoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private final TripFactory tripFactory = new TripFactory();
+    private final DestinationFactory destinationFactory = new DestinationFactory();
+    private List<TripRequest> tripRequests;
+    private List<TripWithDestinationsRequest> tripWithDestinationsRequests;
+    private List<Trip> trips;
+
+    @Setup
+    public void setUp() {
+        tripRequests = SyntheticData.tripRequests(rows);
+        tripWithDestinationsRequests = SyntheticData.tripWithDestinationsRequests(rows);
+        trips = SyntheticData.trips(rows);
+    }
+
+    @Benchmark
+    public void tripRequestsToEntities(Blackhole blackhole) {
+        for (TripRequest tripRequest : tripRequests) {
+            blackhole.consume(tripFactory.createTripFromRequest(tripRequest));
+        }
+    }
+
+    @Benchmark
+    public void tripGraphsToEntities(Blackhole blackhole) {
+        // The JSON import path: each trip with its destinations attached
+        for (TripWithDestinationsRequest request : tripWithDestinationsRequests) {
+            Trip trip = tripFactory.createTripFromRequest(request);
+            for (DestinationRequest destinationRequest : request.getDestinations()) {
+                trip.getDestinations().add(destinationFactory.createDestination(destinationRequest, trip));
+            }
+            blackhole.consume(trip);
+        }
+    }
+
+    @Benchmark
+    public void entitiesToResponses(Blackhole blackhole) {
+        for (Trip trip : trips) {
+            blackhole.consume(tripFactory.getTripResponse(trip));
+        }
+    }
+
+    @Benchmark
+    public void entitiesToNestedResponses(Blackhole blackhole) {
+        // The include=destinations read path
+        for (Trip trip : trips) {
+            List<DestinationResponse> destinations = new ArrayList<>(trip.getDestinations().size());
+            for (Destination destination : trip.getDestinations()) {
+                destinations.add(destinationFactory.createDestinationResponse(destination));
+            }
+            blackhole.consume(tripFactory.getTripWithDestinationsResponse(trip, destinations));
+        }
+    }
+}
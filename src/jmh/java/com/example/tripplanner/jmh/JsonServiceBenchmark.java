@@ -0,0 +1,55 @@
+package com.example.tripplanner.jmh;
+
+import com.example.tripplanner.metrics.ImportMetrics;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.service.JsonService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonService import of trips with nested destinations: streaming batches vs. binding the whole document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class JsonServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private final JsonService jsonService = new JsonService(new ImportMetrics(new SimpleMeterRegistry()));
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        json = SyntheticData.json(rows);
+    }
+
+    @Benchmark
+    public long importStreaming(Blackhole blackhole) {
+        return jsonService.importTripsWithDestinationsFromJson(new ByteArrayInputStream(json), 500, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<TripWithDestinationsRequest> importWholeDocument() {
+        return jsonService.importTripsWithDestinationsFromJson(new ByteArrayInputStream(json));
+    }
+}
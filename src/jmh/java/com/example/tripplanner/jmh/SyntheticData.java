@@ -0,0 +1,140 @@
+package com.example.tripplanner.jmh;
+
+import com.example.tripplanner.fixture.TripFixtures;
+import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.DestinationRequest;
+import com.example.tripplanner.model.dto.TripRequest;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic synthetic datasets for the benchmarks. Row n always has the same content, so runs are comparable.
+ */
+final class SyntheticData {
+
+    static final int DESTINATIONS_PER_TRIP = 2;
+
+    private static final LocalDate BASE_DATE = LocalDate.of(2030, 1, 1);
+
+    private SyntheticData() {
+    }
+
+    static LocalDate startDate(int n) {
+        return BASE_DATE.plusDays(n % 3650);
+    }
+
+    static LocalDate endDate(int n) {
+        return startDate(n).plusDays(1 + n % 14);
+    }
+
+    static String name(int n) {
+        return "Trip " + n;
+    }
+
+    static String description(int n) {
+        return "Generated trip " + n + ", \"quoted\" and, with commas"; // Forces CSV quoting
+    }
+
+    static List<TripResponse> tripResponses(int rows) {
+        List<TripResponse> trips = new ArrayList<>(rows);
+        for (int n = 0; n < rows; n++) {
+            trips.add(new TripResponse((long) n + 1, name(n), startDate(n), endDate(n), description(n)));
+        }
+        return trips;
+    }
+
+    static List<TripWithDestinationsRequest> tripWithDestinationsRequests(int rows) {
+        List<TripWithDestinationsRequest> trips = new ArrayList<>(rows);
+        for (int n = 0; n < rows; n++) {
+            List<DestinationRequest> destinations = new ArrayList<>(DESTINATIONS_PER_TRIP);
+            for (int d = 0; d < DESTINATIONS_PER_TRIP; d++) {
+                destinations.add(new DestinationRequest("Stop " + d, "City " + (n + d) % 500, startDate(n).plusDays(d), startDate(n).plusDays(d + 1)));
+            }
+            trips.add(new TripWithDestinationsRequest(name(n), startDate(n), endDate(n), description(n), destinations));
+        }
+        return trips;
+    }
+
+    static List<TripRequest> tripRequests(int rows) {
+        List<TripRequest> trips = new ArrayList<>(rows);
+        for (int n = 0; n < rows; n++) {
+            trips.add(new TripRequest(name(n), startDate(n), endDate(n), description(n)));
+        }
+        return trips;
+    }
+
+    /**
+     * Persisted-looking trips with IDs and destinations, as the factories see them after a load.
+     */
+    static List<Trip> trips(int rows) {
+        List<Trip> trips = new ArrayList<>(rows);
+        long destinationId = 1;
+        for (int n = 0; n < rows; n++) {
+            Trip trip = TripFixtures.trip(name(n), startDate(n), DESTINATIONS_PER_TRIP);
+            trip.setId((long) n + 1);
+            trip.setEndDate(endDate(n));
+            trip.setDescription(description(n));
+            for (Destination destination : trip.getDestinations()) {
+                destination.setId(destinationId++);
+            }
+            trips.add(trip);
+        }
+        return trips;
+    }
+
+    /**
+     * A CSV import file in the format of POST /trips/import.
+     */
+    static byte[] csv(int rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows * 80);
+        try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            writer.write("name,startDate,endDate,description\n");
+            for (int n = 0; n < rows; n++) {
+                writer.write(name(n) + "," + startDate(n) + "," + endDate(n) + ",\"" + description(n).replace("\"", "\"\"") + "\"\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A JSON import file in the format of POST /trips/import-json: an array of trips with nested destinations.
+     */
+    static byte[] json(int rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows * 300);
+        try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            writer.write('[');
+            for (int n = 0; n < rows; n++) {
+                if (n > 0) {
+                    writer.write(',');
+                }
+                writer.write("{\"name\":\"" + name(n) + "\",\"startDate\":\"" + startDate(n) + "\",\"endDate\":\"" + endDate(n)
+                        + "\",\"description\":\"" + description(n).replace("\"", "\\\"") + "\",\"destinations\":[");
+                for (int d = 0; d < DESTINATIONS_PER_TRIP; d++) {
+                    if (d > 0) {
+                        writer.write(',');
+                    }
+                    writer.write("{\"name\":\"Stop " + d + "\",\"location\":\"City " + (n + d) % 500 + "\",\"arrivalDate\":\""
+                            + startDate(n).plusDays(d) + "\",\"departureDate\":\"" + startDate(n).plusDays(d + 1) + "\"}");
+                }
+                writer.write("]}");
+            }
+            writer.write(']');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
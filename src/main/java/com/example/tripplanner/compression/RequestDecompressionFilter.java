@@ -0,0 +1,219 @@
+package com.example.tripplanner.compression;
+
+import com.example.tripplanner.exceptions.RequestBodyTooLargeException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Decodes request bodies sent with Content-Encoding: gzip or zstd, e.g. a compressed JSON array posted to /trips/batch.
+ * The body is decompressed as the handler reads it. Requests with an unsupported coding get 415 Unsupported Media Type
+ * with an Accept-Encoding header listing the supported ones (RFC 7694).
+ * A few compressed kilobytes can inflate to gigabytes, so the decoded body is capped at tripplanner.request.max-decoded-size;
+ * reading past it throws RequestBodyTooLargeException, which is answered with 413 Payload Too Large.
+ * Decoded bodies are read with blocking I/O only: the stream is always ready, and a ReadListener is called back at once
+ * on the calling thread instead of when the container has data.
+ * Multipart uploads are parsed by the container before any wrapper sees them, so their Content-Encoding cannot be
+ * honoured here; compress the uploaded file itself instead, which the import endpoints detect by its magic bytes.
+ */
+@Component
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+    private static final String SUPPORTED_CODINGS = ContentCoding.ZSTD.token() + ", " + ContentCoding.GZIP.token();
+
+    private final long maxDecodedBytes;
+
+    public RequestDecompressionFilter(@Value("${tripplanner.request.max-decoded-size:100MB}") DataSize maxDecodedSize) {
+        this.maxDecodedBytes = maxDecodedSize.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return contentEncoding == null || contentEncoding.isBlank() || "identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        Optional<ContentCoding> coding = ContentCoding.fromToken(contentEncoding);
+        if (coding.isEmpty()) {
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, SUPPORTED_CODINGS);
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding: " + contentEncoding);
+            return;
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                    "Content-Encoding is not supported on multipart uploads; upload a compressed file instead");
+            return;
+        }
+        filterChain.doFilter(new DecodedRequest(request, coding.get(), maxDecodedBytes), response);
+    }
+
+    /**
+     * Serves the decoded body, and hides the Content-Encoding and Content-Length headers, which describe the encoded one.
+     */
+    private static final class DecodedRequest extends HttpServletRequestWrapper {
+
+        private final ContentCoding coding;
+        private final long maxDecodedBytes;
+        private ServletInputStream decodedStream;
+        private BufferedReader reader;
+
+        DecodedRequest(HttpServletRequest request, ContentCoding coding, long maxDecodedBytes) {
+            super(request);
+            this.coding = coding;
+            this.maxDecodedBytes = maxDecodedBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (decodedStream == null) {
+                decodedStream = new DecodedInputStream(coding.decode(super.getInputStream()), maxDecodedBytes);
+            }
+            return decodedStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                String encoding = getCharacterEncoding();
+                Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1; // Servlet default
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+            }
+            return reader;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(DecodedRequest::isHidden);
+            return Collections.enumeration(names);
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            return isHidden(name) ? -1 : super.getIntHeader(name);
+        }
+
+        private static boolean isHidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Counts the decoded bytes and fails the read that goes past the limit, before the excess reaches the handler.
+     */
+    private static final class DecodedInputStream extends ServletInputStream {
+
+        private final InputStream decoded;
+        private final long maxDecodedBytes;
+        private long decodedBytes;
+        private boolean finished;
+
+        DecodedInputStream(InputStream decoded, long maxDecodedBytes) {
+            this.decoded = decoded;
+            this.maxDecodedBytes = maxDecodedBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = decoded.read();
+            finished = b == -1;
+            if (!finished) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = decoded.read(buffer, offset, length);
+            finished = count == -1;
+            if (count > 0) {
+                count(count);
+            }
+            return count;
+        }
+
+        private void count(int bytes) {
+            decodedBytes += bytes;
+            if (decodedBytes > maxDecodedBytes) {
+                throw new RequestBodyTooLargeException(
+                        "The decoded request body exceeds the maximum of " + maxDecodedBytes + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            // Reads block until the decoder has data, so there is nothing to wait for: hand over the stream right away
+            try {
+                readListener.onDataAvailable();
+                if (finished) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            decoded.close();
+        }
+    }
+}
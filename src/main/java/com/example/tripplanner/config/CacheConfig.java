@@ -0,0 +1,19 @@
+package com.example.tripplanner.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the Caffeine-backed read cache configured under spring.cache.* in application.properties.
+ * Cached values are the response DTOs themselves and are shared between requests, so they must not be mutated.
+ */
+@Configuration
+// Runs the caching advice outside @Transactional, so puts and evictions happen after the commit
+// and a concurrent reader cannot re-cache the pre-commit state
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String TRIPS = "trips"; // TripResponse by trip id
+    public static final String TRIP_DESTINATIONS = "tripDestinations"; // List<DestinationResponse> by trip id
+}
@@ -0,0 +1,32 @@
+package com.example.tripplanner.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for the change feed's senders (GET /trips/changes).
+ * Each subscriber gets its own thread, so a client whose socket stops draining only blocks its own sender.
+ * There is no queue: the pool size is the subscriber limit, and subscriptions beyond it are rejected.
+ * Idle threads are released, so the pool costs nothing while nobody is subscribed.
+ */
+@Configuration
+public class ChangeFeedConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor changeFeedTaskExecutor(
+            @Value("${tripplanner.changes.max-subscribers:100}") int maxSubscribers,
+            Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("change-feed-");
+        executor.setCorePoolSize(maxSubscribers);
+        executor.setMaxPoolSize(maxSubscribers);
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment)); // False on Java 17 whatever the property says
+        return executor;
+    }
+}
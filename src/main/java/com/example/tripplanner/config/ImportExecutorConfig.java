@@ -0,0 +1,36 @@
+package com.example.tripplanner.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor for asynchronous import jobs.
+ * Kept separate from the servlet and MVC async pools and bounded in both threads and queue length,
+ * so long-running imports cannot starve interactive requests. Submissions beyond the queue capacity are rejected.
+ * With spring.threads.virtual.enabled on Java 21+ the workers are virtual threads; the pool bounds still apply,
+ * so imports never hold more than tripplanner.import.async.threads connections.
+ */
+@Configuration
+public class ImportExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor importTaskExecutor(
+            @Value("${tripplanner.import.async.threads:2}") int threads,
+            @Value("${tripplanner.import.async.queue-capacity:10}") int queueCapacity,
+            Environment environment) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("import-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment)); // False on Java 17 whatever the property says
+        // Give running chunks a chance to commit before the context shuts down
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
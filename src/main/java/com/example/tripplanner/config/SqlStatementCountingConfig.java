@@ -0,0 +1,47 @@
+package com.example.tripplanner.config;
+
+import com.example.tripplanner.metrics.SqlStatementCountingFilter;
+import com.example.tripplanner.metrics.SqlStatementCountingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL statement counting.
+ * The application DataSource is wrapped in a datasource-proxy that reports every statement execution to the
+ * SqlStatementCounter; the proxy unwraps to the Hikari pool, so the pool's metrics and health check are unaffected.
+ * The filter is registered here rather than as a @Component so @WebMvcTest slices, which have no MeterRegistry,
+ * do not pick it up.
+ */
+@Configuration
+public class SqlStatementCountingConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementCountingListener())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatementCountingFilter sqlStatementCountingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${tripplanner.sql.statement-threshold:10}") int statementThreshold) {
+        return new SqlStatementCountingFilter(meterRegistry, statementThreshold);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.tripplanner.config;
+
+import com.example.tripplanner.model.dto.TripFilter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC customizations for binding request parameters.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        // The default enum conversion is case-sensitive; match=overlap|within is documented in lower case
+        registry.addConverter(String.class, TripFilter.DateMatch.class, TripFilter.DateMatch::fromValue);
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -47,7 +48,11 @@ public class DestinationController {
     }
 
     @GetMapping // Maps GET requests to /trips/{tripId}/destinations
-    public ResponseEntity<List<DestinationResponse>> getDestinationsForTrip(@PathVariable Long tripId) {
+    public ResponseEntity<List<DestinationResponse>> getDestinationsForTrip(@PathVariable Long tripId, WebRequest webRequest) {
+        // The trip's version is the ETag of its destination list; 304 skips loading and serializing the list
+        if (webRequest.checkNotModified(String.valueOf(destinationService.getDestinationsVersion(tripId)))) {
+            return null;
+        }
         List<DestinationResponse> destinations = destinationService.getDestinationsForTrip(tripId);
         return ResponseEntity.ok(destinations);
     }
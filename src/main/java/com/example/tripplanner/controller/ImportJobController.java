@@ -0,0 +1,33 @@
+package com.example.tripplanner.controller;
+
+import com.example.tripplanner.model.dto.ImportJobResponse;
+import com.example.tripplanner.service.ImportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/imports")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    @Autowired
+    public ImportJobController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    @GetMapping("/{jobId}") // Poll the progress of an asynchronous import
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(importJobService.getJob(jobId));
+    }
+
+    @DeleteMapping("/{jobId}") // Request cancellation; the job stops before its next chunk
+    public ResponseEntity<ImportJobResponse> cancelImportJob(@PathVariable String jobId) {
+        return ResponseEntity.accepted().body(importJobService.cancelJob(jobId));
+    }
+}
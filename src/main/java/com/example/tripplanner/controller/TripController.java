@@ -1,52 +1,96 @@
 package com.example.tripplanner.controller;
 
+import com.example.tripplanner.compression.ContentCoding;
 import com.example.tripplanner.exceptions.FileProcessingException;
-import com.example.tripplanner.model.dto.DestinationRequest;
+import com.example.tripplanner.metrics.ImportMetrics;
+import com.example.tripplanner.model.TripSort;
+import com.example.tripplanner.model.dto.BulkDeleteRequest;
+import com.example.tripplanner.model.dto.BulkOperationResponse;
+import com.example.tripplanner.model.dto.BulkUpdateRequest;
+import com.example.tripplanner.model.dto.DateWindow;
+import com.example.tripplanner.model.dto.ImportJobResponse;
+import com.example.tripplanner.model.dto.ImportSummary;
+import com.example.tripplanner.model.dto.TripFilter;
+import com.example.tripplanner.model.dto.TripOverlapResponse;
+import com.example.tripplanner.model.dto.TripPage;
 import com.example.tripplanner.model.dto.TripRequest;
 import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripSearchResponse;
 import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.service.ChangeFeedService;
 import com.example.tripplanner.service.CsvService;
-import com.example.tripplanner.service.DestinationService;
+import com.example.tripplanner.service.ImportJobService;
 import com.example.tripplanner.service.JsonService;
 import com.example.tripplanner.service.TripService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/trips")
 public class TripController {
+    private static final String BATCH_FORMAT = "batch"; // Import metrics and job type tag for /trips/batch
+    private static final String NEXT_WATERMARK_HEADER = "X-Next-Watermark";
+    private static final Set<String> COMPRESSED_UPLOAD_TYPES = Set.of(
+            "application/gzip", "application/x-gzip", "application/zstd", MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    private static final Set<String> COMPRESSED_FILE_SUFFIXES = Set.of(".gz", ".zst");
     private final TripService tripService;
     private final CsvService csvService;
     private final JsonService jsonService; // Inject JsonService
-    private final DestinationService destinationService; // Inject DestinationService to add nested destinations
+    private final ImportJobService importJobService; // Runs ?async=true imports off the request thread
+    private final ImportMetrics importMetrics; // File imports are counted by CsvService/JsonService, /batch here
+    private final ChangeFeedService changeFeedService;
 
     @Autowired
-    public TripController(TripService tripService, CsvService csvService, JsonService jsonService, DestinationService destinationService) {
+    public TripController(TripService tripService, CsvService csvService, JsonService jsonService, ImportJobService importJobService,
+                          ImportMetrics importMetrics, ChangeFeedService changeFeedService) {
         this.tripService = tripService;
         this.csvService = csvService;
         this.jsonService = jsonService;
-        this.destinationService = destinationService;
+        this.importJobService = importJobService;
+        this.importMetrics = importMetrics;
+        this.changeFeedService = changeFeedService;
     }
 
     @PostMapping("/createTrip")
@@ -61,17 +105,111 @@ public class TripController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TripResponse> getTripById(@PathVariable Long id) {
+    public ResponseEntity<TripResponse> getTripById(@PathVariable Long id, WebRequest webRequest) {
+        // The version is the ETag; it comes with the cached trip, so a cache hit answers 200 and 304 alike without a query
         TripResponse tripResponse = tripService.getTripById(id);
+        if (webRequest.checkNotModified(String.valueOf(tripResponse.getVersion()))) {
+            return null;
+        }
         return ResponseEntity.ok(tripResponse);
     }
 
+    /**
+     * Retrieves a trip with its destinations nested, in one request and one SQL statement.
+     * Handles HTTP GET requests to /trips/{id}?include=destinations.
+     * Uses the same version ETag as GET /trips/{id}, since adding a destination bumps the trip's version.
+     *
+     * @param id The ID of the trip.
+     * @param webRequest The current request, used for the If-None-Match check.
+     * @return A ResponseEntity with the trip and its destinations, or 304 Not Modified.
+     */
+    @GetMapping(value = "/{id}", params = "include=destinations")
+    public ResponseEntity<TripWithDestinationsResponse> getTripWithDestinations(@PathVariable Long id, WebRequest webRequest) {
+        // The version comes from the cached trip, so a 304 is answered without loading the destinations
+        if (webRequest.checkNotModified(String.valueOf(tripService.getTripById(id).getVersion()))) {
+            return null;
+        }
+        return ResponseEntity.ok(tripService.getTripWithDestinations(id));
+    }
+
+    /**
+     * Retrieves all trips with their destinations nested, optionally filtered like GET /trips.
+     * Handles HTTP GET requests to /trips?include=destinations[&from=&to=&match=&namePrefix=&hasDestinations=].
+     * The paginated listing stays flat.
+     *
+     * @param filter The optional filters bound from the query parameters.
+     * @return A ResponseEntity with the matching trips and their destinations.
+     */
+    @GetMapping(params = {"include=destinations", "!limit"})
+    public ResponseEntity<List<TripWithDestinationsResponse>> getAllTripsWithDestinations(@Valid TripFilter filter) {
+        List<TripWithDestinationsResponse> trips = filter.isEmpty()
+                ? tripService.getAllTripsWithDestinations()
+                : tripService.searchTripsWithDestinations(filter);
+        return ResponseEntity.ok(trips);
+    }
+
+    /**
+     * Retrieves all trips, optionally filtered.
+     * Handles HTTP GET requests to /trips[?from=&to=&match=overlap|within&namePrefix=&hasDestinations=].
+     * Filters are evaluated in the database as one indexed query.
+     *
+     * @param filter The optional filters bound from the query parameters.
+     * @return A ResponseEntity with the matching trips.
+     */
     @GetMapping
-    public ResponseEntity<List<TripResponse>> getAllTrips() {
-        List<TripResponse> trips = tripService.getAllTrips();
+    public ResponseEntity<List<TripResponse>> getAllTrips(@Valid TripFilter filter) {
+        List<TripResponse> trips = filter.isEmpty() ? tripService.getAllTrips() : tripService.searchTrips(filter);
         return ResponseEntity.ok(trips);
     }
 
+    /**
+     * Finds the trips and destinations overlapping a date window.
+     * Handles HTTP GET requests to /trips/overlapping?from=YYYY-MM-DD&to=YYYY-MM-DD.
+     * Answered from the in-memory interval index in O(log n + k), without a database query.
+     *
+     * @param window The inclusive [from, to] window; both dates are required and from must not be after to.
+     * @return A ResponseEntity with the overlapping trips and destinations.
+     */
+    @GetMapping("/overlapping")
+    public ResponseEntity<TripOverlapResponse> getOverlapping(@Valid DateWindow window) {
+        return ResponseEntity.ok(tripService.findOverlapping(window.getFrom(), window.getTo()));
+    }
+
+    /**
+     * Searches trips by keywords.
+     * Handles HTTP GET requests to /trips/search?q=paris honeymoon[&limit=20].
+     * Keywords are matched against trip names, descriptions and destination names and locations, also as prefixes;
+     * every keyword must match. Answered from the in-memory inverted index, without a database query.
+     *
+     * @param q The keywords to search for.
+     * @param limit The maximum number of hits to return.
+     * @return A ResponseEntity with the best hits, most relevant first, and the total number of matching trips.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<TripSearchResponse> searchTrips(
+            @RequestParam("q") @NotBlank String q,
+            @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(100) int limit) {
+        return ResponseEntity.ok(tripService.searchTripsByText(q, limit));
+    }
+
+    /**
+     * Retrieves one page of trips using keyset pagination.
+     * Handles HTTP GET requests to /trips?limit=N[&cursor=...][&sort=id|startDate].
+     * Pass the returned nextCursor to fetch the following page; it is null on the last page.
+     *
+     * @param limit The maximum number of trips on the page.
+     * @param cursor The opaque cursor from the previous page, omitted for the first page.
+     * @param sort The order of the listing, "id" (default) or "startDate".
+     * @return A ResponseEntity with the page and the total number of trips.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<TripPage> getTripsPage(
+            @RequestParam("limit") @Min(1) @Max(1000) int limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "id") String sort) {
+        return ResponseEntity.ok(tripService.getTripsPage(limit, cursor, TripSort.fromParam(sort)));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TripResponse> updateTrip(@PathVariable Long id, @RequestBody @Valid TripRequest tripRequest) {
         TripResponse updatedTrip = tripService.updateTrip(id, tripRequest);
@@ -84,43 +222,170 @@ public class TripController {
         return ResponseEntity.noContent().build(); // Return 204 No Content
     }
 
+    /**
+     * Deletes many trips and their destinations at once.
+     * Handles HTTP POST requests to /trips/bulk-delete with either a list of trip IDs or a filter like GET /trips.
+     * Unknown IDs are skipped rather than failing the request; everything else is deleted in one transaction.
+     * A filter matching more than tripplanner.bulk.max-trips trips is rejected with 400 Bad Request.
+     *
+     * @param request The IDs of the trips to delete, or a filter selecting them.
+     * @return ResponseEntity with the number of trips and destinations deleted and HTTP status 200 OK.
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkOperationResponse> deleteTrips(@Valid @RequestBody BulkDeleteRequest request) {
+        return ResponseEntity.ok(tripService.deleteTrips(request));
+    }
+
+    /**
+     * Applies the same change to many trips at once: shifting their dates by a number of days and/or replacing their
+     * description. Handles HTTP POST requests to /trips/bulk-update; the trips are selected as for /trips/bulk-delete.
+     * Shifted trips take their destinations along.
+     *
+     * @param request The trips to update and the change to apply.
+     * @return ResponseEntity with the number of trips and destinations updated and HTTP status 200 OK.
+     */
+    @PostMapping("/bulk-update")
+    public ResponseEntity<BulkOperationResponse> updateTrips(@Valid @RequestBody BulkUpdateRequest request) {
+        return ResponseEntity.ok(tripService.updateTrips(request));
+    }
+
+    /**
+     * Exports all trips as a CSV file, streamed straight from a database cursor to the response.
+     * Handles HTTP GET requests to /trips/export (and /trips/export?stream=true, its former explicit form).
+     * Rows are written as they are read, so memory stays flat and the first bytes are sent immediately.
+     * When the client's Accept-Encoding allows it, rows are gzip or zstd compressed on the way out.
+     *
+     * @param acceptEncoding The request's Accept-Encoding header, if any.
+     * @return A ResponseEntity whose body writes the CSV data asynchronously.
+     */
     @GetMapping("/export")
-    public ResponseEntity<byte[]> exportTripsToCsv() throws IOException {
-        // 1. Get all trips from the service layer
-        List<TripResponse> trips = tripService.getAllTrips();
-        // 2. Convert trips to CSV bytes using CsvService
-        byte[] csvBytes = csvService.exportTripsToCsv(trips);
+    public ResponseEntity<StreamingResponseBody> streamTripsToCsv(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // The body runs on an async thread after this method returns; the service keeps the cursor open while writing
+        Optional<ContentCoding> coding = ContentCoding.negotiate(acceptEncoding);
+        StreamingResponseBody body = encode(coding, outputStream ->
+                tripService.streamAllTrips(trips -> csvService.exportTripsToCsv(trips, outputStream)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDisposition(ContentDisposition.builder("attachment").filename("trips.csv").build());
+        setContentEncoding(headers, coding);
+        // No Content-Length: the response is sent with chunked transfer encoding
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Streams all trips with their nested destinations as newline-delimited JSON (NDJSON).
+     * Handles HTTP GET requests to /trips/export?format=ndjson.
+     * Each line is one trip in the TripWithDestinationsRequest shape, so the file can be uploaded to
+     * /trips/import-json as is, e.g. to copy data between environments. Trips are read through a cursor
+     * and their destinations are loaded per batch of trips, so memory stays flat and there is no query per trip.
+     * Compressed like the CSV export when the client's Accept-Encoding allows it.
+     *
+     * @param acceptEncoding The request's Accept-Encoding header, if any.
+     * @return A ResponseEntity whose body writes the NDJSON data asynchronously.
+     */
+    @GetMapping(value = "/export", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamTripsWithDestinationsToNdjson(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Optional<ContentCoding> coding = ContentCoding.negotiate(acceptEncoding);
+        StreamingResponseBody body = encode(coding, outputStream ->
+                tripService.streamAllTripsWithDestinations(trips -> jsonService.exportTripsWithDestinationsToNdjson(trips, outputStream)));
 
-        // 3. Set HTTP headers for file download
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType("text/csv")); // Set content type to CSV
-        headers.setContentDisposition(ContentDisposition.builder("attachment").filename("trips.csv").build()); // Suggest filename for download
-        headers.setContentLength(csvBytes.length); // Set content length
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        headers.setContentDisposition(ContentDisposition.builder("attachment").filename("trips.ndjson").build());
+        setContentEncoding(headers, coding);
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Streams the trips changed since a watermark, so a downstream copy can be kept in sync without full exports.
+     * Handles HTTP GET requests to /trips/export/changes?since={watermark}.
+     * The body is NDJSON with one TripChange per line: an UPSERT with the whole trip for every trip created or updated
+     * (or given a destination) after the watermark, and a DELETE for every trip deleted after it. The changed rows are
+     * found by range scans on indexed change timestamps, so the cost follows the amount of change, not the table size.
+     * The X-Next-Watermark header carries the watermark to send as since on the next call; without since, every trip
+     * and every recorded deletion is returned. Compressed like the other exports when Accept-Encoding allows it.
+     *
+     * @param since The X-Next-Watermark of the previous call, an ISO-8601 instant.
+     * @param acceptEncoding The request's Accept-Encoding header, if any.
+     * @return A ResponseEntity whose body writes the changes asynchronously.
+     */
+    @GetMapping("/export/changes")
+    public ResponseEntity<StreamingResponseBody> streamTripChanges(
+            @RequestParam(value = "since", required = false) Instant since,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Instant from = since != null ? since : Instant.EPOCH;
+        // Never hand back a watermark older than the one the client sent, e.g. after the clock was set back
+        Instant watermark = tripService.currentChangeWatermark();
+        Instant until = watermark.isAfter(from) ? watermark : from;
+        Optional<ContentCoding> coding = ContentCoding.negotiate(acceptEncoding);
+        StreamingResponseBody body = encode(coding, outputStream ->
+                tripService.streamTripChanges(from, until, changes -> jsonService.exportTripChangesToNdjson(changes, outputStream)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        headers.setContentDisposition(ContentDisposition.builder("attachment").filename("trip-changes.ndjson").build());
+        headers.set(NEXT_WATERMARK_HEADER, until.toString());
+        setContentEncoding(headers, coding);
+
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
 
-        // Return the CSV bytes with appropriate headers and 200 OK status
-        return new ResponseEntity<>(csvBytes, headers, HttpStatus.OK);
+    /**
+     * Pushes trip changes as they happen, so other services need not poll GET /trips to notice them.
+     * Handles HTTP GET requests to /trips/changes[?tripId=1&tripId=2] with a Server-Sent Events stream of
+     * trip-created, trip-updated, trip-deleted, destination-added and destination-updated events, each sent after its
+     * transaction commits. Import chunks and bulk chunks arrive as one trips-created, trips-updated, trips-deleted or
+     * destinations-updated event with an array of payloads.
+     * A client reconnecting with Last-Event-ID (as EventSource does) first receives the events it missed; if they are
+     * no longer buffered it receives a resync event and should catch up through GET /trips/export/changes.
+     *
+     * @param tripIds The trips to receive events for; all trips if omitted.
+     * @param lastEventId The ID of the last event received before reconnecting, if any.
+     * @return The emitter streaming the events.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(value = "tripId", required = false) Set<Long> tripIds,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeedService.subscribe(tripIds != null ? tripIds : Set.of(), lastEventId);
     }
 
     /**
      * Imports trips from an uploaded CSV file.
      * Handles HTTP POST requests to /trips/import.
+     * Records are parsed lazily and persisted in chunks, one transaction per chunk, so heap use is bounded
+     * by the chunk size rather than the file size. The file may be gzip or zstd compressed (e.g. trips.csv.gz);
+     * it is decompressed as it is read.
      *
      * @param file The uploaded CSV file as a MultipartFile.
-     * @return A ResponseEntity with a success message and count of imported trips.
+     * @param chunkSize The number of trips persisted per transaction (defaults to tripplanner.import.chunk-size).
+     * @return A ResponseEntity with an ImportSummary reporting rows imported, chunk count and throughput.
      * @throws IOException If an I/O error occurs reading the file.
-     * @throws FileProcessingException If the CSV content is malformed.
+     * @throws FileProcessingException If the file is not a CSV file or the CSV content is malformed.
      */
     @PostMapping("/import")
-    public ResponseEntity<String> importTripsFromCsv(@RequestParam("file") MultipartFile file) throws IOException {
+    public ResponseEntity<ImportSummary> importTripsFromCsv(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "chunkSize", defaultValue = "${tripplanner.import.chunk-size:500}") @Min(1) int chunkSize) throws IOException {
         // 1. Validate file type
-        if (!"text/csv".equals(file.getContentType())) {
-            return new ResponseEntity<>("Please upload a CSV file!", HttpStatus.BAD_REQUEST);
+        if (!isUploadOf(file, "text/csv", ".csv")) {
+            throw new FileProcessingException("Please upload a CSV file!");
         }
 
-        // 2. Read and parse CSV using CsvService
-        List<TripRequest> importedTripRequests;
-        try {
-            importedTripRequests = csvService.importTripsFromCsv(file.getInputStream());
+        // 2. Parse the CSV lazily and persist each chunk in its own transaction
+        long startNanos = System.nanoTime();
+        AtomicLong chunkCount = new AtomicLong();
+        long importedCount;
+        try (InputStream is = file.getInputStream()) {
+            importedCount = csvService.importTripsFromCsv(is, chunkSize, chunk -> {
+                tripService.createTrips(chunk);
+                chunkCount.incrementAndGet();
+            });
         } catch (FileProcessingException e) {
             // Re-throw custom exception to be caught by GlobalExceptionHandler
             throw e;
@@ -129,26 +394,75 @@ public class TripController {
             throw new FileProcessingException("Failed to read uploaded file: " + e.getMessage());
         }
 
-        // 3. Create each imported trip using the TripService
-        for (TripRequest tripRequest : importedTripRequests) {
-            tripService.createTrip(tripRequest); // Assuming createTrip handles validation and saving
+        // Return success message with count and throughput
+        return ResponseEntity.ok(buildImportSummary(
+                "Successfully imported " + importedCount + " trips.", importedCount, chunkCount.get(), startNanos));
+    }
+
+    /**
+     * Starts an asynchronous import of trips from an uploaded CSV file.
+     * Handles HTTP POST requests to /trips/import?async=true.
+     * The upload is spooled and imported chunk by chunk on the bounded import executor;
+     * progress can be polled (and the job cancelled) at the returned Location, /imports/{jobId}.
+     *
+     * @param file The uploaded CSV file as a MultipartFile.
+     * @param chunkSize The number of trips persisted per transaction (defaults to tripplanner.import.chunk-size).
+     * @return A 202 Accepted ResponseEntity describing the queued job.
+     * @throws IOException If the upload cannot be spooled.
+     */
+    @PostMapping(value = "/import", params = "async=true")
+    public ResponseEntity<ImportJobResponse> importTripsFromCsvAsync(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "chunkSize", defaultValue = "${tripplanner.import.chunk-size:500}") @Min(1) int chunkSize) throws IOException {
+        if (!isUploadOf(file, "text/csv", ".csv")) {
+            throw new FileProcessingException("Please upload a CSV file!");
         }
 
-        // Return success message with count
-        return new ResponseEntity<>("Successfully imported " + importedTripRequests.size() + " trips.", HttpStatus.OK);
+        ImportJobResponse job = importJobService.submitFileImport("csv", file, (is, importJob) ->
+                csvService.importTripsFromCsv(is, chunkSize, chunk -> {
+                    importJob.checkNotCancelled();
+                    tripService.createTrips(chunk);
+                    importJob.recordChunk(chunk.size());
+                }));
+        return acceptedImportJob(job);
     }
 
+    /**
+     * Imports trips with their nested destinations from an uploaded JSON file.
+     * Handles HTTP POST requests to /trips/import-json.
+     * The JSON array is read token by token; trips are bound one at a time and persisted in batches,
+     * so memory use does not grow with the size of the file. Files uploaded as application/x-ndjson are read
+     * as one trip per line instead, which is the format of /trips/export?format=ndjson.
+     * Either may be gzip or zstd compressed (e.g. trips.ndjson.zst); it is decompressed as it is read.
+     *
+     * @param file The uploaded JSON file as a MultipartFile.
+     * @param chunkSize The number of trips handed to the persistence sink at once (defaults to tripplanner.import.chunk-size).
+     * @return A ResponseEntity with an ImportSummary reporting trips imported, batch count and throughput.
+     * @throws IOException If an I/O error occurs reading the file.
+     * @throws FileProcessingException If the file is not a JSON file or the JSON content is malformed.
+     */
     @PostMapping("/import-json")
-    public ResponseEntity<String> importTripsWithDestinationsFromJson(@RequestParam("file") MultipartFile file) throws IOException {
+    public ResponseEntity<ImportSummary> importTripsWithDestinationsFromJson(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "chunkSize", defaultValue = "${tripplanner.import.chunk-size:500}") @Min(1) int chunkSize) throws IOException {
         // 1. Validate file type
-        if (!"application/json".equals(file.getContentType())) {
-            return new ResponseEntity<>("Please upload a JSON file!", HttpStatus.BAD_REQUEST);
+        boolean newlineDelimited = isNdjson(file);
+        if (!newlineDelimited && !isUploadOf(file, MediaType.APPLICATION_JSON_VALUE, ".json")) {
+            throw new FileProcessingException("Please upload a JSON file!");
         }
 
-        // 2. Read and parse JSON using JsonService
-        List<TripWithDestinationsRequest> importedTripWithDestinationsRequests;
-        try {
-            importedTripWithDestinationsRequests = jsonService.importTripsWithDestinationsFromJson(file.getInputStream());
+        // 2. Stream the JSON array (or NDJSON lines) and persist each batch of trips with their destinations
+        long startNanos = System.nanoTime();
+        AtomicLong batchCount = new AtomicLong();
+        long importedTripCount;
+        try (InputStream is = file.getInputStream()) {
+            Consumer<List<TripWithDestinationsRequest>> persistBatch = batch -> {
+                tripService.importTripsWithDestinations(batch); // One transaction per batch
+                batchCount.incrementAndGet();
+            };
+            importedTripCount = newlineDelimited
+                    ? jsonService.importTripsWithDestinationsFromNdjson(is, chunkSize, persistBatch)
+                    : jsonService.importTripsWithDestinationsFromJson(is, chunkSize, persistBatch);
         } catch (FileProcessingException e) {
             // Re-throw custom exception to be caught by GlobalExceptionHandler
             throw e;
@@ -157,58 +471,178 @@ public class TripController {
             throw new FileProcessingException("Failed to read uploaded file: " + e.getMessage());
         }
 
-        // 3. Process each trip and its destinations
-        int importedTripCount = 0;
-        for (TripWithDestinationsRequest tripWithDestinationsRequest : importedTripWithDestinationsRequests) {
-            // Create the main Trip
-            TripRequest tripRequest = new TripRequest(
-                    tripWithDestinationsRequest.getName(),
-                    tripWithDestinationsRequest.getStartDate(),
-                    tripWithDestinationsRequest.getEndDate(),
-                    tripWithDestinationsRequest.getDescription()
-            );
-            TripResponse createdTrip = tripService.createTrip(tripRequest); // This will save the trip to DB and return its ID
-
-            // Add destinations to the newly created trip
-            if (tripWithDestinationsRequest.getDestinations() != null && !tripWithDestinationsRequest.getDestinations().isEmpty()) {
-                for (DestinationRequest destinationRequest : tripWithDestinationsRequest.getDestinations()) {
-                    // Use the ID of the just-created trip
-                    destinationService.addDestinationToTrip(createdTrip.getId(), destinationRequest);
-                }
-            }
-            importedTripCount++;
+        // Return success message with count and throughput
+        return ResponseEntity.ok(buildImportSummary(
+                "Successfully imported " + importedTripCount + " trips with their destinations.", importedTripCount, batchCount.get(), startNanos));
+    }
+
+
+    /**
+     * Starts an asynchronous import of trips with their nested destinations from an uploaded JSON file.
+     * Handles HTTP POST requests to /trips/import-json?async=true. Accepts JSON arrays and NDJSON like the synchronous import.
+     *
+     * @param file The uploaded JSON file as a MultipartFile.
+     * @param chunkSize The number of trips persisted per transaction (defaults to tripplanner.import.chunk-size).
+     * @return A 202 Accepted ResponseEntity describing the queued job.
+     * @throws IOException If the upload cannot be spooled.
+     */
+    @PostMapping(value = "/import-json", params = "async=true")
+    public ResponseEntity<ImportJobResponse> importTripsWithDestinationsFromJsonAsync(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "chunkSize", defaultValue = "${tripplanner.import.chunk-size:500}") @Min(1) int chunkSize) throws IOException {
+        boolean newlineDelimited = isNdjson(file);
+        if (!newlineDelimited && !isUploadOf(file, MediaType.APPLICATION_JSON_VALUE, ".json")) {
+            throw new FileProcessingException("Please upload a JSON file!");
         }
 
-        // Return success message with count
-        return new ResponseEntity<>("Successfully imported " + importedTripCount + " trips with their destinations.", HttpStatus.OK);
+        ImportJobResponse job = importJobService.submitFileImport(newlineDelimited ? "ndjson" : "json", file, (is, importJob) -> {
+            Consumer<List<TripWithDestinationsRequest>> persistBatch = batch -> {
+                importJob.checkNotCancelled();
+                tripService.importTripsWithDestinations(batch);
+                importJob.recordChunk(batch.size());
+            };
+            if (newlineDelimited) {
+                jsonService.importTripsWithDestinationsFromNdjson(is, chunkSize, persistBatch);
+            } else {
+                jsonService.importTripsWithDestinationsFromJson(is, chunkSize, persistBatch);
+            }
+        });
+        return acceptedImportJob(job);
     }
 
-
+    /**
+     * Imports trips with their nested destinations sent directly as a JSON array.
+     * Handles HTTP POST requests to /trips/batch.
+     * Trips are persisted together with their destinations in chunks, one transaction per chunk.
+     *
+     * @param batchTrips The validated list of trips with destinations.
+     * @param chunkSize The number of trips persisted per transaction (defaults to tripplanner.import.chunk-size).
+     * @return A ResponseEntity with a success message and count of imported trips.
+     */
     @PostMapping("/batch") // Maps POST requests to /trips/batch
     public ResponseEntity<String> importBatchTrips(
-            @Valid @RequestBody List<TripWithDestinationsRequest> batchTrips) { // @Valid on the list for nested validation
-
-        int importedTripCount = 0;
-        for (TripWithDestinationsRequest tripWithDestinationsRequest : batchTrips) {
-            // Create the main Trip
-            TripRequest tripRequest = new TripRequest(
-                    tripWithDestinationsRequest.getName(),
-                    tripWithDestinationsRequest.getStartDate(),
-                    tripWithDestinationsRequest.getEndDate(),
-                    tripWithDestinationsRequest.getDescription()
-            );
-            TripResponse createdTrip = tripService.createTrip(tripRequest); // This will save the trip to DB and return its ID
-
-            // Add destinations to the newly created trip
-            if (tripWithDestinationsRequest.getDestinations() != null && !tripWithDestinationsRequest.getDestinations().isEmpty()) {
-                for (DestinationRequest destinationRequest : tripWithDestinationsRequest.getDestinations()) {
-                    // Use the ID of the just-created trip
-                    destinationService.addDestinationToTrip(createdTrip.getId(), destinationRequest);
-                }
+            @Valid @RequestBody List<TripWithDestinationsRequest> batchTrips, // @Valid on the list for nested validation
+            @RequestParam(value = "chunkSize", defaultValue = "${tripplanner.import.chunk-size:500}") @Min(1) int chunkSize) {
+
+        importMetrics.rowsParsed(BATCH_FORMAT, batchTrips.size());
+        int importedTripCount = importMetrics.recordImport(BATCH_FORMAT, () -> {
+            AtomicInteger persisted = new AtomicInteger();
+            for (int from = 0; from < batchTrips.size(); from += chunkSize) {
+                List<TripWithDestinationsRequest> chunk = batchTrips.subList(from, Math.min(from + chunkSize, batchTrips.size()));
+                importMetrics.persist(BATCH_FORMAT, chunk, rows -> persisted.addAndGet(tripService.importTripsWithDestinations(rows)));
             }
-            importedTripCount++;
-        }
+            return persisted.get();
+        });
 
         return new ResponseEntity<>("Successfully imported " + importedTripCount + " trips with their destinations.", HttpStatus.OK);
     }
+
+    /**
+     * Starts an asynchronous import of trips with their nested destinations sent directly as a JSON array.
+     * Handles HTTP POST requests to /trips/batch?async=true.
+     *
+     * @param batchTrips The validated list of trips with destinations.
+     * @param chunkSize The number of trips persisted per transaction (defaults to tripplanner.import.chunk-size).
+     * @return A 202 Accepted ResponseEntity describing the queued job.
+     */
+    @PostMapping(value = "/batch", params = "async=true")
+    public ResponseEntity<ImportJobResponse> importBatchTripsAsync(
+            @Valid @RequestBody List<TripWithDestinationsRequest> batchTrips,
+            @RequestParam(value = "chunkSize", defaultValue = "${tripplanner.import.chunk-size:500}") @Min(1) int chunkSize) {
+
+        importMetrics.rowsParsed(BATCH_FORMAT, batchTrips.size());
+        ImportJobResponse job = importJobService.submitImport(BATCH_FORMAT, batchTrips.size(), importJob ->
+                importMetrics.recordImport(BATCH_FORMAT, () -> {
+                    for (int from = 0; from < batchTrips.size(); from += chunkSize) {
+                        importJob.checkNotCancelled();
+                        List<TripWithDestinationsRequest> chunk = batchTrips.subList(from, Math.min(from + chunkSize, batchTrips.size()));
+                        importMetrics.persist(BATCH_FORMAT, chunk, tripService::importTripsWithDestinations);
+                        importJob.recordChunk(chunk.size());
+                    }
+                    return null;
+                }));
+        return acceptedImportJob(job);
+    }
+
+    // NDJSON uploads, e.g. from /trips/export?format=ndjson, are told apart from JSON arrays by their content type or by
+    // a .ndjson file name, whatever its type: curl and browsers send such files as application/octet-stream
+    private static boolean isNdjson(MultipartFile file) {
+        String filename = file.getOriginalFilename();
+        return isUploadOf(file, MediaType.APPLICATION_NDJSON_VALUE, ".ndjson")
+                || filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".ndjson");
+    }
+
+    // A compressed upload such as trips.csv.gz usually arrives as application/gzip or octet-stream, so its own type is
+    // taken from the file name under the compression suffix; the services detect the compression by its magic bytes
+    private static boolean isUploadOf(MultipartFile file, String mediaType, String extension) {
+        if (mediaType.equals(file.getContentType())) {
+            return true;
+        }
+        String filename = file.getOriginalFilename();
+        if (filename == null || !COMPRESSED_UPLOAD_TYPES.contains(file.getContentType())) {
+            return false;
+        }
+        String name = filename.toLowerCase(Locale.ROOT);
+        return COMPRESSED_FILE_SUFFIXES.stream().anyMatch(suffix -> name.endsWith(extension + suffix));
+    }
+
+    // Compresses a streamed export body as it is written. Closing the encoder ends the compressed data,
+    // while the response stream itself is left open for Spring to complete. If the export fails midway the
+    // compressed data is left unterminated, so the client sees a corrupt body rather than a complete-looking short one
+    private static StreamingResponseBody encode(Optional<ContentCoding> coding, StreamingResponseBody body) {
+        if (coding.isEmpty()) {
+            return body;
+        }
+        return outputStream -> {
+            AtomicBoolean aborted = new AtomicBoolean();
+            OutputStream target = new FilterOutputStream(StreamUtils.nonClosing(outputStream)) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    if (!aborted.get()) {
+                        out.write(b, off, len);
+                    }
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    if (!aborted.get()) {
+                        out.write(b);
+                    }
+                }
+            };
+            OutputStream encoded = coding.get().encode(target);
+            try {
+                body.writeTo(encoded);
+            } catch (IOException | RuntimeException e) {
+                aborted.set(true); // Still close the encoder to free it, but drop the trailer it writes
+                try {
+                    encoded.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+                throw e;
+            }
+            encoded.close();
+        };
+    }
+
+    private static void setContentEncoding(HttpHeaders headers, Optional<ContentCoding> coding) {
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING)); // Caches must not serve a compressed body to a client that did not ask for it
+        coding.ifPresent(c -> headers.set(HttpHeaders.CONTENT_ENCODING, c.token()));
+    }
+
+    private ResponseEntity<ImportJobResponse> acceptedImportJob(ImportJobResponse job) {
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/imports/{jobId}")
+                .buildAndExpand(job.getJobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    private ImportSummary buildImportSummary(String message, long rowsImported, long chunks, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        double rowsPerSecond = elapsedNanos > 0 ? rowsImported * 1_000_000_000d / elapsedNanos : 0;
+        return new ImportSummary(message, rowsImported, chunks, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond);
+    }
 }
@@ -1,10 +1,16 @@
 package com.example.tripplanner.controller.advice;
 
 import com.example.tripplanner.controller.TripController;
+import com.example.tripplanner.exceptions.BulkSelectionTooLargeException;
 import com.example.tripplanner.exceptions.FileProcessingException;
+import com.example.tripplanner.exceptions.InvalidPageRequestException;
+import com.example.tripplanner.exceptions.RequestBodyTooLargeException;
 import com.example.tripplanner.exceptions.ResourceNotFoundException;
+import com.example.tripplanner.exceptions.TooManySubscribersException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -42,5 +48,38 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleFileProcessingException(FileProcessingException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<String> handleInvalidPageRequestException(InvalidPageRequestException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        // Another write to the same trip committed first and bumped its version; the client may simply retry
+        return new ResponseEntity<>("The trip was changed by a concurrent request, please retry.", HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(BulkSelectionTooLargeException.class)
+    public ResponseEntity<String> handleBulkSelectionTooLargeException(BulkSelectionTooLargeException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(RequestBodyTooLargeException.class)
+    public ResponseEntity<String> handleRequestBodyTooLargeException(RequestBodyTooLargeException ex) {
+        // Also matched as the cause of the HttpMessageNotReadableException JSON binding wraps it in
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleTaskRejectedException(TaskRejectedException ex) {
+        // The import executor's queue is full; the client should retry later
+        return new ResponseEntity<>("Too many import jobs in progress, please retry later.", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(TooManySubscribersException.class)
+    public ResponseEntity<String> handleTooManySubscribersException(TooManySubscribersException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
 
@@ -0,0 +1,9 @@
+package com.example.tripplanner.event;
+
+import com.example.tripplanner.model.dto.DestinationResponse;
+
+/**
+ * Published when a destination was added to an existing trip.
+ */
+public record DestinationAddedEvent(DestinationResponse destination) {
+}
@@ -0,0 +1,11 @@
+package com.example.tripplanner.event;
+
+import com.example.tripplanner.model.dto.DestinationResponse;
+
+import java.util.List;
+
+/**
+ * Published when existing destinations were changed in bulk, e.g. moved along with their trips, with their new values.
+ */
+public record DestinationsUpdatedEvent(List<DestinationResponse> destinations) {
+}
@@ -0,0 +1,7 @@
+package com.example.tripplanner.event;
+
+/**
+ * Published when a trip was deleted. Its destinations were removed with it by the cascade.
+ */
+public record TripDeletedEvent(Long tripId) {
+}
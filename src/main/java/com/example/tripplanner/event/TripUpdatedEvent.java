@@ -0,0 +1,9 @@
+package com.example.tripplanner.event;
+
+import com.example.tripplanner.model.dto.TripResponse;
+
+/**
+ * Published when a trip's own fields were updated; its destinations are unchanged.
+ */
+public record TripUpdatedEvent(TripResponse trip) {
+}
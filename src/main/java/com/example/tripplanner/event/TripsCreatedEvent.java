@@ -0,0 +1,12 @@
+package com.example.tripplanner.event;
+
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+
+import java.util.List;
+
+/**
+ * Published once per create call (single trip, batch or import chunk) with every trip it persisted,
+ * each with the destinations created along with it.
+ */
+public record TripsCreatedEvent(List<TripWithDestinationsResponse> trips) {
+}
@@ -0,0 +1,9 @@
+package com.example.tripplanner.event;
+
+import java.util.List;
+
+/**
+ * Published once per chunk of a bulk delete with the IDs of the trips it deleted, together with their destinations.
+ */
+public record TripsDeletedEvent(List<Long> tripIds) {
+}
@@ -0,0 +1,12 @@
+package com.example.tripplanner.event;
+
+import com.example.tripplanner.model.dto.TripResponse;
+
+import java.util.List;
+
+/**
+ * Published once per chunk of a bulk update with the new values of the trips it changed; their destinations are
+ * announced separately by a DestinationsUpdatedEvent if they moved.
+ */
+public record TripsUpdatedEvent(List<TripResponse> trips) {
+}
@@ -0,0 +1,7 @@
+package com.example.tripplanner.exceptions;
+
+public class BulkSelectionTooLargeException extends RuntimeException {
+    public BulkSelectionTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.tripplanner.exceptions;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.tripplanner.exceptions;
+
+public class TooManySubscribersException extends RuntimeException {
+    public TooManySubscribersException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.tripplanner.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An augmented AVL tree of closed date intervals [start, end], each identified by a unique key.
+ * Nodes are ordered by (start, key) and every node records the latest end date in its subtree,
+ * so a window lookup only descends into subtrees that can still contain an overlapping interval:
+ * O(log n) for put and remove, O(log n + k) for a lookup returning k intervals.
+ * <p>
+ * Not thread-safe; callers must synchronize access.
+ *
+ * @param <V> The value stored with each interval.
+ */
+public class IntervalTree<V> {
+
+    private static final class Node<V> {
+        final long key;
+        final long start;
+        final long end;
+        final V value;
+        long maxEnd;
+        int height = 1;
+        Node<V> left;
+        Node<V> right;
+
+        Node(long key, long start, long end, V value) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<V> root;
+    // Start day of every key in the tree, needed to find a node by key on remove
+    private final Map<Long, Long> startsByKey = new HashMap<>();
+
+    /**
+     * Adds an interval, replacing any interval already stored under the same key.
+     *
+     * @param key The unique key of the interval, e.g. the trip ID.
+     * @param start The first day of the interval.
+     * @param end The last day of the interval, inclusive.
+     * @param value The value returned by lookups that match the interval.
+     */
+    public void put(long key, LocalDate start, LocalDate end, V value) {
+        remove(key);
+        long startDay = start.toEpochDay();
+        root = insert(root, new Node<>(key, startDay, end.toEpochDay(), value));
+        startsByKey.put(key, startDay);
+    }
+
+    /**
+     * Removes the interval stored under the key.
+     *
+     * @param key The key of the interval.
+     * @return true if an interval was removed, false if the key was not present.
+     */
+    public boolean remove(long key) {
+        Long startDay = startsByKey.remove(key);
+        if (startDay == null) {
+            return false;
+        }
+        root = delete(root, startDay, key);
+        return true;
+    }
+
+    /**
+     * Finds all intervals sharing at least one day with the window [from, to].
+     *
+     * @param from The first day of the window.
+     * @param to The last day of the window, inclusive.
+     * @return The values of the overlapping intervals, ordered by start date and key.
+     */
+    public List<V> findOverlapping(LocalDate from, LocalDate to) {
+        List<V> result = new ArrayList<>();
+        collectOverlapping(root, from.toEpochDay(), to.toEpochDay(), result);
+        return result;
+    }
+
+    public int size() {
+        return startsByKey.size();
+    }
+
+    public void clear() {
+        root = null;
+        startsByKey.clear();
+    }
+
+    private void collectOverlapping(Node<V> node, long from, long to, List<V> result) {
+        // Nothing below this node ends on or after the window's first day
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, result);
+        // Right subtree intervals start no earlier than this node, so they are only visited if this one starts in time
+        if (node.start <= to) {
+            if (node.end >= from) {
+                result.add(node.value);
+            }
+            collectOverlapping(node.right, from, to, result);
+        }
+    }
+
+    private Node<V> insert(Node<V> node, Node<V> newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.start, newNode.key, node) < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return rebalance(node);
+    }
+
+    private Node<V> delete(Node<V> node, long start, long key) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, key, node);
+        if (comparison < 0) {
+            node.left = delete(node.left, start, key);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, start, key);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Relink the in-order successor in place of the removed node
+            Node<V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private Node<V> deleteMin(Node<V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int compare(long start, long key, Node<?> node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(key, node.key);
+    }
+
+    private Node<V> rebalance(Node<V> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<V> rotateRight(Node<V> node) {
+        Node<V> newRoot = node.left;
+        node.left = newRoot.right;
+        newRoot.right = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    private Node<V> rotateLeft(Node<V> node) {
+        Node<V> newRoot = node.right;
+        node.right = newRoot.left;
+        newRoot.left = node;
+        update(node);
+        update(newRoot);
+        return newRoot;
+    }
+
+    private void update(Node<V> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+}
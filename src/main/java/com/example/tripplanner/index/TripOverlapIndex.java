@@ -0,0 +1,199 @@
+package com.example.tripplanner.index;
+
+import com.example.tripplanner.event.DestinationAddedEvent;
+import com.example.tripplanner.event.DestinationsUpdatedEvent;
+import com.example.tripplanner.event.TripDeletedEvent;
+import com.example.tripplanner.event.TripUpdatedEvent;
+import com.example.tripplanner.event.TripsCreatedEvent;
+import com.example.tripplanner.event.TripsDeletedEvent;
+import com.example.tripplanner.event.TripsUpdatedEvent;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripOverlapResponse;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.repository.DestinationRepository;
+import com.example.tripplanner.repository.TripRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory interval index answering "which trips and destinations overlap this date window" without a query.
+ * It is loaded from the database once the application is ready and then kept current by the trip and
+ * destination events, which are applied after their transaction commits so rolled-back writes never show up.
+ * Trips and destinations without both dates cannot overlap a window and are not indexed.
+ */
+@Component
+public class TripOverlapIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TripOverlapIndex.class);
+
+    private final TripRepository tripRepository;
+    private final DestinationRepository destinationRepository;
+
+    private final IntervalTree<TripResponse> trips = new IntervalTree<>();
+    private final IntervalTree<DestinationResponse> destinations = new IntervalTree<>();
+    // Lets a trip deletion drop the destinations removed with it by the cascade
+    private final Map<Long, Set<Long>> destinationIdsByTripId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public TripOverlapIndex(TripRepository tripRepository, DestinationRepository destinationRepository) {
+        this.tripRepository = tripRepository;
+        this.destinationRepository = destinationRepository;
+    }
+
+    /**
+     * Finds the trips and destinations sharing at least one day with the window [from, to].
+     *
+     * @param from The first day of the window.
+     * @param to The last day of the window, inclusive.
+     * @return The overlapping trips and destinations, each ordered by start date, then ID.
+     */
+    public TripOverlapResponse findOverlapping(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            return new TripOverlapResponse(trips.findOverlapping(from, to), destinations.findOverlapping(from, to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reloads the index from the database.
+     * Writes committed while the index is loading wait for the lock and are applied afterwards;
+     * applying an event the load already saw is harmless, since entries are replaced by ID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true) // Keeps the connection open while the cursors are read
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            trips.clear();
+            destinations.clear();
+            destinationIdsByTripId.clear();
+            try (Stream<TripResponse> allTrips = tripRepository.streamAllTripResponses()) {
+                allTrips.forEach(this::putTrip);
+            }
+            try (Stream<DestinationResponse> allDestinations = destinationRepository.streamAllResponses()) {
+                allDestinations.forEach(this::putDestination);
+            }
+            log.info("Trip overlap index loaded with {} trips and {} destinations", trips.size(), destinations.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // Also applied right away when published outside a transaction
+    public void onTripsCreated(TripsCreatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (TripWithDestinationsResponse trip : event.trips()) {
+                putTrip(new TripResponse(trip.getId(), trip.getName(), trip.getStartDate(), trip.getEndDate(), trip.getDescription()));
+                if (trip.getDestinations() != null) {
+                    trip.getDestinations().forEach(this::putDestination);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripUpdated(TripUpdatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            putTrip(event.trip());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsUpdated(TripsUpdatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.trips().forEach(this::putTrip);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripDeleted(TripDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeTrip(event.tripId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsDeleted(TripsDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.tripIds().forEach(this::removeTrip);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDestinationAdded(DestinationAddedEvent event) {
+        lock.writeLock().lock();
+        try {
+            putDestination(event.destination());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDestinationsUpdated(DestinationsUpdatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.destinations().forEach(this::putDestination); // Replaces each destination's interval by ID
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putTrip(TripResponse trip) {
+        if (trip.getStartDate() == null || trip.getEndDate() == null) {
+            trips.remove(trip.getId()); // An update may have cleared the dates
+            return;
+        }
+        trips.put(trip.getId(), trip.getStartDate(), trip.getEndDate(), trip);
+    }
+
+    private void removeTrip(Long tripId) {
+        trips.remove(tripId);
+        Set<Long> destinationIds = destinationIdsByTripId.remove(tripId);
+        if (destinationIds != null) {
+            destinationIds.forEach(destinations::remove);
+        }
+    }
+
+    private void putDestination(DestinationResponse destination) {
+        if (destination.getArrivalDate() == null || destination.getDepartureDate() == null) {
+            return;
+        }
+        destinations.put(destination.getId(), destination.getArrivalDate(), destination.getDepartureDate(), destination);
+        destinationIdsByTripId.computeIfAbsent(destination.getTripId(), tripId -> new HashSet<>()).add(destination.getId());
+    }
+}
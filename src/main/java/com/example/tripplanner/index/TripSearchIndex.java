@@ -0,0 +1,318 @@
+package com.example.tripplanner.index;
+
+import com.example.tripplanner.event.DestinationAddedEvent;
+import com.example.tripplanner.event.TripDeletedEvent;
+import com.example.tripplanner.event.TripUpdatedEvent;
+import com.example.tripplanner.event.TripsCreatedEvent;
+import com.example.tripplanner.event.TripsDeletedEvent;
+import com.example.tripplanner.event.TripsUpdatedEvent;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripSearchHit;
+import com.example.tripplanner.model.dto.TripSearchResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.repository.DestinationRepository;
+import com.example.tripplanner.repository.TripRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index for keyword search over trips.
+ * Each trip is one document made of its name, its description and the names and locations of its destinations.
+ * Terms are kept in sorted order, so a query term matches every indexed term it is a prefix of ("par" finds "paris")
+ * with a range scan. Trips must match all query terms and are ranked by TF-IDF, where a name match counts more than
+ * a destination match, which counts more than a description match, and exact terms count more than prefix matches.
+ * Loaded once the application is ready and kept current by the trip and destination events after commit.
+ */
+@Component
+public class TripSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TripSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESTINATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final TripRepository tripRepository;
+    private final DestinationRepository destinationRepository;
+
+    // Term -> (trip ID -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, TripDocument> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * What is indexed for one trip. The destination terms are kept so the trip can be re-indexed
+     * when its own fields change without reloading its destinations.
+     */
+    private static final class TripDocument {
+        TripResponse trip;
+        final List<String> destinationTerms = new ArrayList<>();
+        Map<String, Integer> termWeights = Map.of();
+    }
+
+    private record ScoredTrip(Long tripId, double score) {
+    }
+
+    @Autowired
+    public TripSearchIndex(TripRepository tripRepository, DestinationRepository destinationRepository) {
+        this.tripRepository = tripRepository;
+        this.destinationRepository = destinationRepository;
+    }
+
+    /**
+     * Finds the trips matching every term of the query, best match first.
+     *
+     * @param query The keywords, e.g. "paris honeymoon"; each keyword also matches as a prefix.
+     * @param limit The maximum number of hits to return.
+     * @return The top hits and the total number of matching trips.
+     */
+    public TripSearchResponse search(String query, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+        if (queryTerms.isEmpty()) {
+            return new TripSearchResponse(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((tripId, score) -> score + termScores.get(tripId));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+            return new TripSearchResponse(topHits(scores, limit), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every trip containing a term that starts with the query term.
+     */
+    private Map<Long, Double> scoreTerm(String queryTerm) {
+        Map<Long, Double> termScores = new HashMap<>();
+        NavigableMap<String, Map<Long, Integer>> matchingTerms = postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Long, Integer>> term : matchingTerms.entrySet()) {
+            Map<Long, Integer> tripWeights = term.getValue();
+            double idf = Math.log(1 + (double) documents.size() / tripWeights.size());
+            double factor = term.getKey().equals(queryTerm) ? 1 : PREFIX_MATCH_FACTOR;
+            tripWeights.forEach((tripId, weight) -> termScores.merge(tripId, weight * idf * factor, Double::sum));
+        }
+        return termScores;
+    }
+
+    private List<TripSearchHit> topHits(Map<Long, Double> scores, int limit) {
+        // Bounded min-heap: O(n log limit) instead of sorting every match
+        Comparator<ScoredTrip> ranking = Comparator.comparingDouble(ScoredTrip::score)
+                .thenComparing(ScoredTrip::tripId, Comparator.reverseOrder());
+        PriorityQueue<ScoredTrip> top = new PriorityQueue<>(limit + 1, ranking);
+        scores.forEach((tripId, score) -> {
+            top.add(new ScoredTrip(tripId, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<ScoredTrip> ranked = new ArrayList<>(top);
+        ranked.sort(ranking.reversed());
+        List<TripSearchHit> hits = new ArrayList<>(ranked.size());
+        for (ScoredTrip scoredTrip : ranked) {
+            TripResponse trip = documents.get(scoredTrip.tripId()).trip;
+            hits.add(new TripSearchHit(trip.getId(), trip.getName(), trip.getStartDate(), trip.getEndDate(),
+                    trip.getDescription(), scoredTrip.score()));
+        }
+        return hits;
+    }
+
+    /**
+     * Reloads the index from the database; see TripOverlapIndex.rebuild for how concurrent writes are handled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            try (Stream<TripResponse> allTrips = tripRepository.streamAllTripResponses()) {
+                allTrips.forEach(trip -> documents.computeIfAbsent(trip.getId(), tripId -> new TripDocument()).trip = trip);
+            }
+            try (Stream<DestinationResponse> allDestinations = destinationRepository.streamAllResponses()) {
+                allDestinations.forEach(destination -> {
+                    TripDocument document = documents.get(destination.getTripId());
+                    if (document != null) {
+                        addDestinationTerms(document, destination);
+                    }
+                });
+            }
+            documents.values().forEach(this::index);
+            log.info("Trip search index loaded with {} trips and {} terms", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsCreated(TripsCreatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (TripWithDestinationsResponse trip : event.trips()) {
+                TripDocument document = new TripDocument();
+                document.trip = new TripResponse(trip.getId(), trip.getName(), trip.getStartDate(), trip.getEndDate(), trip.getDescription());
+                if (trip.getDestinations() != null) {
+                    trip.getDestinations().forEach(destination -> addDestinationTerms(document, destination));
+                }
+                unindex(documents.put(trip.getId(), document));
+                index(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripUpdated(TripUpdatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            updateTrip(event.trip());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsUpdated(TripsUpdatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.trips().forEach(this::updateTrip);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripDeleted(TripDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            unindex(documents.remove(event.tripId()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsDeleted(TripsDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.tripIds().forEach(tripId -> unindex(documents.remove(tripId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDestinationAdded(DestinationAddedEvent event) {
+        lock.writeLock().lock();
+        try {
+            TripDocument document = documents.get(event.destination().getTripId());
+            if (document != null) {
+                unindex(document);
+                addDestinationTerms(document, event.destination());
+                index(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called with the write lock held
+    private void updateTrip(TripResponse trip) {
+        TripDocument document = documents.computeIfAbsent(trip.getId(), tripId -> new TripDocument());
+        document.trip = trip;
+        unindex(document);
+        index(document);
+    }
+
+    private static void addDestinationTerms(TripDocument document, DestinationResponse destination) {
+        document.destinationTerms.addAll(tokenize(destination.getName()));
+        document.destinationTerms.addAll(tokenize(destination.getLocation()));
+    }
+
+    private void index(TripDocument document) {
+        Map<String, Integer> termWeights = new HashMap<>();
+        tokenize(document.trip.getName()).forEach(term -> termWeights.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(document.trip.getDescription()).forEach(term -> termWeights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        document.destinationTerms.forEach(term -> termWeights.merge(term, DESTINATION_WEIGHT, Integer::sum));
+        Long tripId = document.trip.getId();
+        termWeights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(tripId, weight));
+        document.termWeights = termWeights;
+    }
+
+    private void unindex(TripDocument document) {
+        if (document == null || document.trip == null) {
+            return;
+        }
+        Long tripId = document.trip.getId();
+        for (String term : document.termWeights.keySet()) {
+            Map<Long, Integer> tripWeights = postings.get(term);
+            if (tripWeights != null) {
+                tripWeights.remove(tripId);
+                if (tripWeights.isEmpty()) {
+                    postings.remove(term); // Keeps prefix scans from walking dead terms
+                }
+            }
+        }
+        document.termWeights = Map.of();
+    }
+
+    /**
+     * Splits text into lower-case terms on anything that is not a letter or digit, dropping accents
+     * so "Zürich" and "zurich" match.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.tripplanner.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the import pipelines, tagged by format (csv, json, batch):
+ * <ul>
+ *     <li>tripplanner.import.rows.parsed: rows read from the upload or request body.</li>
+ *     <li>tripplanner.import.rows.persisted: rows whose chunk was committed.</li>
+ *     <li>tripplanner.import.rows.rejected: rows that failed to parse, or whose chunk failed to persist.</li>
+ *     <li>tripplanner.import: duration of whole imports, additionally tagged with outcome (success, failure).</li>
+ *     <li>tripplanner.import.active: imports currently running, sync and async.</li>
+ * </ul>
+ */
+@Component
+public class ImportMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger activeImports = new AtomicInteger();
+
+    @Autowired
+    public ImportMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("tripplanner.import.active", activeImports);
+    }
+
+    public void rowsParsed(String format, long count) {
+        rows("parsed", format).increment(count);
+    }
+
+    public void rowsPersisted(String format, long count) {
+        rows("persisted", format).increment(count);
+    }
+
+    public void rowsRejected(String format, long count) {
+        rows("rejected", format).increment(count);
+    }
+
+    /**
+     * Hands a chunk to the persistence consumer and counts its rows as persisted, or as rejected if the consumer throws.
+     */
+    public <T> void persist(String format, List<T> chunk, Consumer<List<T>> chunkConsumer) {
+        try {
+            chunkConsumer.accept(chunk);
+        } catch (RuntimeException e) {
+            rowsRejected(format, chunk.size());
+            throw e;
+        }
+        rowsPersisted(format, chunk.size());
+    }
+
+    /**
+     * Runs a whole import, timing it and counting it as active while it runs.
+     *
+     * @return The import's result.
+     */
+    public <T> T recordImport(String format, Supplier<T> importRun) {
+        activeImports.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T result = importRun.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("tripplanner.import")
+                    .description("Duration of whole imports")
+                    .tag("format", format)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            activeImports.decrementAndGet();
+        }
+    }
+
+    private Counter rows(String stage, String format) {
+        // Registration is idempotent; the registry hands back the existing counter
+        return Counter.builder("tripplanner.import.rows." + stage)
+                .tag("format", format)
+                .register(meterRegistry);
+    }
+}
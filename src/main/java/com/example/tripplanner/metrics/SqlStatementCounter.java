@@ -0,0 +1,83 @@
+package com.example.tripplanner.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Counts the JDBC statements executed on the current thread while a scope is open.
+ * The proxied DataSource reports every execution here; the request filter opens a scope per HTTP request
+ * and tests open one per test method. Scopes nest, and a statement counts towards every scope open on its thread.
+ * A JDBC batch is one execution. Work handed to other threads (async imports, streaming exports) is not counted.
+ */
+public final class SqlStatementCounter {
+
+    // Keeps a runaway request from holding every statement it ran
+    private static final int MAX_RECORDED_STATEMENTS = 100;
+
+    private static final ThreadLocal<Deque<Scope>> OPEN_SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Opens a counting scope on the current thread; close it on the same thread.
+     */
+    public static Scope open() {
+        Scope scope = new Scope();
+        OPEN_SCOPES.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * Records one statement execution in every scope open on the current thread.
+     *
+     * @param sql The statement's SQL; for a batch, the SQL followed by the batch size.
+     */
+    static void record(String sql) {
+        Deque<Scope> scopes = OPEN_SCOPES.get();
+        if (scopes.isEmpty()) {
+            OPEN_SCOPES.remove(); // Don't leave an empty deque behind on pooled threads
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.count++;
+            if (scope.statements.size() < MAX_RECORDED_STATEMENTS) {
+                scope.statements.add(sql);
+            }
+        }
+    }
+
+    /**
+     * The statements executed on one thread between open() and close().
+     */
+    public static final class Scope implements AutoCloseable {
+        private int count;
+        private final List<String> statements = new ArrayList<>();
+
+        private Scope() {
+        }
+
+        public int count() {
+            return count;
+        }
+
+        /**
+         * The SQL of the statements executed so far, in order; capped at the first 100.
+         */
+        public List<String> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> scopes = OPEN_SCOPES.get();
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                OPEN_SCOPES.remove();
+            }
+        }
+    }
+}
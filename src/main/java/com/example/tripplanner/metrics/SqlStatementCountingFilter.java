@@ -0,0 +1,60 @@
+package com.example.tripplanner.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements each HTTP request issues on its request thread.
+ * The count is published as the tripplanner.http.sql.statements summary, tagged by method and uri template,
+ * and requests above tripplanner.sql.statement-threshold are logged at WARN with their SQL,
+ * which is how N+1 query patterns show up. Registered by SqlStatementCountingConfig.
+ */
+public class SqlStatementCountingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementCountingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int statementThreshold;
+
+    public SqlStatementCountingFilter(MeterRegistry meterRegistry, int statementThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.statementThreshold = statementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                report(request, scope);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementCounter.Scope scope) {
+        // Only set once a handler matched; keeps the tag's cardinality bounded
+        Object uriTemplate = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("tripplanner.http.sql.statements")
+                .description("SQL statements issued per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uriTemplate != null ? uriTemplate.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(scope.count());
+        if (scope.count() > statementThreshold) {
+            log.warn("{} {} issued {} SQL statements (threshold {}):\n{}", request.getMethod(), request.getRequestURI(),
+                    scope.count(), statementThreshold, String.join("\n", scope.statements()));
+        }
+    }
+}
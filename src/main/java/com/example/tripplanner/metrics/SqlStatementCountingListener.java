@@ -0,0 +1,23 @@
+package com.example.tripplanner.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * datasource-proxy listener that reports each JDBC execution to the SqlStatementCounter.
+ */
+public class SqlStatementCountingListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        SqlStatementCounter.record(execInfo.isBatch() ? sql + " [batch of " + execInfo.getBatchSize() + "]" : sql);
+    }
+}
@@ -2,35 +2,62 @@ package com.example.tripplanner.model;
 
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "destinations")
+@Table(name = "destinations", indexes = {
+        // Delta export: trips whose destinations changed are found by a range scan on the change timestamp
+        @Index(name = "idx_destinations_updated_at", columnList = "updated_at")
+})
+@NamedEntityGraph(name = "Destination.only") // Fetch profile FetchProfile.DESTINATION_ONLY
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Destination {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence for the same reason as Trip.id: IDENTITY would disable insert batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "destinations_seq")
+    @SequenceGenerator(name = "destinations_seq", sequenceName = "destinations_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String location;
     private LocalDate arrivalDate;
     private LocalDate departureDate;
-    @ManyToOne
+    // Lazy: reading a destination must not load its trip. getTrip().getId() is served by the proxy without a query.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trip_id", nullable = false)
     @JsonBackReference
     private Trip trip;
 
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    public Destination(Long id, String name, String location, LocalDate arrivalDate, LocalDate departureDate, Trip trip) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.arrivalDate = arrivalDate;
+        this.departureDate = departureDate;
+        this.trip = trip;
+    }
 }
@@ -0,0 +1,16 @@
+package com.example.tripplanner.model;
+
+/**
+ * Lifecycle states of an asynchronous import job.
+ */
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -7,24 +7,45 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Version;
 import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "trips")
+@Table(name = "trips", indexes = {
+        // Serves the startDate keyset pages (order by start_date, id) as an index range scan
+        @Index(name = "idx_trips_start_date_id", columnList = "start_date, id"),
+        // Date-window filters: range on start_date, end_date checked from the index entry
+        @Index(name = "idx_trips_start_date_end_date", columnList = "start_date, end_date"),
+        // Name prefix filter (LIKE 'prefix%')
+        @Index(name = "idx_trips_name", columnList = "name"),
+        // Delta export (GET /trips/export/changes): range scan on the change timestamp
+        @Index(name = "idx_trips_updated_at", columnList = "updated_at")
+})
+// Fetch profiles, see FetchProfile
+@NamedEntityGraph(name = "Trip.summary")
+@NamedEntityGraph(name = "Trip.withDestinations", attributeNodes = @NamedAttributeNode("destinations"))
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Trip {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (pooled optimizer, allocationSize = JDBC batch size) keep Hibernate's insert batching enabled
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trips_seq")
+    @SequenceGenerator(name = "trips_seq", sequenceName = "trips_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -38,8 +59,27 @@ public class Trip {
     // 'cascade = CascadeType.ALL' means operations (persist, merge, remove) on Trip will cascade to Destinations.
     // 'orphanRemoval = true' means if a Destination is removed from the 'destinations' list, it will be deleted from the database.
     @JsonManagedReference // Prevents infinite recursion when serializing Trip -> Destinations
+    @OrderBy("id") // Stable itinerary order, also when the collection is loaded through an entity graph
     private List<Destination> destinations = new ArrayList<>();
 
+    // Bumped by Hibernate on every trip update, and forced up when a destination is added (see DestinationServiceImpl).
+    // Exposed as the ETag of GET /trips/{id} and GET /trips/{id}/destinations.
+    @Version
+    private Long version;
+
+    // Stamped by Hibernate when the row is inserted and on every update of the trip's own columns.
+    // Adding a destination stamps the destination, not the trip; the delta export looks at both.
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    public Trip(Long id, String name, LocalDate startDate, LocalDate endDate, String description, List<Destination> destinations) {
+        this(id, name, startDate, endDate, description);
+        this.destinations = destinations;
+    }
+
     public Trip(Long id, String name, LocalDate startDate, LocalDate endDate, String description) {
         this.id = id;
         this.name = name;
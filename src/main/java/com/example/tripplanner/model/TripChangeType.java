@@ -0,0 +1,11 @@
+package com.example.tripplanner.model;
+
+/**
+ * Kinds of entries in the delta export (GET /trips/export/changes).
+ */
+public enum TripChangeType {
+    // The trip was created or changed, or one of its destinations was; the entry carries the whole trip
+    UPSERT,
+    // The trip was deleted, together with its destinations; the entry carries only the ID
+    DELETE
+}
@@ -0,0 +1,31 @@
+package com.example.tripplanner.model;
+
+import com.example.tripplanner.exceptions.InvalidPageRequestException;
+
+/**
+ * Orders supported by the keyset-paginated trip listing.
+ * Every order ends with the trip id so that the key of the last row on a page is unique.
+ */
+public enum TripSort {
+    ID("id"),
+    START_DATE("startDate");
+
+    private final String param;
+
+    TripSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public static TripSort fromParam(String param) {
+        for (TripSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        throw new InvalidPageRequestException("Unsupported sort '" + param + "', expected 'id' or 'startDate'");
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.tripplanner.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Records that a trip was deleted, so the delta export can report the deletion after the row itself is gone.
+ * Trip IDs come from a sequence and are never reused, so the trip ID is the key.
+ */
+@Entity
+@Table(name = "trip_tombstones", indexes = {
+        // Delta export: range scan on the deletion timestamp
+        @Index(name = "idx_trip_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Getter
+@NoArgsConstructor
+public class TripTombstone implements Persistable<Long> {
+    @Id
+    private Long tripId;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant deletedAt;
+
+    public TripTombstone(Long tripId) {
+        this.tripId = tripId;
+    }
+
+    @Override
+    public Long getId() {
+        return tripId;
+    }
+
+    // The ID is assigned, so without this save() would merge and first select the row; deletedAt is only set once persisted
+    @Override
+    public boolean isNew() {
+        return deletedAt == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.tripplanner.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for POST /trips/bulk-delete.
+ * The trips are selected either by ID or by the same filter as GET /trips, never both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+
+    @Size(max = 10000, message = "At most 10000 IDs per request")
+    private List<@NotNull Long> ids;
+
+    @Valid
+    private TripFilter filter;
+
+    // An empty filter would match every trip, which is too easy to send by accident
+    @AssertTrue(message = "Either ids or a filter with at least one criterion is required")
+    public boolean isSelectionValid() {
+        return ids != null ? filter == null : filter != null && !filter.isEmpty();
+    }
+}
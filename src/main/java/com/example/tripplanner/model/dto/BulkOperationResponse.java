@@ -0,0 +1,16 @@
+package com.example.tripplanner.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) reporting the rows changed by a bulk delete or bulk update.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponse {
+    private long tripsAffected;
+    private long destinationsAffected; // Deleted along with their trips; always 0 for updates
+}
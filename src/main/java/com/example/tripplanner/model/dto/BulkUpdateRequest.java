@@ -0,0 +1,42 @@
+package com.example.tripplanner.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for POST /trips/bulk-update.
+ * The trips are selected like in BulkDeleteRequest; every selected trip gets the same change.
+ * A date shift moves each trip's destinations by the same number of days.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateRequest {
+
+    @Size(max = 10000, message = "At most 10000 IDs per request")
+    private List<@NotNull Long> ids;
+
+    @Valid
+    private TripFilter filter;
+
+    private Integer shiftDays; // Moves startDate, endDate and the destinations' dates, e.g. 7 or -1
+
+    private String description; // Replaces every selected trip's description
+
+    @AssertTrue(message = "Either ids or a filter with at least one criterion is required")
+    public boolean isSelectionValid() {
+        return ids != null ? filter == null : filter != null && !filter.isEmpty();
+    }
+
+    @AssertTrue(message = "shiftDays or description is required")
+    public boolean isChangeGiven() {
+        return shiftDays != null || description != null;
+    }
+}
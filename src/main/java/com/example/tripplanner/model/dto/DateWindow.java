@@ -0,0 +1,32 @@
+package com.example.tripplanner.model.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) for a closed date window [from, to], bound from the query parameters of GET /trips/overlapping.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DateWindow {
+
+    @NotNull(message = "from is mandatory")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @NotNull(message = "to is mandatory")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    @AssertTrue(message = "from must not be after to")
+    public boolean isDateRangeValid() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+}
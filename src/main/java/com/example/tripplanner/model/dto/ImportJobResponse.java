@@ -0,0 +1,31 @@
+package com.example.tripplanner.model.dto;
+
+import com.example.tripplanner.model.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for reporting the progress of an asynchronous import job.
+ * Returned when a job is submitted and when it is polled via /imports/{jobId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private String jobId;
+    private String type;
+    private ImportJobStatus status;
+    private long rowsProcessed;
+    private long chunks;
+    private double rowsPerSecond;
+    private Double percentComplete; // Null while the size of the input is unknown
+    private Long etaSeconds; // Null unless the job is running and has made measurable progress
+    private List<String> errors;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
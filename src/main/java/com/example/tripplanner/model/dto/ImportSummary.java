@@ -0,0 +1,20 @@
+package com.example.tripplanner.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) describing the outcome of a chunked import.
+ * Used as the response body of the import endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportSummary {
+    private String message;
+    private long rowsImported;
+    private long chunks;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,35 @@
+package com.example.tripplanner.model.dto;
+
+import com.example.tripplanner.model.TripChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object (DTO) for one entry of the delta export (GET /trips/export/changes), written as one NDJSON line.
+ * An UPSERT carries the trip with all its destinations; a DELETE carries the ID and when the trip was deleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TripChange {
+    private TripChangeType type;
+    private Long id;
+    private TripWithDestinationsResponse trip; // UPSERT only
+    private Instant deletedAt; // DELETE only
+
+    /**
+     * A DELETE entry; also the constructor expression of the tombstone query.
+     */
+    public TripChange(Long deletedTripId, Instant deletedAt) {
+        this(TripChangeType.DELETE, deletedTripId, null, deletedAt);
+    }
+
+    public static TripChange upsert(TripWithDestinationsResponse trip) {
+        return new TripChange(TripChangeType.UPSERT, trip.getId(), trip, null);
+    }
+}
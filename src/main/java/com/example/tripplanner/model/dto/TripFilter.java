@@ -0,0 +1,60 @@
+package com.example.tripplanner.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import jakarta.validation.constraints.AssertTrue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Data Transfer Object (DTO) for the optional filters of GET /trips, bound from query parameters.
+ * All set filters must match; an empty filter matches every trip.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripFilter {
+
+    /**
+     * How the [from, to] window is compared with a trip's [startDate, endDate].
+     */
+    public enum DateMatch {
+        OVERLAP, // The trip shares at least one day with the window
+        WITHIN; // The trip lies entirely inside the window
+
+        /**
+         * Parses overlap or within in any case, as used in query parameters and the bulk request bodies.
+         *
+         * @throws IllegalArgumentException If the value names no DateMatch.
+         */
+        @JsonCreator
+        public static DateMatch fromValue(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private DateMatch match = DateMatch.OVERLAP;
+
+    private String namePrefix; // Case-sensitive, so the name index can serve it
+
+    private Boolean hasDestinations;
+
+    public boolean isEmpty() {
+        return from == null && to == null && (namePrefix == null || namePrefix.isEmpty()) && hasDestinations == null;
+    }
+
+    @AssertTrue(message = "from must not be after to")
+    public boolean isDateRangeValid() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+}
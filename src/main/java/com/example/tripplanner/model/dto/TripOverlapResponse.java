@@ -0,0 +1,19 @@
+package com.example.tripplanner.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the trips and destinations whose dates overlap a date window.
+ * Both lists are ordered by start (arrival) date, then ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripOverlapResponse {
+    private List<TripResponse> trips;
+    private List<DestinationResponse> destinations;
+}
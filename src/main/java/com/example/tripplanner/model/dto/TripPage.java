@@ -0,0 +1,20 @@
+package com.example.tripplanner.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of trips from the keyset-paginated listing.
+ * nextCursor is opaque to clients and is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripPage {
+    private List<TripResponse> items;
+    private String nextCursor;
+    private long totalCount;
+}
@@ -1,7 +1,9 @@
 package com.example.tripplanner.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
@@ -15,4 +17,14 @@ public class TripResponse {
     private LocalDate startDate;
     private LocalDate endDate;
     private String description;
+
+    // The trip's version, sent as the ETag rather than in the body. Kept here so a cached response can answer a
+    // conditional GET without asking the database
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private Long version;
+
+    public TripResponse(Long id, String name, LocalDate startDate, LocalDate endDate, String description) {
+        this(id, name, startDate, endDate, description, null);
+    }
 }
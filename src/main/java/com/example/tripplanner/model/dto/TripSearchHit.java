@@ -0,0 +1,23 @@
+package com.example.tripplanner.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) for one trip found by GET /trips/search, with its relevance score.
+ * Scores are only meaningful relative to the other hits of the same query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripSearchHit {
+    private Long id;
+    private String name;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String description;
+    private double score;
+}
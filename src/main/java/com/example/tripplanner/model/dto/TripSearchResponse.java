@@ -0,0 +1,19 @@
+package com.example.tripplanner.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for the result of GET /trips/search: the best hits, most relevant first,
+ * and how many trips matched in total.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripSearchResponse {
+    private List<TripSearchHit> hits;
+    private int totalHits;
+}
@@ -0,0 +1,24 @@
+package com.example.tripplanner.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for sending a trip together with its destinations to the client.
+ * Used by GET /trips/{id}?include=destinations and GET /trips?include=destinations.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripWithDestinationsResponse {
+    private Long id;
+    private String name;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String description;
+    private List<DestinationResponse> destinations;
+}
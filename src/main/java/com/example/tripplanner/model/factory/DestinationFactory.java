@@ -24,6 +24,7 @@ public class DestinationFactory {
         DestinationResponse destinationResponse = new DestinationResponse();
         destinationResponse.setId(destination.getId());
         destinationResponse.setName(destination.getName());
+        destinationResponse.setLocation(destination.getLocation());
         destinationResponse.setArrivalDate(destination.getArrivalDate());
         destinationResponse.setDepartureDate(destination.getDepartureDate());
         destinationResponse.setTripId(destination.getTrip().getId());
@@ -1,10 +1,15 @@
 package com.example.tripplanner.model.factory;
 
 import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.DestinationResponse;
 import com.example.tripplanner.model.dto.TripRequest;
 import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component()
 public class TripFactory {
 
@@ -17,6 +22,15 @@ public class TripFactory {
         return trip;
     }
 
+    public Trip createTripFromRequest(TripWithDestinationsRequest tripWithDestinationsRequest) {
+        Trip trip = new Trip();
+        trip.setName(tripWithDestinationsRequest.getName());
+        trip.setDescription(tripWithDestinationsRequest.getDescription());
+        trip.setStartDate(tripWithDestinationsRequest.getStartDate());
+        trip.setEndDate(tripWithDestinationsRequest.getEndDate());
+        return trip;
+    }
+
     public TripResponse getTripResponse(Trip trip) {
         TripResponse tripResponse = new TripResponse();
         tripResponse.setId(trip.getId());
@@ -24,9 +38,20 @@ public class TripFactory {
         tripResponse.setDescription(trip.getDescription());
         tripResponse.setStartDate(trip.getStartDate());
         tripResponse.setEndDate(trip.getEndDate());
+        tripResponse.setVersion(trip.getVersion() != null ? trip.getVersion() : 0);
         return tripResponse;
     }
 
+    public TripWithDestinationsResponse getTripWithDestinationsResponse(Trip trip, List<DestinationResponse> destinations) {
+        return new TripWithDestinationsResponse(
+                trip.getId(),
+                trip.getName(),
+                trip.getStartDate(),
+                trip.getEndDate(),
+                trip.getDescription(),
+                destinations);
+    }
+
     public Trip updateTrip(Trip trip, TripRequest tripRequest) {
         trip.setName(tripRequest.getName());
         trip.setDescription(tripRequest.getDescription());
@@ -1,10 +1,47 @@
 package com.example.tripplanner.repository;
 
 import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface DestinationRepository extends JpaRepository<Destination, Long> {
-    List<Destination> findByTripId(Long tripId);
+public interface DestinationRepository extends JpaRepository<Destination, Long>, DestinationRepositoryCustom {
+
+    // d.trip.id reads the trip_id column, so neither the trip nor the destinations become managed entities
+    @Query("select new com.example.tripplanner.model.dto.DestinationResponse(d.id, d.name, d.location, d.arrivalDate, d.departureDate, d.trip.id) " +
+            "from Destination d where d.trip.id = :tripId order by d.id")
+    List<DestinationResponse> findResponsesByTripId(@Param("tripId") Long tripId);
+
+    // Read through a cursor when the trip overlap index is rebuilt; the caller must keep a transaction open
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select new com.example.tripplanner.model.dto.DestinationResponse(d.id, d.name, d.location, d.arrivalDate, d.departureDate, d.trip.id) " +
+            "from Destination d order by d.id")
+    Stream<DestinationResponse> streamAllResponses();
+
+    // Set-based cleanup before a bulk trip delete: one statement per chunk of trips instead of one per destination
+    @Modifying
+    @Query("delete from Destination d where d.trip.id in :tripIds")
+    int deleteByTripIdIn(@Param("tripIds") Collection<Long> tripIds);
+
+    // Moves the destinations along with a bulk date shift of their trips; a bulk statement, so updatedAt is set explicitly
+    @Modifying
+    @Query("update Destination d set d.arrivalDate = d.arrivalDate + :shiftDays day, " +
+            "d.departureDate = d.departureDate + :shiftDays day, d.updatedAt = :updatedAt where d.trip.id in :tripIds")
+    int shiftDatesByTripIdIn(@Param("tripIds") Collection<Long> tripIds, @Param("shiftDays") int shiftDays,
+                             @Param("updatedAt") Instant updatedAt);
+
+    @Query("select new com.example.tripplanner.model.dto.DestinationResponse(d.id, d.name, d.location, d.arrivalDate, d.departureDate, d.trip.id) " +
+            "from Destination d where d.trip.id in :tripIds order by d.id")
+    List<DestinationResponse> findResponsesByTripIdIn(@Param("tripIds") Collection<Long> tripIds);
 }
@@ -0,0 +1,20 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.model.Destination;
+
+import java.util.List;
+
+/**
+ * Custom DestinationRepository fragment for lookups that take a fetch profile.
+ */
+public interface DestinationRepositoryCustom {
+
+    /**
+     * Loads the destinations of a trip with the given fetch profile, ordered by ID.
+     *
+     * @param tripId The ID of the owning trip.
+     * @param profile A Destination fetch profile, e.g. FetchProfile.DESTINATION_ONLY.
+     * @return The trip's destinations.
+     */
+    List<Destination> findByTripId(Long tripId, FetchProfile profile);
+}
@@ -0,0 +1,23 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.model.Destination;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.SpecHints;
+
+import java.util.List;
+
+public class DestinationRepositoryCustomImpl implements DestinationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Destination> findByTripId(Long tripId, FetchProfile profile) {
+        profile.checkAppliesTo(Destination.class);
+        return entityManager.createQuery("select d from Destination d where d.trip.id = :tripId order by d.id", Destination.class)
+                .setParameter("tripId", tripId)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(profile.getGraphName()))
+                .getResultList();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.Trip;
+
+/**
+ * Named fetch profiles, each backed by a @NamedEntityGraph on its entity.
+ * Callers pick the narrowest profile that covers what they read, so associations are loaded
+ * in the same statement when needed and not at all otherwise.
+ */
+public enum FetchProfile {
+    /** Trip scalars only; destinations stay unloaded. */
+    SUMMARY(Trip.class, "Trip.summary"),
+    /** Trip with all its destinations, fetched in one joined select. */
+    WITH_DESTINATIONS(Trip.class, "Trip.withDestinations"),
+    /** Destination scalars only; the owning trip stays an unloaded proxy. */
+    DESTINATION_ONLY(Destination.class, "Destination.only");
+
+    private final Class<?> entityType;
+    private final String graphName;
+
+    FetchProfile(Class<?> entityType, String graphName) {
+        this.entityType = entityType;
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    /**
+     * @throws IllegalArgumentException If the profile is defined for a different entity.
+     */
+    void checkAppliesTo(Class<?> type) {
+        if (entityType != type) {
+            throw new IllegalArgumentException("Fetch profile " + this + " does not apply to " + type.getSimpleName());
+        }
+    }
+}
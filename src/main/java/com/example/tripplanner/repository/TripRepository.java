@@ -1,10 +1,80 @@
 package com.example.tripplanner.repository;
 
 import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.TripResponse;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface TripRepository extends JpaRepository<Trip, Long> {
+public interface TripRepository extends JpaRepository<Trip, Long>, TripRepositoryCustom {
+
+    // Read-only views select straight into the response DTO: no managed entities, no dirty-checking snapshots
+
+    // With the version, as this is what GET /trips/{id} caches and takes its ETag from
+    @Query("select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description, " +
+            "coalesce(t.version, 0)) from Trip t where t.id = :id")
+    Optional<TripResponse> findResponseById(@Param("id") Long id);
+
+    @Query("select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description) " +
+            "from Trip t order by t.id")
+    List<TripResponse> findAllResponses();
+
+    // Loads the trip and increments its version when the transaction commits, even though the trip row itself is unchanged
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select t from Trip t where t.id = :id")
+    Optional<Trip> findByIdIncrementingVersion(@Param("id") Long id);
+
+    // Keyset pagination: each page seeks past the last key of the previous one, so deep pages cost the same as the first
+
+    @Query("select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description) " +
+            "from Trip t where t.id > :afterId order by t.id")
+    List<TripResponse> findResponsesAfterId(@Param("afterId") long afterId, Limit limit);
+
+    @Query("select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description) " +
+            "from Trip t where t.startDate is not null order by t.startDate, t.id")
+    List<TripResponse> findFirstResponsesByStartDate(Limit limit);
+
+    @Query("select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description) " +
+            "from Trip t where t.startDate > :afterStartDate or (t.startDate = :afterStartDate and t.id > :afterId) " +
+            "order by t.startDate, t.id")
+    List<TripResponse> findResponsesAfterStartDate(@Param("afterStartDate") LocalDate afterStartDate,
+                                                   @Param("afterId") long afterId, Limit limit);
+
+    // Trips without a start date sort after all dated trips
+    @Query("select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description) " +
+            "from Trip t where t.startDate is null and t.id > :afterId order by t.id")
+    List<TripResponse> findUndatedResponsesAfterId(@Param("afterId") long afterId, Limit limit);
+
+    // Bulk operations: set-based statements over a chunk of IDs. They bypass the persistence context, so neither
+    // @Version nor @UpdateTimestamp applies; "versioned" and the explicit updatedAt take their place
+
+    @Query("select t.id from Trip t where t.id in :ids order by t.id")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description) " +
+            "from Trip t where t.id in :ids order by t.id")
+    List<TripResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Trip t where t.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 
+    // A null description keeps each trip's own; dates without a value stay null
+    @Modifying
+    @Query("update versioned Trip t set t.startDate = t.startDate + :shiftDays day, t.endDate = t.endDate + :shiftDays day, " +
+            "t.description = coalesce(:description, t.description), t.updatedAt = :updatedAt where t.id in :ids")
+    int updateByIdIn(@Param("ids") Collection<Long> ids, @Param("shiftDays") int shiftDays,
+                     @Param("description") String description, @Param("updatedAt") Instant updatedAt);
 }
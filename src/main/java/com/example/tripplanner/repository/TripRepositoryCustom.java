@@ -0,0 +1,100 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Custom TripRepository fragment for queries that need direct access to the EntityManager.
+ */
+public interface TripRepositoryCustom {
+
+    /**
+     * Streams every trip as a TripResponse through a forward-only cursor.
+     * Rows are read in fetch-size sized batches and are not attached to the persistence context,
+     * so memory stays flat regardless of table size. Must be called inside a transaction and the
+     * returned stream must be closed by the caller.
+     *
+     * @return A lazily populated stream of TripResponse DTOs ordered by ID.
+     */
+    Stream<TripResponse> streamAllTripResponses();
+
+    /**
+     * Streams every trip with its destinations, ordered by ID.
+     * Trips come from the same cursor as streamAllTripResponses; for every fetch-size batch of trips, the destinations
+     * of the whole batch are loaded with a single IN query, so the statement count grows with the number of batches
+     * rather than the number of trips. Must be called inside a transaction and the returned stream must be closed by the caller.
+     * <p>
+     * The IN queries run on the transaction's connection while the trip cursor is still open on it. H2 allows that;
+     * drivers with truly streaming result sets do not, e.g. MySQL Connector/J in streaming mode (fetch size
+     * Integer.MIN_VALUE) rejects further statements until the result set is read to the end or closed. Moving to such a
+     * database means loading the batches on a second connection, or reading the trip IDs first.
+     *
+     * @return A lazily populated stream of trips with their destinations ordered by ID.
+     */
+    Stream<TripWithDestinationsResponse> streamAllWithDestinations();
+
+    /**
+     * Streams the trips that were created or updated, or had a destination added, in the window (since, until],
+     * with all their destinations, ordered by ID. The changed trip IDs come from range scans on the trips' and
+     * destinations' updated_at indexes, so the cost follows the number of changes rather than the table size.
+     * Trips and destinations are then loaded per fetch-size batch like streamAllWithDestinations, with the same
+     * constraint on the connection. Must be called inside a transaction and the returned stream must be closed by the caller.
+     *
+     * @param since The exclusive lower bound, typically the watermark returned by the previous delta export.
+     * @param until The inclusive upper bound.
+     * @return A lazily populated stream of the changed trips with their destinations.
+     */
+    Stream<TripWithDestinationsResponse> streamChangedWithDestinations(Instant since, Instant until);
+
+    /**
+     * Loads a trip with the given fetch profile.
+     *
+     * @param id The ID of the trip.
+     * @param profile A Trip fetch profile, e.g. FetchProfile.SUMMARY or FetchProfile.WITH_DESTINATIONS.
+     * @return The trip, or an empty Optional if it does not exist.
+     */
+    Optional<Trip> findById(Long id, FetchProfile profile);
+
+    /**
+     * Loads all trips with the given fetch profile, ordered by ID.
+     *
+     * @param profile A Trip fetch profile.
+     * @return All trips.
+     */
+    List<Trip> findAll(FetchProfile profile);
+
+    /**
+     * Loads the trips matching a specification with the given fetch profile, ordered by ID.
+     * The specification becomes the WHERE clause of the same single query that loads the profile's associations.
+     *
+     * @param spec The filter, e.g. from TripSpecifications.
+     * @param profile A Trip fetch profile.
+     * @return The matching trips.
+     */
+    List<Trip> findAll(Specification<Trip> spec, FetchProfile profile);
+
+    /**
+     * Selects the trips matching a specification straight into TripResponse DTOs, ordered by ID.
+     * The specification becomes the WHERE clause of a single query.
+     *
+     * @param spec The filter, e.g. from TripSpecifications.
+     * @return The matching trips.
+     */
+    List<TripResponse> findResponses(Specification<Trip> spec);
+
+    /**
+     * Selects the IDs of the trips matching a specification, ordered by ID, without loading the trips.
+     *
+     * @param spec The filter, e.g. from TripSpecifications.
+     * @param limit The maximum number of IDs to return.
+     * @return The IDs of the first matching trips, at most limit of them.
+     */
+    List<Long> findIds(Specification<Trip> spec, int limit);
+}
@@ -0,0 +1,186 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class TripRepositoryCustomImpl implements TripRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${tripplanner.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Override
+    public Stream<TripResponse> streamAllTripResponses() {
+        // Constructor expression keeps the rows out of the persistence context (no managed entities, no snapshots)
+        return entityManager.createQuery(
+                        "select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description) " +
+                                "from Trip t order by t.id", TripResponse.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<TripWithDestinationsResponse> streamAllWithDestinations() {
+        Stream<TripResponse> trips = streamAllTripResponses();
+        // The batch queries share the connection with the open cursor; see the interface for the driver constraint
+        return inBatches(trips)
+                .flatMap(batch -> withDestinations(batch).stream())
+                .onClose(trips::close);
+    }
+
+    @Override
+    public Stream<TripWithDestinationsResponse> streamChangedWithDestinations(Instant since, Instant until) {
+        // Each side of the union is a range scan on its updated_at index; the union drops trips found by both
+        Stream<Long> tripIds = entityManager.createQuery(
+                        "select t.id from Trip t where t.updatedAt > :since and t.updatedAt <= :until " +
+                                "union " +
+                                "select d.trip.id from Destination d where d.updatedAt > :since and d.updatedAt <= :until " +
+                                "order by 1", Long.class)
+                .setParameter("since", since)
+                .setParameter("until", until)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .getResultStream();
+        return inBatches(tripIds)
+                .flatMap(batch -> withDestinations(findResponsesByIds(batch)).stream())
+                .onClose(tripIds::close);
+    }
+
+    // Groups a cursor into fetch-size batches lazily, so only one batch of trips and destinations is held at a time
+    private <T> Stream<List<T>> inBatches(Stream<T> rows) {
+        Iterator<T> iterator = rows.iterator();
+        Spliterator<List<T>> batches = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super List<T>> action) {
+                List<T> batch = new ArrayList<>(exportFetchSize);
+                while (batch.size() < exportFetchSize && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+                if (batch.isEmpty()) {
+                    return false;
+                }
+                action.accept(batch);
+                return true;
+            }
+        };
+        return StreamSupport.stream(batches, false);
+    }
+
+    private List<TripResponse> findResponsesByIds(List<Long> tripIds) {
+        return entityManager.createQuery(
+                        "select new com.example.tripplanner.model.dto.TripResponse(t.id, t.name, t.startDate, t.endDate, t.description) " +
+                                "from Trip t where t.id in :tripIds order by t.id", TripResponse.class)
+                .setParameter("tripIds", tripIds)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    private List<TripWithDestinationsResponse> withDestinations(List<TripResponse> trips) {
+        List<Long> tripIds = trips.stream().map(TripResponse::getId).toList();
+        Map<Long, List<DestinationResponse>> destinationsByTripId = entityManager.createQuery(
+                        "select new com.example.tripplanner.model.dto.DestinationResponse(d.id, d.name, d.location, d.arrivalDate, d.departureDate, d.trip.id) " +
+                                "from Destination d where d.trip.id in :tripIds order by d.id", DestinationResponse.class)
+                .setParameter("tripIds", tripIds)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .collect(Collectors.groupingBy(DestinationResponse::getTripId));
+        List<TripWithDestinationsResponse> tripsWithDestinations = new ArrayList<>(trips.size());
+        for (TripResponse trip : trips) {
+            tripsWithDestinations.add(new TripWithDestinationsResponse(trip.getId(), trip.getName(), trip.getStartDate(),
+                    trip.getEndDate(), trip.getDescription(), destinationsByTripId.getOrDefault(trip.getId(), List.of())));
+        }
+        return tripsWithDestinations;
+    }
+
+    @Override
+    public Optional<Trip> findById(Long id, FetchProfile profile) {
+        profile.checkAppliesTo(Trip.class);
+        // A fetch graph loads exactly the listed attributes eagerly; everything else stays lazy
+        return Optional.ofNullable(entityManager.find(Trip.class, id,
+                Map.of(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(profile.getGraphName()))));
+    }
+
+    @Override
+    public List<Trip> findAll(FetchProfile profile) {
+        profile.checkAppliesTo(Trip.class);
+        return entityManager.createQuery("select t from Trip t order by t.id", Trip.class)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(profile.getGraphName()))
+                .getResultList();
+    }
+
+    @Override
+    public List<Trip> findAll(Specification<Trip> spec, FetchProfile profile) {
+        profile.checkAppliesTo(Trip.class);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Trip> query = cb.createQuery(Trip.class);
+        Root<Trip> trip = query.from(Trip.class);
+        Predicate predicate = spec.toPredicate(trip, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(trip.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(profile.getGraphName()))
+                .getResultList();
+    }
+
+    @Override
+    public List<TripResponse> findResponses(Specification<Trip> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TripResponse> query = cb.createQuery(TripResponse.class);
+        Root<Trip> trip = query.from(Trip.class);
+        query.select(cb.construct(TripResponse.class,
+                trip.get("id"), trip.get("name"), trip.get("startDate"), trip.get("endDate"), trip.get("description")));
+        Predicate predicate = spec.toPredicate(trip, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(trip.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Trip> spec, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Trip> trip = query.from(Trip.class);
+        query.select(trip.get("id"));
+        Predicate predicate = spec.toPredicate(trip, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(trip.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.TripFilter;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications for filtering trips. Each one is a plain column predicate, so the combined filter
+ * compiles into a single WHERE clause that the trips indexes can serve.
+ */
+public final class TripSpecifications {
+
+    private TripSpecifications() {
+    }
+
+    /**
+     * Combines every filter that is set; unset filters add no predicate.
+     * OVERLAP: startDate <= to and endDate >= from. WITHIN: startDate >= from and endDate <= to.
+     */
+    public static Specification<Trip> matching(TripFilter filter) {
+        List<Specification<Trip>> specs = new ArrayList<>();
+        if (filter.getFrom() != null) {
+            specs.add(filter.getMatch() == TripFilter.DateMatch.WITHIN ? startsOnOrAfter(filter.getFrom()) : endsOnOrAfter(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            specs.add(filter.getMatch() == TripFilter.DateMatch.WITHIN ? endsOnOrBefore(filter.getTo()) : startsOnOrBefore(filter.getTo()));
+        }
+        if (filter.getNamePrefix() != null && !filter.getNamePrefix().isEmpty()) {
+            specs.add(nameStartsWith(filter.getNamePrefix()));
+        }
+        if (filter.getHasDestinations() != null) {
+            specs.add(hasDestinations(filter.getHasDestinations()));
+        }
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Trip> startsOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startDate"), date);
+    }
+
+    public static Specification<Trip> startsOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startDate"), date);
+    }
+
+    public static Specification<Trip> endsOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("endDate"), date);
+    }
+
+    public static Specification<Trip> endsOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("endDate"), date);
+    }
+
+    public static Specification<Trip> nameStartsWith(String prefix) {
+        // A literal prefix LIKE 'abc%' is an index range scan; wildcards in the input are escaped
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("name"), pattern, '\\');
+    }
+
+    public static Specification<Trip> hasDestinations(boolean present) {
+        return (root, query, cb) -> {
+            Subquery<Long> destinations = query.subquery(Long.class);
+            Root<Destination> destination = destinations.from(Destination.class);
+            destinations.select(destination.get("id")).where(cb.equal(destination.get("trip"), root));
+            return present ? cb.exists(destinations) : cb.not(cb.exists(destinations));
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.model.TripTombstone;
+import com.example.tripplanner.model.dto.TripChange;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+public interface TripTombstoneRepository extends JpaRepository<TripTombstone, Long> {
+
+    // Range scan on idx_trip_tombstones_deleted_at; the caller must keep a transaction open while the stream is read
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select new com.example.tripplanner.model.dto.TripChange(t.tripId, t.deletedAt) from TripTombstone t " +
+            "where t.deletedAt > :since and t.deletedAt <= :until order by t.deletedAt, t.tripId")
+    Stream<TripChange> streamDeletions(@Param("since") Instant since, @Param("until") Instant until);
+
+    // One INSERT ... SELECT for the whole chunk; only trips that still exist get a tombstone
+    @Modifying
+    @Query("insert into TripTombstone (tripId, deletedAt) select t.id, :deletedAt from Trip t where t.id in :tripIds")
+    int insertForTrips(@Param("tripIds") Collection<Long> tripIds, @Param("deletedAt") Instant deletedAt);
+}
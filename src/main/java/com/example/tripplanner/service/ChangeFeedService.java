@@ -0,0 +1,28 @@
+package com.example.tripplanner.service;
+
+import com.example.tripplanner.exceptions.TooManySubscribersException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+
+public interface ChangeFeedService {
+
+    /**
+     * Subscribes to the trip change feed as a Server-Sent Events stream.
+     * Every trip created, updated or deleted and every destination added or updated is pushed once its transaction
+     * commits, as an event named trip-created, trip-updated, trip-deleted, destination-added or destination-updated
+     * with a JSON payload. Writes covering several trips are pushed as a single event with an array of those payloads:
+     * trips-created per import chunk or batch, and trips-updated, trips-deleted or destinations-updated per chunk of a
+     * bulk update or delete.
+     * Events are numbered, and the most recent ones are kept for replay, so a client reconnecting with the last ID it
+     * saw picks up where it left off. If those events are no longer buffered, it is sent a resync event instead and
+     * should catch up through the delta export. A client that falls too far behind is disconnected rather than
+     * allowed to hold up writers; it can reconnect and resume the same way.
+     *
+     * @param tripIds The trips to receive events for; empty for all trips.
+     * @param lastEventId The Last-Event-ID header of a reconnecting client, or null for live events only.
+     * @return The emitter streaming the events.
+     * @throws TooManySubscribersException If the feed already has the maximum number of subscribers.
+     */
+    SseEmitter subscribe(Set<Long> tripIds, String lastEventId);
+}
@@ -1,26 +1,37 @@
 package com.example.tripplanner.service;
 
 import org.springframework.stereotype.Service;
+import com.example.tripplanner.compression.ContentCoding;
 import com.example.tripplanner.exceptions.FileProcessingException;
+import com.example.tripplanner.metrics.ImportMetrics;
 import com.example.tripplanner.model.dto.TripRequest;
 import com.example.tripplanner.model.dto.TripResponse;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 @Service
 public class CsvService {
 
@@ -28,7 +39,25 @@ public class CsvService {
     private static final String[] EXPORT_HEADERS = {"id", "name", "startDate", "endDate", "description"};
     // CSV Headers for import (ID is not expected in import file)
     private static final String[] IMPORT_HEADERS = {"name", "startDate", "endDate", "description"};
+    // Format tag on the import metrics
+    private static final String FORMAT = "csv";
 
+    private final ImportMetrics importMetrics;
+
+    @Autowired
+    public CsvService(ImportMetrics importMetrics) {
+        this.importMetrics = importMetrics;
+    }
+
+    /**
+     * Writes trips to a byte array as CSV. The whole export is held in memory, so the export endpoint streams with
+     * exportTripsToCsv(Stream, OutputStream) instead; this variant remains for callers that need the bytes at once,
+     * and as the baseline of CsvServiceBenchmark.
+     *
+     * @param trips The trips to write.
+     * @return The CSV data, header row first.
+     * @throws IOException If the CSV data cannot be written.
+     */
     public byte[] exportTripsToCsv(List<TripResponse> trips) throws IOException {
         // Use ByteArrayOutputStream to write CSV data to memory
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -38,19 +67,49 @@ public class CsvService {
 
             // Iterate through each trip and print its fields to the CSV
             for (TripResponse trip : trips) {
-                csvPrinter.printRecord(
-                        trip.getId(),
-                        trip.getName(),
-                        trip.getStartDate(),
-                        trip.getEndDate(),
-                        trip.getDescription()
-                );
+                printTrip(csvPrinter, trip);
             }
             csvPrinter.flush(); // Ensure all data is written to the PrintWriter
             return baos.toByteArray(); // Return the CSV data as a byte array
         }
     }
 
+    /**
+     * Writes trips to the given OutputStream as CSV, one record at a time.
+     * Nothing is buffered beyond the writer's internal buffer, so the first bytes reach the client
+     * immediately and memory use does not depend on the number of trips.
+     * The OutputStream is flushed but not closed.
+     *
+     * @param trips The trips to write, typically backed by a database cursor.
+     * @param os The OutputStream to write the CSV data to.
+     * @throws FileProcessingException If writing to the OutputStream fails.
+     */
+    public void exportTripsToCsv(Stream<TripResponse> trips, OutputStream os) {
+        try {
+            // Not closed on purpose: closing the printer would close the caller's OutputStream
+            CSVPrinter csvPrinter = new CSVPrinter(
+                    new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8)),
+                    CSVFormat.DEFAULT.withHeader(EXPORT_HEADERS));
+            Iterator<TripResponse> iterator = trips.iterator();
+            while (iterator.hasNext()) {
+                printTrip(csvPrinter, iterator.next());
+            }
+            csvPrinter.flush();
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to write CSV file: " + e.getMessage());
+        }
+    }
+
+    private void printTrip(CSVPrinter csvPrinter, TripResponse trip) throws IOException {
+        csvPrinter.printRecord(
+                trip.getId(),
+                trip.getName(),
+                trip.getStartDate(),
+                trip.getEndDate(),
+                trip.getDescription()
+        );
+    }
+
     public List<TripRequest> importTripsFromCsv(InputStream is) {
         try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
              // Configure CSVParser to parse with headers, ignoring missing headers (flexible for import)
@@ -60,28 +119,11 @@ public class CsvService {
             List<CSVRecord> csvRecords = csvParser.getRecords();
 
             // Check if all required headers are present (optional but good for robustness)
-            for (String header : IMPORT_HEADERS) {
-                if (!csvParser.getHeaderMap().containsKey(header)) {
-                    throw new FileProcessingException("Missing required CSV header: " + header);
-                }
-            }
+            validateImportHeaders(csvParser);
 
             // Iterate through each record in the CSV
             for (CSVRecord csvRecord : csvRecords) {
-                try {
-                    // Parse fields from the CSV record by header name
-                    String name = csvRecord.get("name");
-                    LocalDate startDate = LocalDate.parse(csvRecord.get("startDate"));
-                    LocalDate endDate = LocalDate.parse(csvRecord.get("endDate"));
-                    String description = csvRecord.get("description");
-
-                    // Create a new TripRequest DTO
-                    TripRequest tripRequest = new TripRequest(name, startDate, endDate, description);
-                    tripRequests.add(tripRequest);
-                } catch (IllegalArgumentException | DateTimeParseException e) {
-                    // Catch errors during parsing of individual fields (e.g., missing column, bad date format)
-                    throw new FileProcessingException("Error parsing CSV record: " + csvRecord.getRecordNumber() + ". " + e.getMessage());
-                }
+                tripRequests.add(parseTripRequest(csvRecord));
             }
             return tripRequests;
         } catch (IOException e) {
@@ -92,4 +134,101 @@ public class CsvService {
             throw new FileProcessingException("Failed to parse CSV file: " + e.getMessage());
         }
     }
+
+    /**
+     * Imports trips from a CSV InputStream in chunks, without materializing the whole file.
+     * Records are parsed lazily one at a time and handed to the consumer in lists of at most chunkSize
+     * TripRequests, so heap use is bounded by the chunk size rather than the file size.
+     * Exceptions thrown by the consumer are propagated unchanged. Chunks handed to the consumer before a
+     * malformed record is reached are not rolled back; the error message carries the failing record number.
+     *
+     * @param is The InputStream containing the CSV data, plain or gzip/zstd compressed (detected by its magic bytes).
+     * @param chunkSize The maximum number of TripRequests per chunk.
+     * @param chunkConsumer The callback that persists each chunk.
+     * @return The total number of records imported.
+     * @throws FileProcessingException If the CSV content is malformed or an I/O error occurs.
+     */
+    public long importTripsFromCsv(InputStream is, int chunkSize, Consumer<List<TripRequest>> chunkConsumer) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        return importMetrics.recordImport(FORMAT, () -> readChunks(is, chunkSize, chunkConsumer));
+    }
+
+    private long readChunks(InputStream is, int chunkSize, Consumer<List<TripRequest>> chunkConsumer) {
+        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(ContentCoding.decodeDetected(is), StandardCharsets.UTF_8));
+             CSVParser csvParser = new CSVParser(fileReader, CSVFormat.DEFAULT.withFirstRecordAsHeader().withIgnoreHeaderCase().withTrim())) {
+
+            try {
+                validateImportHeaders(csvParser);
+            } catch (FileProcessingException e) {
+                // Same message shape as the in-memory import
+                throw new FileProcessingException("Failed to parse CSV file: " + e.getMessage());
+            }
+
+            long importedCount = 0;
+            List<TripRequest> chunk = new ArrayList<>(chunkSize);
+            Iterator<CSVRecord> csvRecords = csvParser.iterator(); // Reads the next record from the stream on demand
+            while (hasNextRecord(csvRecords)) {
+                chunk.add(parseImportedRecord(csvRecords.next()));
+                importedCount++;
+                if (chunk.size() == chunkSize) {
+                    importMetrics.persist(FORMAT, chunk, chunkConsumer);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importMetrics.persist(FORMAT, chunk, chunkConsumer);
+            }
+            return importedCount;
+        } catch (IOException e) {
+            // Catch general I/O errors
+            throw new FileProcessingException("Failed to read CSV file: " + e.getMessage());
+        }
+    }
+
+    private TripRequest parseImportedRecord(CSVRecord csvRecord) {
+        TripRequest tripRequest;
+        try {
+            tripRequest = parseTripRequest(csvRecord);
+        } catch (FileProcessingException e) {
+            importMetrics.rowsRejected(FORMAT, 1);
+            throw e;
+        }
+        importMetrics.rowsParsed(FORMAT, 1);
+        return tripRequest;
+    }
+
+    private boolean hasNextRecord(Iterator<CSVRecord> csvRecords) {
+        try {
+            return csvRecords.hasNext();
+        } catch (UncheckedIOException e) {
+            // Commons CSV reports malformed input (e.g. an unterminated quote) while reading ahead
+            throw new FileProcessingException("Failed to parse CSV file: " + e.getMessage());
+        }
+    }
+
+    private void validateImportHeaders(CSVParser csvParser) {
+        for (String header : IMPORT_HEADERS) {
+            if (!csvParser.getHeaderMap().containsKey(header)) {
+                throw new FileProcessingException("Missing required CSV header: " + header);
+            }
+        }
+    }
+
+    private TripRequest parseTripRequest(CSVRecord csvRecord) {
+        try {
+            // Parse fields from the CSV record by header name
+            String name = csvRecord.get("name");
+            LocalDate startDate = LocalDate.parse(csvRecord.get("startDate"));
+            LocalDate endDate = LocalDate.parse(csvRecord.get("endDate"));
+            String description = csvRecord.get("description");
+
+            // Create a new TripRequest DTO
+            return new TripRequest(name, startDate, endDate, description);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Catch errors during parsing of individual fields (e.g., missing column, bad date format)
+            throw new FileProcessingException("Error parsing CSV record: " + csvRecord.getRecordNumber() + ". " + e.getMessage());
+        }
+    }
 }
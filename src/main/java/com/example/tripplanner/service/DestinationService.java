@@ -23,4 +23,14 @@ public interface DestinationService {
      * @return A list of DTOs representing the destinations for the specified trip.
      */
     List<DestinationResponse> getDestinationsForTrip(Long tripId);
+
+    /**
+     * Returns the version of a trip's destination list, which is the version of the trip itself.
+     * Adding a destination increments it, so it can be used as the ETag of the list. It is read from the cached trip,
+     * so a cache hit runs no query.
+     *
+     * @param tripId The ID of the trip whose destinations are versioned.
+     * @return The trip's version.
+     */
+    long getDestinationsVersion(Long tripId);
 }
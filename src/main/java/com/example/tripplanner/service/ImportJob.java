@@ -0,0 +1,115 @@
+package com.example.tripplanner.service;
+
+import com.example.tripplanner.model.ImportJobStatus;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mutable, thread-safe progress state of one asynchronous import.
+ * The worker thread records progress while request threads read it for polling and cancellation.
+ */
+@Getter
+public class ImportJob {
+
+    private static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final String type;
+    private final long totalBytes; // Size of the uploaded file, 0 if the job is not file based
+    private final long totalRows; // Number of rows to import, 0 if unknown up front
+    private final Instant submittedAt = Instant.now();
+
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    public ImportJob(String id, String type, long totalBytes, long totalRows) {
+        this.id = id;
+        this.type = type;
+        this.totalBytes = totalBytes;
+        this.totalRows = totalRows;
+    }
+
+    /**
+     * Records a persisted chunk. Called by the worker after each chunk transaction commits.
+     */
+    public void recordChunk(int rows) {
+        rowsProcessed.addAndGet(rows);
+        chunks.incrementAndGet();
+    }
+
+    /**
+     * Aborts the import between chunks if cancellation was requested.
+     *
+     * @throws CancellationException If the job has been cancelled.
+     */
+    public void checkNotCancelled() {
+        if (cancelRequested) {
+            throw new CancellationException("Import job " + id + " was cancelled");
+        }
+    }
+
+    public void addError(String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(message);
+        }
+    }
+
+    public void addBytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    public void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    public void requestCancel() {
+        this.cancelRequested = true;
+    }
+
+    /**
+     * Moves a queued job to RUNNING. A job leaves QUEUED only once, so this fails if it was cancelled first.
+     *
+     * @return Whether the job was still queued and may now run.
+     */
+    public synchronized boolean markRunning() {
+        if (status != ImportJobStatus.QUEUED) {
+            return false;
+        }
+        this.startedAt = Instant.now();
+        this.status = ImportJobStatus.RUNNING;
+        return true;
+    }
+
+    /**
+     * Moves a queued job straight to CANCELLED. Fails if the worker started it first.
+     *
+     * @return Whether the job was still queued and will now never run.
+     */
+    public synchronized boolean markCancelledIfQueued() {
+        if (status != ImportJobStatus.QUEUED) {
+            return false;
+        }
+        this.finishedAt = Instant.now();
+        this.status = ImportJobStatus.CANCELLED;
+        return true;
+    }
+
+    public synchronized void markFinished(ImportJobStatus finalStatus) {
+        this.finishedAt = Instant.now();
+        this.status = finalStatus;
+    }
+}
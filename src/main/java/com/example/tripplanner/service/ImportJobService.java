@@ -0,0 +1,66 @@
+package com.example.tripplanner.service;
+
+import com.example.tripplanner.model.dto.ImportJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportJobService {
+
+    /**
+     * Work performed by a file based import job. Implementations should call
+     * {@link ImportJob#checkNotCancelled()} and {@link ImportJob#recordChunk(int)} around every chunk.
+     */
+    @FunctionalInterface
+    interface FileImportTask {
+        void run(InputStream is, ImportJob job) throws IOException;
+    }
+
+    /**
+     * Work performed by an import job whose rows are already in memory.
+     */
+    @FunctionalInterface
+    interface ImportTask {
+        void run(ImportJob job);
+    }
+
+    /**
+     * Spools the uploaded file and starts importing it on the bounded import executor.
+     * Returns as soon as the job is queued; the upload no longer ties up the request thread.
+     *
+     * @param type A short label for the kind of import (e.g. "csv").
+     * @param file The uploaded file. It is copied before this method returns, as the request's copy is discarded.
+     * @param task The import work, reading from a stream over the spooled file.
+     * @return The DTO describing the newly queued job.
+     * @throws IOException If the upload cannot be spooled.
+     */
+    ImportJobResponse submitFileImport(String type, MultipartFile file, FileImportTask task) throws IOException;
+
+    /**
+     * Starts an import of rows that are already in memory on the bounded import executor.
+     *
+     * @param type A short label for the kind of import (e.g. "batch").
+     * @param totalRows The number of rows to import, used for progress and ETA.
+     * @param task The import work.
+     * @return The DTO describing the newly queued job.
+     */
+    ImportJobResponse submitImport(String type, long totalRows, ImportTask task);
+
+    /**
+     * Retrieves the current progress of an import job.
+     *
+     * @param jobId The ID returned when the job was submitted.
+     * @return The DTO describing the job's progress.
+     */
+    ImportJobResponse getJob(String jobId);
+
+    /**
+     * Requests cancellation of an import job. A queued job never starts; a running job stops
+     * before its next chunk. Chunks that were already committed stay imported.
+     *
+     * @param jobId The ID returned when the job was submitted.
+     * @return The DTO describing the job's progress at the time of the request.
+     */
+    ImportJobResponse cancelJob(String jobId);
+}
@@ -1,29 +1,53 @@
 package com.example.tripplanner.service;
+import com.example.tripplanner.compression.ContentCoding;
 import com.example.tripplanner.exceptions.FileProcessingException;
+import com.example.tripplanner.metrics.ImportMetrics;
+import com.example.tripplanner.model.dto.DestinationRequest;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripChange;
 import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature; // For pretty printing (optional)
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule; // For LocalDate support
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
- * Service for handling JSON file operations (import) for Trip and Destination data.
+ * Service for handling JSON file operations (import and NDJSON export) for Trip and Destination data.
  * Uses Jackson (ObjectMapper) for JSON parsing.
  */
 @Service
 public class JsonService {
 
+    // Format tags on the import metrics
+    private static final String FORMAT = "json";
+    private static final String NDJSON_FORMAT = "ndjson";
+
     private final ObjectMapper objectMapper;
+    private final ImportMetrics importMetrics;
 
     /**
      * Constructor. Configures ObjectMapper for date handling.
      */
-    public JsonService() {
+    @Autowired
+    public JsonService(ImportMetrics importMetrics) {
+        this.importMetrics = importMetrics;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule()); // Register module for LocalDate
         this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS); // Ensure dates are in "yyyy-MM-dd" format
@@ -50,4 +74,150 @@ public class JsonService {
             throw new FileProcessingException("Failed to read JSON file: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Imports TripWithDestinationsRequest DTOs from a JSON InputStream without binding the whole document.
+     * The top-level array is walked token by token with a JsonParser; each trip (with its nested destinations)
+     * is bound on its own and handed to the consumer in lists of at most batchSize trips, so memory use is
+     * bounded by the batch size rather than the file size.
+     * Exceptions thrown by the consumer are propagated unchanged. Batches handed to the consumer before
+     * a malformed trip is reached are not rolled back.
+     *
+     * @param is The InputStream containing the JSON array of trips, plain or gzip/zstd compressed (detected by its magic bytes).
+     * @param batchSize The maximum number of trips per batch.
+     * @param batchConsumer The callback that persists each batch.
+     * @return The total number of trips imported.
+     * @throws FileProcessingException If the JSON file is malformed or an I/O error occurs.
+     */
+    public long importTripsWithDestinationsFromJson(InputStream is, int batchSize, Consumer<List<TripWithDestinationsRequest>> batchConsumer) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        return importMetrics.recordImport(FORMAT, () -> readBatches(is, batchSize, batchConsumer, false));
+    }
+
+    /**
+     * Imports TripWithDestinationsRequest DTOs from newline-delimited JSON (one trip object per line),
+     * e.g. the output of exportTripsWithDestinationsToNdjson. Trips are bound and handed to the consumer
+     * in batches exactly like the streaming JSON array import.
+     *
+     * @param is The InputStream containing one JSON trip object per line, plain or gzip/zstd compressed.
+     * @param batchSize The maximum number of trips per batch.
+     * @param batchConsumer The callback that persists each batch.
+     * @return The total number of trips imported.
+     * @throws FileProcessingException If a line is not a valid trip object or an I/O error occurs.
+     */
+    public long importTripsWithDestinationsFromNdjson(InputStream is, int batchSize, Consumer<List<TripWithDestinationsRequest>> batchConsumer) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        return importMetrics.recordImport(NDJSON_FORMAT, () -> readBatches(is, batchSize, batchConsumer, true));
+    }
+
+    private long readBatches(InputStream is, int batchSize, Consumer<List<TripWithDestinationsRequest>> batchConsumer, boolean newlineDelimited) {
+        String format = newlineDelimited ? NDJSON_FORMAT : FORMAT;
+        ObjectReader tripReader = objectMapper.readerFor(TripWithDestinationsRequest.class);
+        try (JsonParser parser = objectMapper.getFactory().createParser(ContentCoding.decodeDetected(is))) {
+            JsonToken token = parser.nextToken();
+            if (!newlineDelimited) {
+                if (token != JsonToken.START_ARRAY) {
+                    throw new FileProcessingException("Failed to parse JSON file: expected an array of trips");
+                }
+                token = parser.nextToken();
+            }
+
+            long importedCount = 0;
+            List<TripWithDestinationsRequest> batch = new ArrayList<>(batchSize);
+            // Each iteration binds exactly one trip object (an array element or a root-level line) and leaves the parser on its END_OBJECT
+            while (token == JsonToken.START_OBJECT) {
+                batch.add(readTrip(tripReader, parser, format));
+                importedCount++;
+                if (batch.size() == batchSize) {
+                    importMetrics.persist(format, batch, batchConsumer);
+                    batch = new ArrayList<>(batchSize);
+                }
+                token = parser.nextToken();
+            }
+            // A JSON array must be closed; newline-delimited input simply ends
+            if (token != (newlineDelimited ? null : JsonToken.END_ARRAY)) {
+                throw new FileProcessingException("Failed to parse JSON file: expected a trip object at " + parser.currentLocation());
+            }
+            if (!batch.isEmpty()) {
+                importMetrics.persist(format, batch, batchConsumer);
+            }
+            return importedCount;
+        } catch (JsonProcessingException e) {
+            // Catch errors specific to JSON parsing (e.g., malformed JSON, type mismatches)
+            throw new FileProcessingException("Failed to parse JSON file: " + e.getMessage());
+        } catch (IOException e) {
+            // Catch general I/O errors
+            throw new FileProcessingException("Failed to read JSON file: " + e.getMessage());
+        }
+    }
+
+    private TripWithDestinationsRequest readTrip(ObjectReader tripReader, JsonParser parser, String format) throws IOException {
+        TripWithDestinationsRequest trip;
+        try {
+            trip = tripReader.readValue(parser);
+        } catch (JsonProcessingException e) {
+            importMetrics.rowsRejected(format, 1);
+            throw e;
+        }
+        importMetrics.rowsParsed(format, 1);
+        return trip;
+    }
+
+    /**
+     * Writes trips with their destinations to an OutputStream as newline-delimited JSON, one trip per line.
+     * Each line has the TripWithDestinationsRequest shape (no IDs), so the output can be imported again as is.
+     * Trips are written as they are read from the stream; the OutputStream is flushed but not closed.
+     *
+     * @param trips The trips to write, typically backed by a database cursor.
+     * @param os The OutputStream to write to, e.g. the HTTP response body.
+     * @throws FileProcessingException If writing fails.
+     */
+    public void exportTripsWithDestinationsToNdjson(Stream<TripWithDestinationsResponse> trips, OutputStream os) {
+        writeNdjson(trips.map(JsonService::toRequest), TripWithDestinationsRequest.class, os);
+    }
+
+    /**
+     * Writes the entries of a delta export to an OutputStream as newline-delimited JSON, one TripChange per line.
+     * UPSERT lines carry the trip and its destinations with their IDs, DELETE lines the trip ID and deletion time.
+     * The OutputStream is flushed but not closed.
+     *
+     * @param changes The changes to write, typically backed by database cursors.
+     * @param os The OutputStream to write to, e.g. the HTTP response body.
+     * @throws FileProcessingException If writing fails.
+     */
+    public void exportTripChangesToNdjson(Stream<TripChange> changes, OutputStream os) {
+        writeNdjson(changes, TripChange.class, os);
+    }
+
+    private <T> void writeNdjson(Stream<T> values, Class<T> type, OutputStream os) {
+        // Flushing after every value would turn each line into its own network write
+        ObjectWriter valueWriter = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try {
+            // Not closed on purpose: closing the generator would close the caller's OutputStream
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(os);
+            generator.setRootValueSeparator(null); // Lines are ended explicitly instead of separated by a space
+            Iterator<T> iterator = values.iterator();
+            while (iterator.hasNext()) {
+                valueWriter.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new FileProcessingException("Failed to write NDJSON file: " + e.getMessage());
+        }
+    }
+
+    private static TripWithDestinationsRequest toRequest(TripWithDestinationsResponse trip) {
+        List<DestinationRequest> destinations = new ArrayList<>(trip.getDestinations().size());
+        for (DestinationResponse destination : trip.getDestinations()) {
+            destinations.add(new DestinationRequest(destination.getName(), destination.getLocation(),
+                    destination.getArrivalDate(), destination.getDepartureDate()));
+        }
+        return new TripWithDestinationsRequest(trip.getName(), trip.getStartDate(), trip.getEndDate(), trip.getDescription(), destinations);
+    }
+}
@@ -1,14 +1,179 @@
 package com.example.tripplanner.service;
 
+import com.example.tripplanner.model.TripSort;
+import com.example.tripplanner.model.dto.BulkDeleteRequest;
+import com.example.tripplanner.model.dto.BulkOperationResponse;
+import com.example.tripplanner.model.dto.BulkUpdateRequest;
+import com.example.tripplanner.model.dto.TripChange;
+import com.example.tripplanner.model.dto.TripFilter;
+import com.example.tripplanner.model.dto.TripOverlapResponse;
+import com.example.tripplanner.model.dto.TripPage;
 import com.example.tripplanner.model.dto.TripRequest;
 import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripSearchResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface TripService {
     TripResponse createTrip(TripRequest tripRequest);
+
+    /**
+     * Creates all given trips in a single transaction.
+     *
+     * @param tripRequests The DTOs containing the details for the new trips.
+     * @return The number of trips created.
+     */
+    int createTrips(List<TripRequest> tripRequests);
+
+    /**
+     * Creates all given trips together with their nested destinations in a single transaction.
+     * Each trip is persisted as one object graph through the cascade on Trip.destinations,
+     * so no per-destination trip lookups or saves are needed.
+     *
+     * @param tripWithDestinationsRequests The DTOs containing the trips and their destinations.
+     * @return The number of trips created.
+     */
+    int importTripsWithDestinations(List<TripWithDestinationsRequest> tripWithDestinationsRequests);
     List<TripResponse> getAllTrips();
+
+    /**
+     * Finds the trips matching the filter with a single query; the filtering happens in the database.
+     *
+     * @param filter The filters to apply; unset filters are ignored.
+     * @return The matching trips, ordered by ID.
+     */
+    List<TripResponse> searchTrips(TripFilter filter);
+
+    /**
+     * Finds the trips and destinations overlapping a date window using the in-memory interval index.
+     * No query is run; the index reflects every committed create, update and delete.
+     *
+     * @param from The first day of the window.
+     * @param to The last day of the window, inclusive.
+     * @return The overlapping trips and destinations, each ordered by start date, then ID.
+     */
+    TripOverlapResponse findOverlapping(LocalDate from, LocalDate to);
+
+    /**
+     * Searches trip names, descriptions and destination names and locations using the in-memory inverted index.
+     * Every keyword must match, either exactly or as a prefix of a word; no query is run.
+     *
+     * @param query The keywords to search for.
+     * @param limit The maximum number of hits to return.
+     * @return The best matching trips, most relevant first, and the total number of matches.
+     */
+    TripSearchResponse searchTripsByText(String query, int limit);
+
+    /**
+     * Returns one page of trips using keyset pagination.
+     * The cursor encodes the sort key of the last trip on the previous page, so every page is a single
+     * index seek regardless of how deep it is. The total count is cached and only recomputed after writes.
+     *
+     * @param limit The maximum number of trips on the page.
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param sort The order of the listing; it must match the order the cursor was issued for.
+     * @return The page, with a nextCursor if more trips follow.
+     */
+    TripPage getTripsPage(int limit, String cursor, TripSort sort);
+
+    /**
+     * Retrieves a trip together with its destinations using a single fetch-join query.
+     *
+     * @param id The ID of the trip.
+     * @return The trip with its destinations nested, ordered by destination ID.
+     */
+    TripWithDestinationsResponse getTripWithDestinations(Long id);
+
+    /**
+     * Retrieves all trips together with their destinations using a single fetch-join query.
+     *
+     * @return The trips ordered by ID, each with its destinations nested.
+     */
+    List<TripWithDestinationsResponse> getAllTripsWithDestinations();
+
+    /**
+     * Finds the trips matching the filter together with their destinations, using one fetch-join query
+     * that applies the filter in the database.
+     *
+     * @param filter The filters to apply; unset filters are ignored.
+     * @return The matching trips ordered by ID, each with its destinations nested.
+     */
+    List<TripWithDestinationsResponse> searchTripsWithDestinations(TripFilter filter);
+
+    /**
+     * Retrieves a trip through the read cache. The response carries the trip's version, which changes whenever the
+     * trip or its destinations change, so it serves as the trip's ETag without a query of its own.
+     *
+     * @param id The ID of the trip.
+     * @return The trip, with its version.
+     */
     TripResponse getTripById(Long id);
     TripResponse updateTrip(Long id, TripRequest tripRequest);
     void deleteTrip(Long id);
+
+    /**
+     * Deletes the selected trips with their destinations in one transaction, using one statement per table and chunk of
+     * trips rather than loading them. Each deleted trip gets a tombstone, so delta exports report it as deleted.
+     * IDs of trips that do not exist are skipped.
+     *
+     * @param request The IDs of the trips to delete, or a filter selecting them.
+     * @return The number of trips and destinations deleted.
+     * @throws com.example.tripplanner.exceptions.BulkSelectionTooLargeException If the filter matches more than
+     *         tripplanner.bulk.max-trips trips; nothing is deleted then.
+     */
+    BulkOperationResponse deleteTrips(BulkDeleteRequest request);
+
+    /**
+     * Applies the same change to the selected trips in one transaction, using one statement per chunk of trips.
+     * A date shift also moves the trips' destinations by the same number of days, with one more statement per chunk,
+     * so every itinerary stays inside its trip.
+     *
+     * @param request The IDs of the trips to update, or a filter selecting them, and the change to apply.
+     * @return The number of trips and destinations updated.
+     * @throws com.example.tripplanner.exceptions.BulkSelectionTooLargeException If the filter matches more than
+     *         tripplanner.bulk.max-trips trips; nothing is updated then.
+     */
+    BulkOperationResponse updateTrips(BulkUpdateRequest request);
+
+    /**
+     * Opens a read-only cursor over all trips and hands the resulting stream to the consumer.
+     * The stream is only valid for the duration of the callback and is closed afterwards.
+     *
+     * @param consumer The callback that consumes the trips, e.g. by writing them to a response.
+     */
+    void streamAllTrips(Consumer<Stream<TripResponse>> consumer);
+
+    /**
+     * Opens a read-only cursor over all trips with their destinations and hands the resulting stream to the consumer.
+     * Destinations are loaded per batch of trips, not per trip. The stream is only valid for the duration of the callback.
+     *
+     * @param consumer The callback that consumes the trips, e.g. by writing them to a response.
+     */
+    void streamAllTripsWithDestinations(Consumer<Stream<TripWithDestinationsResponse>> consumer);
+
+    /**
+     * The watermark up to which a delta export started now can safely report changes.
+     * It trails the clock by tripplanner.export.changes.commit-lag: a change is stamped when its transaction flushes,
+     * not when it commits, so a more recent change might still become visible with an older timestamp.
+     *
+     * @return The upper bound to pass to streamTripChanges and hand back to the client as its next watermark.
+     */
+    Instant currentChangeWatermark();
+
+    /**
+     * Opens read-only cursors over the trips changed and deleted in the window (since, until] and hands them to the
+     * consumer as one stream: an UPSERT per created or updated trip (or trip with a new destination), then a DELETE
+     * per deleted trip. The stream is only valid for the duration of the callback.
+     *
+     * @param since The exclusive lower bound, the watermark returned by the previous delta export.
+     * @param until The inclusive upper bound, from currentChangeWatermark.
+     * @param consumer The callback that consumes the changes, e.g. by writing them to a response.
+     */
+    void streamTripChanges(Instant since, Instant until, Consumer<Stream<TripChange>> consumer);
 }
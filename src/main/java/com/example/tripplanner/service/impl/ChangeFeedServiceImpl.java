@@ -0,0 +1,306 @@
+package com.example.tripplanner.service.impl;
+
+import com.example.tripplanner.event.DestinationAddedEvent;
+import com.example.tripplanner.event.DestinationsUpdatedEvent;
+import com.example.tripplanner.event.TripDeletedEvent;
+import com.example.tripplanner.event.TripUpdatedEvent;
+import com.example.tripplanner.event.TripsCreatedEvent;
+import com.example.tripplanner.event.TripsDeletedEvent;
+import com.example.tripplanner.event.TripsUpdatedEvent;
+import com.example.tripplanner.exceptions.TooManySubscribersException;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.service.ChangeFeedService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Pushes the trip and destination events to Server-Sent Events subscribers once their transaction commits.
+ * Publishing never blocks the writer: each event is serialized once, appended to a bounded replay buffer and offered to
+ * every matching subscriber's bounded queue, and a subscriber whose queue is full is dropped. Each queue is drained by
+ * the subscriber's own sender thread, which sends a heartbeat comment while idle so proxies keep the connection open
+ * and clients that went away are noticed.
+ * A write that changes several trips at once, such as an import chunk or a chunk of a bulk update, is pushed as one event
+ * carrying an array, so it takes one slot in the replay buffer and in each queue however many trips it covers. A subscriber
+ * is therefore only dropped when it falls more than subscriber-buffer writes behind, not trips.
+ */
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    public static final String TRIP_CREATED = "trip-created";
+    public static final String TRIP_UPDATED = "trip-updated";
+    public static final String TRIP_DELETED = "trip-deleted";
+    public static final String DESTINATION_ADDED = "destination-added";
+    public static final String DESTINATION_UPDATED = "destination-updated";
+    public static final String TRIPS_CREATED = "trips-created";
+    public static final String TRIPS_UPDATED = "trips-updated";
+    public static final String TRIPS_DELETED = "trips-deleted";
+    public static final String DESTINATIONS_UPDATED = "destinations-updated";
+    public static final String RESYNC = "resync";
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedServiceImpl.class);
+
+    private final AsyncTaskExecutor changeFeedTaskExecutor;
+    private final ObjectMapper objectMapper;
+    private final int replaySize;
+    private final int subscriberBuffer;
+    private final Duration heartbeat;
+    private final Counter droppedSubscribers;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Both guarded by this, so a new subscriber's replay and its live events neither overlap nor leave a gap
+    private final Deque<FeedEvent> replay = new ArrayDeque<>();
+    private long latestEventId;
+
+    @Autowired
+    public ChangeFeedServiceImpl(@Qualifier("changeFeedTaskExecutor") AsyncTaskExecutor changeFeedTaskExecutor,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${tripplanner.changes.replay-size:4096}") int replaySize,
+                                 @Value("${tripplanner.changes.subscriber-buffer:1024}") int subscriberBuffer,
+                                 @Value("${tripplanner.changes.heartbeat:15s}") Duration heartbeat) {
+        this.changeFeedTaskExecutor = changeFeedTaskExecutor;
+        this.objectMapper = objectMapper;
+        this.replaySize = replaySize;
+        this.subscriberBuffer = subscriberBuffer;
+        this.heartbeat = heartbeat;
+        // Numbering starts from the clock, so IDs handed out before a restart are older than anything buffered now
+        // and clients reconnecting with one are told to resync instead of silently missing events
+        this.latestEventId = Instant.now().toEpochMilli() * 1000;
+        meterRegistry.gauge("tripplanner.changes.subscribers", subscribers, List::size);
+        this.droppedSubscribers = meterRegistry.counter("tripplanner.changes.subscribers.dropped");
+    }
+
+    @Override
+    public SseEmitter subscribe(Set<Long> tripIds, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(-1L); // Never times out; the heartbeats detect clients that went away
+        Subscriber subscriber = new Subscriber(emitter, tripIds, subscriberBuffer);
+        List<FeedEvent> backlog;
+        synchronized (this) {
+            backlog = backlogAfter(lastEventId, subscriber);
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        try {
+            changeFeedTaskExecutor.execute(() -> deliver(subscriber, backlog));
+        } catch (TaskRejectedException e) {
+            subscribers.remove(subscriber);
+            throw new TooManySubscribersException("Too many change feed subscribers, please retry later.");
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true) // After commit, so rolled-back writes are never pushed
+    public void onTripsCreated(TripsCreatedEvent event) {
+        // One event per import chunk or batch, so an import cannot outrun subscribers however large its chunks are
+        publish(TRIP_CREATED, TRIPS_CREATED, event.trips(), TripWithDestinationsResponse::getId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripUpdated(TripUpdatedEvent event) {
+        publish(TRIP_UPDATED, event.trip().getId(), event.trip());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsUpdated(TripsUpdatedEvent event) {
+        publish(TRIP_UPDATED, TRIPS_UPDATED, event.trips(), TripResponse::getId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripDeleted(TripDeletedEvent event) {
+        publish(TRIP_DELETED, event.tripId(), event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripsDeleted(TripsDeletedEvent event) {
+        // Each item reads like a single trip-deleted payload
+        publish(TRIP_DELETED, TRIPS_DELETED, event.tripIds().stream().map(TripDeletedEvent::new).toList(), TripDeletedEvent::tripId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDestinationAdded(DestinationAddedEvent event) {
+        publish(DESTINATION_ADDED, event.destination().getTripId(), event.destination());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDestinationsUpdated(DestinationsUpdatedEvent event) {
+        publish(DESTINATION_UPDATED, DESTINATIONS_UPDATED, event.destinations(), DestinationResponse::getTripId);
+    }
+
+    private void publish(String name, Long tripId, Object payload) {
+        publish(name, name, List.of(payload), item -> tripId);
+    }
+
+    /**
+     * Publishes the payloads as one event: named singleName with the payload itself if there is only one, otherwise
+     * named batchName with an array of them.
+     */
+    private <T> void publish(String singleName, String batchName, List<T> payloads, Function<T, Long> tripIdOf) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        List<Long> tripIds = payloads.stream().map(tripIdOf).toList();
+        List<String> items = payloads.stream().map(this::toJson).toList(); // Once, however many subscribers there are
+        boolean batch = items.size() > 1;
+        String data = batch ? "[" + String.join(",", items) + "]" : items.get(0);
+        synchronized (this) {
+            FeedEvent event = new FeedEvent(++latestEventId, batch ? batchName : singleName, tripIds, batch ? items : null, data);
+            replay.addLast(event);
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(event) && !subscriber.queue.offer(event)) {
+                    drop(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * The buffered events a reconnecting client missed, or a single resync event if some of them are no longer buffered.
+     * Called with the lock held.
+     */
+    private List<FeedEvent> backlogAfter(String lastEventId, Subscriber subscriber) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        long after;
+        try {
+            after = Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            after = -1;
+        }
+        long oldestBuffered = replay.isEmpty() ? latestEventId + 1 : replay.peekFirst().id();
+        if (after < oldestBuffered - 1 || after > latestEventId) {
+            // Carries the latest ID, so the client resumes from here once it has caught up
+            return List.of(new FeedEvent(latestEventId, RESYNC, List.of(), null, "{}"));
+        }
+        long from = after;
+        return replay.stream().filter(event -> event.id() > from && subscriber.accepts(event)).toList();
+    }
+
+    private void deliver(Subscriber subscriber, List<FeedEvent> backlog) {
+        SseEmitter emitter = subscriber.emitter;
+        try {
+            for (FeedEvent event : backlog) {
+                send(subscriber, event);
+            }
+            while (!subscriber.closed && !subscriber.dropped) {
+                FeedEvent event = subscriber.queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    send(subscriber, event);
+                } else {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+            if (subscriber.dropped) {
+                emitter.complete(); // The client reconnects and resumes from the replay buffer
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the request already completed; the container takes care of the response
+            log.debug("Change feed subscriber disconnected: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Shutting down
+            emitter.complete();
+        } finally {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.dropped = true;
+        droppedSubscribers.increment();
+        log.warn("Dropped a change feed subscriber that fell more than {} events behind", subscriberBuffer);
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+    }
+
+    private static void send(Subscriber subscriber, FeedEvent event) throws IOException {
+        subscriber.emitter.send(SseEmitter.event().id(Long.toString(event.id())).name(event.name())
+                .data(event.dataFor(subscriber.tripIds)));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A published event. For an array event, items holds each element's JSON and tripIds the trip it belongs to,
+     * so subscribers following particular trips are sent only their elements; otherwise items is null.
+     */
+    private record FeedEvent(long id, String name, List<Long> tripIds, List<String> items, String data) {
+
+        boolean concerns(Set<Long> subscribedTripIds) {
+            return subscribedTripIds.isEmpty() || tripIds.stream().anyMatch(subscribedTripIds::contains);
+        }
+
+        String dataFor(Set<Long> subscribedTripIds) {
+            if (items == null || subscribedTripIds.isEmpty()) {
+                return data;
+            }
+            // Joined on the subscriber's sender thread, so publishing stays as cheap as for unfiltered subscribers
+            StringJoiner filtered = new StringJoiner(",", "[", "]");
+            for (int i = 0; i < items.size(); i++) {
+                if (subscribedTripIds.contains(tripIds.get(i))) {
+                    filtered.add(items.get(i));
+                }
+            }
+            return filtered.toString();
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> tripIds;
+        private final BlockingQueue<FeedEvent> queue;
+        private volatile boolean dropped;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Set<Long> tripIds, int capacity) {
+            this.emitter = emitter;
+            this.tripIds = tripIds;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean accepts(FeedEvent event) {
+            return event.concerns(tripIds);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.tripplanner.service.impl;
 
+import com.example.tripplanner.config.CacheConfig;
+import com.example.tripplanner.event.DestinationAddedEvent;
 import com.example.tripplanner.exceptions.ResourceNotFoundException;
 import com.example.tripplanner.model.Destination;
 import com.example.tripplanner.model.Trip;
@@ -9,29 +11,44 @@ import com.example.tripplanner.model.factory.DestinationFactory;
 import com.example.tripplanner.repository.DestinationRepository;
 import com.example.tripplanner.repository.TripRepository;
 import com.example.tripplanner.service.DestinationService;
+import com.example.tripplanner.service.TripService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class DestinationServiceImpl implements DestinationService {
     private final DestinationRepository destinationRepository;
     private final TripRepository tripRepository;
+    private final TripService tripService; // Its cached trips carry the version that serves as the ETag
     private final DestinationFactory destinationFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public DestinationServiceImpl(DestinationRepository destinationRepository, TripRepository tripRepository, DestinationFactory destinationFactory) {
+    public DestinationServiceImpl(DestinationRepository destinationRepository, TripRepository tripRepository, TripService tripService,
+                                  DestinationFactory destinationFactory, ApplicationEventPublisher eventPublisher) {
         this.destinationRepository = destinationRepository;
         this.tripRepository = tripRepository;
+        this.tripService = tripService;
         this.destinationFactory = destinationFactory;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TRIP_DESTINATIONS, key = "#tripId"),
+            @CacheEvict(cacheNames = CacheConfig.TRIPS, key = "#tripId") // The cached trip's version is about to change
+    })
+    @Transactional
     public DestinationResponse addDestinationToTrip(Long tripId, DestinationRequest destinationRequest) {
-        // 1. Find the parent Trip
-        Trip trip = tripRepository.findById(tripId)
+        // 1. Find the parent Trip; its version is incremented on commit so the trip's ETags change
+        Trip trip = tripRepository.findByIdIncrementingVersion(tripId)
                 .orElseThrow(() -> new ResourceNotFoundException("Trip not found with ID: " + tripId));
 
         // 2. Convert DestinationRequest DTO to Destination Entity
@@ -41,22 +58,28 @@ public class DestinationServiceImpl implements DestinationService {
         Destination savedDestination = destinationRepository.save(destination);
 
         // 4. Convert the saved Destination entity back to DestinationResponse DTO
-        return destinationFactory.createDestinationResponse(savedDestination); // Get trip ID from the associated trip
+        DestinationResponse destinationResponse = destinationFactory.createDestinationResponse(savedDestination); // Get trip ID from the associated trip
+
+        // 5. Let listeners such as the overlap index pick up the destination once the transaction commits
+        eventPublisher.publishEvent(new DestinationAddedEvent(destinationResponse));
+        return destinationResponse;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.TRIP_DESTINATIONS, key = "#tripId")
     public List<DestinationResponse> getDestinationsForTrip(Long tripId) {
-        if (!tripRepository.existsById(tripId)) {
+        // 1. Select the destinations straight into DTOs, no Destination/Trip entities are loaded
+        List<DestinationResponse> destinations = destinationRepository.findResponsesByTripId(tripId);
+
+        // 2. Only an empty result needs the extra lookup to tell a trip without destinations from a missing trip
+        if (destinations.isEmpty() && !tripRepository.existsById(tripId)) {
             throw new ResourceNotFoundException("Trip not found with ID: " + tripId);
         }
+        return destinations;
+    }
 
-        // 2. Find all destinations associated with the tripId
-        List<Destination> destinations = destinationRepository.findByTripId(tripId);
-
-        // 3. Convert Destination entities to DestinationResponse DTOs
-        return destinations.stream()
-                .map(destinationFactory::createDestinationResponse)
-                .collect(Collectors.toList());
-
+    @Override
+    public long getDestinationsVersion(Long tripId) {
+        return tripService.getTripById(tripId).getVersion();
     }
 }
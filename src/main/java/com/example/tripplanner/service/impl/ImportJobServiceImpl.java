@@ -0,0 +1,236 @@
+package com.example.tripplanner.service.impl;
+
+import com.example.tripplanner.exceptions.ResourceNotFoundException;
+import com.example.tripplanner.model.ImportJobStatus;
+import com.example.tripplanner.model.dto.ImportJobResponse;
+import com.example.tripplanner.service.ImportJob;
+import com.example.tripplanner.service.ImportJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobServiceImpl.class);
+
+    private final AsyncTaskExecutor importTaskExecutor;
+    private final Duration retention;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Path> spooledFiles = new ConcurrentHashMap<>(); // Uploads of file jobs that have not finished
+
+    @Autowired
+    public ImportJobServiceImpl(@Qualifier("importTaskExecutor") AsyncTaskExecutor importTaskExecutor,
+                                @Value("${tripplanner.import.async.retention:1h}") Duration retention) {
+        this.importTaskExecutor = importTaskExecutor;
+        this.retention = retention;
+    }
+
+    @Override
+    public ImportJobResponse submitFileImport(String type, MultipartFile file, FileImportTask task) throws IOException {
+        // The request's temporary upload is deleted when the request completes, so the job works on its own copy
+        Path spooledFile = Files.createTempFile("trip-import-", ".upload");
+        String jobId = UUID.randomUUID().toString();
+        try {
+            file.transferTo(spooledFile);
+            ImportJob job = new ImportJob(jobId, type, Files.size(spooledFile), 0);
+            // Deleted by whoever moves the job out of QUEUED: the worker once the import ends, or a cancel that comes first
+            spooledFiles.put(jobId, spooledFile);
+            return submit(job, () -> {
+                try (InputStream is = new ProgressInputStream(Files.newInputStream(spooledFile), job)) {
+                    task.run(is, job);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            spooledFiles.remove(jobId);
+            Files.deleteIfExists(spooledFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public ImportJobResponse submitImport(String type, long totalRows, ImportTask task) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), type, 0, totalRows);
+        return submit(job, () -> task.run(job));
+    }
+
+    @Override
+    public ImportJobResponse getJob(String jobId) {
+        return toResponse(findJob(jobId));
+    }
+
+    @Override
+    public ImportJobResponse cancelJob(String jobId) {
+        ImportJob job = findJob(jobId);
+        job.requestCancel();
+        // A queued job never starts, so its upload can go right away; a running one stops at its next chunk boundary.
+        // Only one of this and the worker's markRunning can move the job out of QUEUED
+        if (job.markCancelledIfQueued()) {
+            if (job.getFuture() != null) {
+                job.getFuture().cancel(false); // Frees its place in the queue; if the worker got it, it returns at once
+            }
+            deleteSpooledFile(job);
+        }
+        return toResponse(job);
+    }
+
+    @FunctionalInterface
+    private interface JobBody {
+        void run() throws Exception;
+    }
+
+    private ImportJobResponse submit(ImportJob job, JobBody body) {
+        evictExpiredJobs();
+        jobs.put(job.getId(), job);
+        try {
+            job.attach(importTaskExecutor.submit(() -> runJob(job, body)));
+        } catch (RuntimeException e) {
+            // Executor saturated: forget the job and let the caller report the rejection
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return toResponse(job);
+    }
+
+    private void runJob(ImportJob job, JobBody body) {
+        try {
+            if (job.isCancelRequested()) {
+                job.markCancelledIfQueued();
+                return;
+            }
+            if (!job.markRunning()) {
+                return; // Cancelled while queued
+            }
+            try {
+                body.run();
+                job.markFinished(ImportJobStatus.COMPLETED);
+            } catch (CancellationException e) {
+                job.markFinished(ImportJobStatus.CANCELLED);
+            } catch (Exception e) {
+                log.warn("Import job {} failed after {} rows", job.getId(), job.getRowsProcessed().get(), e);
+                job.addError(e.getMessage());
+                job.markFinished(ImportJobStatus.FAILED);
+            }
+        } finally {
+            deleteSpooledFile(job);
+        }
+    }
+
+    private void deleteSpooledFile(ImportJob job) {
+        Path spooledFile = spooledFiles.remove(job.getId());
+        if (spooledFile == null) {
+            return; // Not a file import, or already deleted
+        }
+        try {
+            Files.deleteIfExists(spooledFile);
+        } catch (IOException e) {
+            log.warn("Could not delete the spooled upload {} of import job {}", spooledFile, job.getId(), e);
+        }
+    }
+
+    private ImportJob findJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found with ID: " + jobId);
+        }
+        return job;
+    }
+
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getStatus().isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private ImportJobResponse toResponse(ImportJob job) {
+        long rows = job.getRowsProcessed().get();
+        Instant startedAt = job.getStartedAt();
+        Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+        double elapsedSeconds = startedAt != null ? Duration.between(startedAt, end).toNanos() / 1_000_000_000d : 0;
+        double rowsPerSecond = elapsedSeconds > 0 ? rows / elapsedSeconds : 0;
+
+        // Progress is measured in bytes for file imports and in rows for in-memory imports
+        Double fraction = null;
+        if (job.getTotalBytes() > 0) {
+            fraction = Math.min(1d, (double) job.getBytesRead().get() / job.getTotalBytes());
+        } else if (job.getTotalRows() > 0) {
+            fraction = Math.min(1d, (double) rows / job.getTotalRows());
+        }
+        if (job.getStatus() == ImportJobStatus.COMPLETED) {
+            fraction = 1d;
+        }
+        Long etaSeconds = null;
+        if (job.getStatus() == ImportJobStatus.RUNNING && fraction != null && fraction > 0 && fraction < 1) {
+            etaSeconds = Math.round(elapsedSeconds * (1 - fraction) / fraction);
+        }
+
+        return new ImportJobResponse(
+                job.getId(),
+                job.getType(),
+                job.getStatus(),
+                rows,
+                job.getChunks().get(),
+                rowsPerSecond,
+                fraction != null ? fraction * 100 : null,
+                etaSeconds,
+                List.copyOf(job.getErrors()),
+                job.getSubmittedAt(),
+                startedAt,
+                job.getFinishedAt()
+        );
+    }
+
+    /**
+     * Counts the bytes the importer has consumed so far, which drives percentComplete and the ETA.
+     */
+    private static class ProgressInputStream extends FilterInputStream {
+        private final ImportJob job;
+
+        ProgressInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.addBytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                job.addBytesRead(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            job.addBytesRead(skipped);
+            return skipped;
+        }
+    }
+}
@@ -1,64 +1,456 @@
 package com.example.tripplanner.service.impl;
 
+import com.example.tripplanner.config.CacheConfig;
+import com.example.tripplanner.event.DestinationsUpdatedEvent;
+import com.example.tripplanner.event.TripDeletedEvent;
+import com.example.tripplanner.event.TripUpdatedEvent;
+import com.example.tripplanner.event.TripsCreatedEvent;
+import com.example.tripplanner.event.TripsDeletedEvent;
+import com.example.tripplanner.event.TripsUpdatedEvent;
+import com.example.tripplanner.exceptions.BulkSelectionTooLargeException;
+import com.example.tripplanner.exceptions.InvalidPageRequestException;
 import com.example.tripplanner.exceptions.ResourceNotFoundException;
+import com.example.tripplanner.index.TripOverlapIndex;
+import com.example.tripplanner.index.TripSearchIndex;
 import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.TripTombstone;
+import com.example.tripplanner.model.TripSort;
+import com.example.tripplanner.model.dto.BulkDeleteRequest;
+import com.example.tripplanner.model.dto.BulkOperationResponse;
+import com.example.tripplanner.model.dto.BulkUpdateRequest;
+import com.example.tripplanner.model.dto.DestinationRequest;
+import com.example.tripplanner.model.dto.TripChange;
+import com.example.tripplanner.model.dto.TripFilter;
+import com.example.tripplanner.model.dto.TripOverlapResponse;
+import com.example.tripplanner.model.dto.TripPage;
 import com.example.tripplanner.model.dto.TripRequest;
 import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripSearchResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.model.factory.DestinationFactory;
 import com.example.tripplanner.model.factory.TripFactory;
+import com.example.tripplanner.repository.DestinationRepository;
+import com.example.tripplanner.repository.FetchProfile;
 import com.example.tripplanner.repository.TripRepository;
+import com.example.tripplanner.repository.TripSpecifications;
+import com.example.tripplanner.repository.TripTombstoneRepository;
 import com.example.tripplanner.service.TripService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TripServiceImpl implements TripService {
 
+    // Bulk statements touch this many trips at a time, which keeps IN lists within what every database accepts
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     private final TripRepository tripRepository;
+    private final DestinationRepository destinationRepository; // Bulk deletes and shifts change destinations without loading them
+    private final TripTombstoneRepository tripTombstoneRepository; // Deletions, for the delta export
     private final TripFactory tripFactory;
+    private final DestinationFactory destinationFactory;
+    private final TripOverlapIndex tripOverlapIndex;
+    private final TripSearchIndex tripSearchIndex;
+    private final ApplicationEventPublisher eventPublisher; // Trip events keep the in-memory indexes in sync after commit
+    private final TripCountCache tripCountCache = new TripCountCache();
+
+    // Changes stamped within this window of the clock may belong to transactions that have not committed yet
+    @Value("${tripplanner.export.changes.commit-lag:5s}")
+    private Duration changesCommitLag = Duration.ofSeconds(5);
+
+    // A bulk request holds the selected IDs and one event per trip until it commits, so its selection is bounded
+    @Value("${tripplanner.bulk.max-trips:10000}")
+    private int bulkMaxTrips = 10000;
 
     @Autowired
-    public TripServiceImpl(TripRepository tripRepository, TripFactory tripFactory) {
+    public TripServiceImpl(TripRepository tripRepository, DestinationRepository destinationRepository,
+                           TripTombstoneRepository tripTombstoneRepository, TripFactory tripFactory, DestinationFactory destinationFactory,
+                           TripOverlapIndex tripOverlapIndex, TripSearchIndex tripSearchIndex, ApplicationEventPublisher eventPublisher) {
         this.tripRepository = tripRepository;
+        this.destinationRepository = destinationRepository;
+        this.tripTombstoneRepository = tripTombstoneRepository;
         this.tripFactory = tripFactory;
+        this.destinationFactory = destinationFactory;
+        this.tripOverlapIndex = tripOverlapIndex;
+        this.tripSearchIndex = tripSearchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.TRIPS, key = "#result.id") // The new trip is likely to be read back right away
     public TripResponse createTrip(TripRequest tripRequest) {
         Trip trip = tripFactory.createTripFromRequest(tripRequest);
         Trip savedTrip = tripRepository.save(trip);
+        invalidateTripCount();
+        publishTripsCreated(List.of(savedTrip));
         return tripFactory.getTripResponse(savedTrip);
     }
 
+    @Override
+    @Transactional
+    public int createTrips(List<TripRequest> tripRequests) {
+        List<Trip> trips = tripRequests.stream()
+                .map(tripFactory::createTripFromRequest)
+                .collect(Collectors.toList());
+        invalidateTripCount();
+        List<Trip> savedTrips = tripRepository.saveAll(trips);
+        publishTripsCreated(savedTrips);
+        return savedTrips.size();
+    }
+
+    @Override
+    @Transactional
+    public int importTripsWithDestinations(List<TripWithDestinationsRequest> tripWithDestinationsRequests) {
+        List<Trip> trips = new ArrayList<>(tripWithDestinationsRequests.size());
+        for (TripWithDestinationsRequest tripWithDestinationsRequest : tripWithDestinationsRequests) {
+            Trip trip = tripFactory.createTripFromRequest(tripWithDestinationsRequest);
+            if (tripWithDestinationsRequest.getDestinations() != null) {
+                for (DestinationRequest destinationRequest : tripWithDestinationsRequest.getDestinations()) {
+                    // Both sides of the association are set; CascadeType.ALL persists the destinations with the trip
+                    trip.getDestinations().add(destinationFactory.createDestination(destinationRequest, trip));
+                }
+            }
+            trips.add(trip);
+        }
+        invalidateTripCount();
+        List<Trip> savedTrips = tripRepository.saveAll(trips);
+        publishTripsCreated(savedTrips);
+        return savedTrips.size();
+    }
+
+    private void publishTripsCreated(List<Trip> savedTrips) {
+        // IDs are assigned on persist, so the event can be built before the transaction flushes
+        eventPublisher.publishEvent(new TripsCreatedEvent(savedTrips.stream()
+                .map(this::toTripWithDestinationsResponse)
+                .collect(Collectors.toList())));
+    }
 
     @Override
     public List<TripResponse> getAllTrips() {
-        List<Trip> trips = tripRepository.findAll();
-        return trips.stream().map(tripFactory::getTripResponse).collect(Collectors.toList());
+        return tripRepository.findAllResponses();
+    }
+
+    @Override
+    public List<TripResponse> searchTrips(TripFilter filter) {
+        return tripRepository.findResponses(TripSpecifications.matching(filter));
+    }
+
+    @Override
+    public TripOverlapResponse findOverlapping(LocalDate from, LocalDate to) {
+        return tripOverlapIndex.findOverlapping(from, to);
+    }
+
+    @Override
+    public TripSearchResponse searchTripsByText(String query, int limit) {
+        return tripSearchIndex.search(query, limit);
+    }
+
+    @Override
+    public TripPage getTripsPage(int limit, String cursor, TripSort sort) {
+        // One extra row tells whether another page follows without a separate query
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<TripResponse> trips;
+        if (sort == TripSort.ID) {
+            long afterId = cursor == null ? Long.MIN_VALUE : decodeCursor(cursor, sort).id();
+            trips = tripRepository.findResponsesAfterId(afterId, fetchLimit);
+        } else {
+            trips = findTripsByStartDate(cursor == null ? null : decodeCursor(cursor, sort), fetchLimit);
+        }
+
+        String nextCursor = null;
+        if (trips.size() > limit) {
+            trips = trips.subList(0, limit);
+            nextCursor = encodeCursor(trips.get(limit - 1), sort);
+        }
+        return new TripPage(trips, nextCursor, tripCountCache.get(tripRepository::count));
+    }
+
+    private List<TripResponse> findTripsByStartDate(CursorKey after, Limit fetchLimit) {
+        List<TripResponse> trips = new ArrayList<>(fetchLimit.max());
+        if (after == null) {
+            trips.addAll(tripRepository.findFirstResponsesByStartDate(fetchLimit));
+        } else if (after.startDate() != null) {
+            trips.addAll(tripRepository.findResponsesAfterStartDate(after.startDate(), after.id(), fetchLimit));
+        }
+        // Undated trips come last; they are only read once the dated range is exhausted
+        if (trips.size() < fetchLimit.max()) {
+            long afterId = after != null && after.startDate() == null ? after.id() : Long.MIN_VALUE;
+            trips.addAll(tripRepository.findUndatedResponsesAfterId(afterId, Limit.of(fetchLimit.max() - trips.size())));
+        }
+        return trips;
+    }
+
+    private record CursorKey(LocalDate startDate, long id) {
+    }
+
+    private String encodeCursor(TripResponse lastTrip, TripSort sort) {
+        String key = sort == TripSort.ID
+                ? sort.getParam() + ":" + lastTrip.getId()
+                : sort.getParam() + ":" + (lastTrip.getStartDate() == null ? "" : lastTrip.getStartDate()) + ":" + lastTrip.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorKey decodeCursor(String cursor, TripSort sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (!parts[0].equals(sort.getParam()) || parts.length != (sort == TripSort.ID ? 2 : 3)) {
+                throw new InvalidPageRequestException("Cursor does not belong to sort '" + sort.getParam() + "'");
+            }
+            if (sort == TripSort.ID) {
+                return new CursorKey(null, Long.parseLong(parts[1]));
+            }
+            return new CursorKey(parts[1].isEmpty() ? null : LocalDate.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Drops the cached trip count once the current transaction has finished, or right away outside a transaction.
+     * Invalidating before commit would let a concurrent page request cache the old count again.
+     */
+    private void invalidateTripCount() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    tripCountCache.invalidate();
+                }
+            });
+        } else {
+            tripCountCache.invalidate();
+        }
+    }
+
+    /**
+     * Holds the last computed trip count. The generation guards against a count that was computed
+     * before a write being stored after that write invalidated the cache.
+     */
+    private static class TripCountCache {
+        private long count = -1;
+        private long generation;
+
+        long get(LongSupplier counter) {
+            long observedGeneration;
+            synchronized (this) {
+                if (count >= 0) {
+                    return count;
+                }
+                observedGeneration = generation;
+            }
+            long freshCount = counter.getAsLong();
+            synchronized (this) {
+                if (generation == observedGeneration) {
+                    count = freshCount;
+                }
+            }
+            return freshCount;
+        }
+
+        synchronized void invalidate() {
+            count = -1;
+            generation++;
+        }
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.TRIPS, key = "#id")
     public TripResponse getTripById(Long id) {
-        Trip trip = tripRepository.findById(id).orElseThrow(() ->  new ResourceNotFoundException("Trip not found with ID: " + id));
-        return tripFactory.getTripResponse(trip);
+        return tripRepository.findResponseById(id).orElseThrow(() ->  new ResourceNotFoundException("Trip not found with ID: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true) // Read-only session: the loaded graph is only mapped to DTOs, no dirty-checking snapshots
+    public TripWithDestinationsResponse getTripWithDestinations(Long id) {
+        Trip trip = tripRepository.findById(id, FetchProfile.WITH_DESTINATIONS).orElseThrow(() ->  new ResourceNotFoundException("Trip not found with ID: " + id));
+        return toTripWithDestinationsResponse(trip);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TripWithDestinationsResponse> getAllTripsWithDestinations() {
+        return tripRepository.findAll(FetchProfile.WITH_DESTINATIONS).stream()
+                .map(this::toTripWithDestinationsResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TripWithDestinationsResponse> searchTripsWithDestinations(TripFilter filter) {
+        return tripRepository.findAll(TripSpecifications.matching(filter), FetchProfile.WITH_DESTINATIONS).stream()
+                .map(this::toTripWithDestinationsResponse)
+                .collect(Collectors.toList());
+    }
+
+    private TripWithDestinationsResponse toTripWithDestinationsResponse(Trip trip) {
+        // The destinations were fetched with the trip, so mapping them runs no further queries
+        return tripFactory.getTripWithDestinationsResponse(trip, trip.getDestinations().stream()
+                .map(destinationFactory::createDestinationResponse)
+                .collect(Collectors.toList()));
     }
 
     @Override
+    @CachePut(cacheNames = CacheConfig.TRIPS, key = "#id")
+    @Transactional // The trip stays managed, so the update is a dirty-checked UPDATE without a merge
     public TripResponse updateTrip(Long id, TripRequest tripRequest) {
-        Trip existingTrip = tripRepository.findById(id).orElseThrow(() ->  new ResourceNotFoundException("Trip not found with ID: " + id));
+        Trip existingTrip = tripRepository.findById(id, FetchProfile.SUMMARY).orElseThrow(() ->  new ResourceNotFoundException("Trip not found with ID: " + id));
         Trip updatedTrip = tripFactory.updateTrip(existingTrip, tripRequest);
 
-        Trip savedTrip = tripRepository.save(updatedTrip);
-        return tripFactory.getTripResponse(savedTrip);
+        // Flushed here rather than at commit, so the cached response carries the incremented version as its ETag
+        Trip savedTrip = tripRepository.saveAndFlush(updatedTrip);
+        TripResponse tripResponse = tripFactory.getTripResponse(savedTrip);
+        eventPublisher.publishEvent(new TripUpdatedEvent(tripResponse));
+        return tripResponse;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TRIPS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.TRIP_DESTINATIONS, key = "#id") // Destinations are removed by the cascade
+    })
+    @Transactional // The tombstone is only written if the delete commits
     public void deleteTrip(Long id) {
         if (!tripRepository.existsById(id)) {
             throw new ResourceNotFoundException("Trip not found with ID: " + id);
         }
         tripRepository.deleteById(id);
+        tripTombstoneRepository.save(new TripTombstone(id));
+        invalidateTripCount();
+        eventPublisher.publishEvent(new TripDeletedEvent(id));
+    }
+
+    @Override
+    @Caching(evict = { // Cheaper than one eviction per trip, and bulk deletes are rare
+            @CacheEvict(cacheNames = CacheConfig.TRIPS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TRIP_DESTINATIONS, allEntries = true)
+    })
+    @Transactional // All chunks or none
+    public BulkOperationResponse deleteTrips(BulkDeleteRequest request) {
+        List<Long> tripIds = selectTripIds(request.getIds(), request.getFilter());
+        Instant deletedAt = Instant.now().truncatedTo(ChronoUnit.MICROS); // The precision the database keeps
+        long tripsDeleted = 0;
+        long destinationsDeleted = 0;
+        for (List<Long> chunk : chunks(tripIds)) {
+            // The tombstones are selected from the trips, so they go first
+            tripTombstoneRepository.insertForTrips(chunk, deletedAt);
+            destinationsDeleted += destinationRepository.deleteByTripIdIn(chunk);
+            tripsDeleted += tripRepository.deleteByIdIn(chunk);
+            eventPublisher.publishEvent(new TripsDeletedEvent(List.copyOf(chunk))); // One event per chunk, not per trip
+        }
+        invalidateTripCount();
+        return new BulkOperationResponse(tripsDeleted, destinationsDeleted);
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.TRIPS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.TRIP_DESTINATIONS, allEntries = true) // Shifted along with their trips
+    })
+    @Transactional
+    public BulkOperationResponse updateTrips(BulkUpdateRequest request) {
+        List<Long> tripIds = selectTripIds(request.getIds(), request.getFilter());
+        int shiftDays = request.getShiftDays() != null ? request.getShiftDays() : 0;
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        long tripsUpdated = 0;
+        long destinationsUpdated = 0;
+        for (List<Long> chunk : chunks(tripIds)) {
+            tripsUpdated += tripRepository.updateByIdIn(chunk, shiftDays, request.getDescription(), updatedAt);
+            // Read back, so the events carry the dates and descriptions the database computed
+            eventPublisher.publishEvent(new TripsUpdatedEvent(tripRepository.findResponsesByIdIn(chunk)));
+            if (shiftDays != 0) {
+                // The itinerary moves with the trip, so it stays inside the trip's new dates
+                destinationsUpdated += destinationRepository.shiftDatesByTripIdIn(chunk, shiftDays, updatedAt);
+                eventPublisher.publishEvent(new DestinationsUpdatedEvent(destinationRepository.findResponsesByTripIdIn(chunk)));
+            }
+        }
+        return new BulkOperationResponse(tripsUpdated, destinationsUpdated);
+    }
+
+    /**
+     * The IDs of the existing trips a bulk request selects, in ascending order. Unknown IDs are left out, so the events
+     * only name trips that were actually changed.
+     *
+     * @throws BulkSelectionTooLargeException If the filter matches more than tripplanner.bulk.max-trips trips.
+     */
+    private List<Long> selectTripIds(List<Long> ids, TripFilter filter) {
+        if (ids == null) {
+            // One extra ID tells whether the filter matches too many trips without counting them all
+            List<Long> matchingIds = tripRepository.findIds(TripSpecifications.matching(filter), bulkMaxTrips + 1);
+            if (matchingIds.size() > bulkMaxTrips) {
+                throw new BulkSelectionTooLargeException("The filter matches more than " + bulkMaxTrips
+                        + " trips; narrow it, e.g. with a shorter date window, and repeat the request for the rest");
+            }
+            return matchingIds;
+        }
+        List<Long> existingIds = new ArrayList<>();
+        for (List<Long> chunk : chunks(ids.stream().distinct().toList())) {
+            existingIds.addAll(tripRepository.findExistingIds(chunk));
+        }
+        return existingIds;
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(items.subList(from, Math.min(from + BULK_CHUNK_SIZE, items.size())));
+        }
+        return chunks;
+    }
+
+    @Override
+    @Transactional(readOnly = true) // The cursor behind the stream needs an open connection while it is consumed
+    public void streamAllTrips(Consumer<Stream<TripResponse>> consumer) {
+        try (Stream<TripResponse> trips = tripRepository.streamAllTripResponses()) {
+            consumer.accept(trips);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllTripsWithDestinations(Consumer<Stream<TripWithDestinationsResponse>> consumer) {
+        try (Stream<TripWithDestinationsResponse> trips = tripRepository.streamAllWithDestinations()) {
+            consumer.accept(trips);
+        }
+    }
+
+    @Override
+    public Instant currentChangeWatermark() {
+        // Microseconds: the precision the timestamp columns store
+        return Instant.now().minus(changesCommitLag).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTripChanges(Instant since, Instant until, Consumer<Stream<TripChange>> consumer) {
+        try (Stream<TripChange> changes = Stream.concat(
+                tripRepository.streamChangedWithDestinations(since, until).map(TripChange::upsert),
+                tripTombstoneRepository.streamDeletions(since, until))) {
+            consumer.accept(changes);
+        }
     }
 }
@@ -0,0 +1,77 @@
+package com.example.tripplanner.benchmark;
+
+import com.example.tripplanner.fixture.TripFixtures;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.repository.TripRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures trip + destination inserts/sec with and without JDBC batching.
+ * The unbatched run (JDBC batch size 1) sends one INSERT round trip per row, which is what the former
+ * IDENTITY id generation forced on every import; the batched run uses the configured batch size.
+ * Run with: mvn test -Pbenchmark -Dtest=BatchInsertBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class BatchInsertBenchmarkTest {
+
+    private static final int TRIPS = 20_000;
+    private static final int DESTINATIONS_PER_TRIP = 3;
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Benchmark inserts/sec: one statement per row vs. JDBC batches")
+    void benchmarkBatchInserts() {
+        long tripsBefore = tripRepository.count(); // Other benchmarks may share this context and its database
+        // Warm up the JIT, connection pool and id sequences before measuring
+        insertTrips(2_000, 50);
+        insertTrips(2_000, 1);
+
+        double unbatched = insertTrips(TRIPS, 1);
+        double batched = insertTrips(TRIPS, 50);
+
+        System.out.printf("[benchmark] unbatched (batch_size=1): %,.0f inserts/sec%n", unbatched);
+        System.out.printf("[benchmark] batched   (batch_size=50): %,.0f inserts/sec (%.1fx)%n", batched, batched / unbatched);
+        assertThat(tripRepository.count() - tripsBefore).isEqualTo(2L * 2_000 + 2L * TRIPS);
+    }
+
+    /**
+     * Inserts the given number of trips, with their destinations, in chunked transactions.
+     *
+     * @return Rows (trips + destinations) inserted per second.
+     */
+    private double insertTrips(int tripCount, int jdbcBatchSize) {
+        long startNanos = System.nanoTime();
+        for (int offset = 0; offset < tripCount; offset += CHUNK_SIZE) {
+            List<Trip> chunk = TripFixtures.trips(offset, Math.min(CHUNK_SIZE, tripCount - offset), DESTINATIONS_PER_TRIP);
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                tripRepository.saveAll(chunk);
+            });
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long rows = (long) tripCount * (1 + DESTINATIONS_PER_TRIP);
+        return rows * 1_000_000_000d / elapsedNanos;
+    }
+}
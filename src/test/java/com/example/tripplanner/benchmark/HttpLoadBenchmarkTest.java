@@ -0,0 +1,146 @@
+package com.example.tripplanner.benchmark;
+
+import com.example.tripplanner.fixture.TripFixtures;
+import com.example.tripplanner.repository.TripRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test: starts the application on a random port and drives a mixed workload of trip CRUD,
+ * destination adds, CSV imports and streaming exports through real HTTP. Prints per-endpoint throughput and
+ * p50/p99/p999 latency and writes them, with the raw histograms, to target/loadtest/loadtest-{label}-{time}.json
+ * so runs from different releases can be compared.
+ * Run with: mvn test -Pbenchmark -Dtest=HttpLoadBenchmarkTest -Dloadtest.rate=200 -Dloadtest.concurrency=16
+ * -Dloadtest.duration-seconds=30 -Dloadtest.label=1.2.0 (rate 0 runs the workers closed-loop).
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark a mixed HTTP workload end to end")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jpa.show-sql=false")
+public class HttpLoadBenchmarkTest {
+
+    private static final int SEED_TRIPS = 1_000;
+    private static final int IMPORT_ROWS = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Seeded trips are read, updated and extended but never deleted; DELETE only takes trips the run created
+    private final List<Long> stableTripIds = new ArrayList<>();
+    private final Queue<Long> deletableTripIds = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void benchmarkMixedWorkload() throws Exception {
+        stableTripIds.addAll(TripFixtures.seed(tripRepository, SEED_TRIPS, 0));
+
+        LoadGenerator.Settings settings = LoadGenerator.Settings.fromSystemProperties();
+        Path report = new LoadGenerator(settings, List.of(
+                new LoadGenerator.Operation("GET /trips/{id}", 30, () -> get("/trips/" + stableTripId())),
+                new LoadGenerator.Operation("GET /trips?limit=50", 15, () -> get("/trips?limit=50&sort=startDate")),
+                new LoadGenerator.Operation("GET /trips/{id}/destinations", 15, () -> get("/trips/" + stableTripId() + "/destinations")),
+                new LoadGenerator.Operation("POST /trips/createTrip", 10, () -> json("POST", "/trips/createTrip", tripJson("Load trip")),
+                        this::rememberCreatedTrip),
+                new LoadGenerator.Operation("PUT /trips/{id}", 10, () -> json("PUT", "/trips/" + stableTripId(), tripJson("Updated trip"))),
+                new LoadGenerator.Operation("POST /trips/{id}/destinations", 10,
+                        () -> json("POST", "/trips/" + stableTripId() + "/destinations", destinationJson())),
+                new LoadGenerator.Operation("DELETE /trips/{id}", 5, this::deleteCreatedTrip),
+                new LoadGenerator.Operation("POST /trips/import", 3, this::importCsv),
+                new LoadGenerator.Operation("GET /trips/export?stream=true", 2, () -> get("/trips/export?stream=true"))
+        )).run();
+
+        JsonNode total = objectMapper.readTree(report.toFile()).get("total");
+        assertThat(total.get("requests").asLong()).isPositive();
+        assertThat(Files.size(report)).isPositive();
+    }
+
+    private Long stableTripId() {
+        return stableTripIds.get(ThreadLocalRandom.current().nextInt(stableTripIds.size()));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(60));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest json(String method, String path, String body) {
+        return request(path).header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest deleteCreatedTrip() {
+        Long tripId = deletableTripIds.poll();
+        return tripId == null ? null : request("/trips/" + tripId).DELETE().build();
+    }
+
+    private void rememberCreatedTrip(HttpResponse<String> response) {
+        try {
+            deletableTripIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest importCsv() {
+        StringBuilder csv = new StringBuilder("name,startDate,endDate,description\n");
+        for (int n = 0; n < IMPORT_ROWS; n++) {
+            LocalDate startDate = futureDate();
+            csv.append("Imported trip ").append(n).append(',').append(startDate).append(',').append(startDate.plusDays(5)).append(",Load test\n");
+        }
+        String boundary = "----loadtest" + UUID.randomUUID();
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"trips.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + csv + "\r\n"
+                + "--" + boundary + "--\r\n";
+        return request("/trips/import").header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private String tripJson(String name) {
+        LocalDate startDate = futureDate();
+        return String.format("{\"name\":\"%s\",\"startDate\":\"%s\",\"endDate\":\"%s\",\"description\":\"Load test\"}",
+                name, startDate, startDate.plusDays(7));
+    }
+
+    private String destinationJson() {
+        LocalDate arrivalDate = futureDate();
+        return String.format("{\"name\":\"Stop\",\"location\":\"Somewhere\",\"arrivalDate\":\"%s\",\"departureDate\":\"%s\"}",
+                arrivalDate, arrivalDate.plusDays(2));
+    }
+
+    private static LocalDate futureDate() {
+        return LocalDate.now().plusDays(30 + ThreadLocalRandom.current().nextInt(365));
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.tripplanner.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A small open-model HTTP load generator for the end-to-end load tests.
+ * Each worker thread picks operations by weight and sends them on a fixed schedule derived from the target rate.
+ * Latency is measured from the scheduled send time rather than the actual one, so a stalled server shows up
+ * in the percentiles instead of silently lowering the request rate (coordinated omission).
+ * With a rate of 0 the workers run closed-loop, as fast as responses come back.
+ */
+final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    /**
+     * Load settings, read from system properties so a run can be tuned from the Maven command line.
+     */
+    record Settings(String label, int concurrency, int ratePerSecond, Duration warmup, Duration duration, Path outputDirectory) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    System.getProperty("loadtest.label", "local"),
+                    Integer.getInteger("loadtest.concurrency", 16),
+                    Integer.getInteger("loadtest.rate", 200),
+                    Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 5)),
+                    Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30)),
+                    Path.of(System.getProperty("loadtest.output-dir", "target/loadtest")));
+        }
+    }
+
+    /**
+     * One kind of request in the workload mix.
+     *
+     * @param name The name results are reported under, e.g. "GET /trips/{id}".
+     * @param weight The relative share of this operation in the mix.
+     * @param request Builds the next request, or returns null when the operation cannot run right now.
+     * @param onSuccess Called with every 2xx response, e.g. to remember a created trip.
+     */
+    record Operation(String name, int weight, Supplier<HttpRequest> request, Consumer<HttpResponse<String>> onSuccess) {
+
+        Operation(String name, int weight, Supplier<HttpRequest> request) {
+            this(name, weight, request, response -> {
+            });
+        }
+    }
+
+    private static final class OperationStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    }
+
+    private final Settings settings;
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private volatile boolean recording;
+
+    LoadGenerator(Settings settings, List<Operation> operations) {
+        this.settings = settings;
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        operations.forEach(operation -> stats.put(operation.name(), new OperationStats()));
+    }
+
+    /**
+     * Runs the warmup, then the measured phase, and writes the report.
+     *
+     * @return The path of the JSON report.
+     */
+    Path run() throws InterruptedException, IOException {
+        runPhase(settings.warmup());
+        recording = true;
+        long startNanos = System.nanoTime();
+        runPhase(settings.duration());
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000d;
+        recording = false;
+        return writeReport(elapsedSeconds);
+    }
+
+    private void runPhase(Duration phase) throws InterruptedException {
+        if (phase.isZero()) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + phase.toNanos();
+        // Each worker sends every intervalNanos; offsets spread the workers evenly over one interval
+        long intervalNanos = settings.ratePerSecond() > 0 ? settings.concurrency() * 1_000_000_000L / settings.ratePerSecond() : 0;
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        for (int worker = 0; worker < settings.concurrency(); worker++) {
+            long firstSendNanos = startNanos + intervalNanos * worker / settings.concurrency();
+            workers.execute(() -> runWorker(firstSendNanos, intervalNanos, deadlineNanos));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(phase.toSeconds() + 120, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void runWorker(long firstSendNanos, long intervalNanos, long deadlineNanos) {
+        long scheduledNanos = firstSendNanos;
+        while (scheduledNanos < deadlineNanos) {
+            long waitNanos = scheduledNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+            long sentNanos = intervalNanos > 0 ? scheduledNanos : System.nanoTime();
+            send(pickOperation(), sentNanos);
+            scheduledNanos = intervalNanos > 0 ? scheduledNanos + intervalNanos : System.nanoTime();
+        }
+    }
+
+    private Operation pickOperation() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights changed during the run");
+    }
+
+    private void send(Operation operation, long sentNanos) {
+        HttpRequest request = operation.request().get();
+        if (request == null) {
+            return;
+        }
+        int status;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            if (status / 100 == 2) {
+                operation.onSuccess().accept(response);
+            }
+        } catch (IOException e) {
+            status = -1; // Connection-level failure
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recording) {
+            OperationStats operationStats = stats.get(operation.name());
+            long latencyMicros = (System.nanoTime() - sentNanos) / 1_000;
+            operationStats.latencyMicros.recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+            operationStats.statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+            if (status / 100 != 2) {
+                operationStats.errors.increment();
+            }
+        }
+    }
+
+    private Path writeReport(double elapsedSeconds) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", settings.label());
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("settings", Map.of(
+                "concurrency", settings.concurrency(),
+                "ratePerSecond", settings.ratePerSecond(),
+                "warmupSeconds", settings.warmup().toSeconds(),
+                "durationSeconds", settings.duration().toSeconds()));
+
+        Histogram allLatencies = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long allErrors = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("[benchmark] %-32s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            allLatencies.add(operationStats.latencyMicros);
+            allErrors += operationStats.errors.sum();
+            Map<String, Object> endpoint = summarize(operationStats.latencyMicros, operationStats.errors.sum(), elapsedSeconds);
+            Map<String, Long> statusCounts = new LinkedHashMap<>();
+            operationStats.statusCounts.forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+            endpoint.put("statusCounts", statusCounts);
+            // Compressed HdrHistogram, so runs can be merged or re-analyzed later
+            endpoint.put("histogram", encode(operationStats.latencyMicros));
+            endpoints.put(entry.getKey(), endpoint);
+            print(entry.getKey(), operationStats.latencyMicros, operationStats.errors.sum(), elapsedSeconds);
+        }
+        print("total", allLatencies, allErrors, elapsedSeconds);
+        report.put("total", summarize(allLatencies, allErrors, elapsedSeconds));
+        report.put("endpoints", endpoints);
+
+        Files.createDirectories(settings.outputDirectory());
+        String timestamp = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(Instant.now());
+        Path reportFile = settings.outputDirectory().resolve("loadtest-" + settings.label() + "-" + timestamp + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+        System.out.println("[benchmark] Report written to " + reportFile.toAbsolutePath());
+        return reportFile;
+    }
+
+    private static Map<String, Object> summarize(Histogram latencyMicros, long errors, double elapsedSeconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", latencyMicros.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", latencyMicros.getTotalCount() / elapsedSeconds);
+        Map<String, Double> latencyMillis = new LinkedHashMap<>();
+        latencyMillis.put("mean", latencyMicros.getMean() / 1_000d);
+        latencyMillis.put("p50", latencyMicros.getValueAtPercentile(50) / 1_000d);
+        latencyMillis.put("p90", latencyMicros.getValueAtPercentile(90) / 1_000d);
+        latencyMillis.put("p99", latencyMicros.getValueAtPercentile(99) / 1_000d);
+        latencyMillis.put("p999", latencyMicros.getValueAtPercentile(99.9) / 1_000d);
+        latencyMillis.put("max", latencyMicros.getMaxValue() / 1_000d);
+        summary.put("latencyMillis", latencyMillis);
+        return summary;
+    }
+
+    private static void print(String name, Histogram latencyMicros, long errors, double elapsedSeconds) {
+        System.out.printf("[benchmark] %-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", name, latencyMicros.getTotalCount(), errors,
+                latencyMicros.getTotalCount() / elapsedSeconds, latencyMicros.getValueAtPercentile(50) / 1_000d,
+                latencyMicros.getValueAtPercentile(99) / 1_000d, latencyMicros.getValueAtPercentile(99.9) / 1_000d,
+                latencyMicros.getMaxValue() / 1_000d);
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(java.util.Arrays.copyOf(buffer.array(), length));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.tripplanner.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Request handling on Tomcat's platform thread pool; compare with VirtualThreadLoadBenchmarkTest.
+ * Run with: mvn test -Pbenchmark -Dtest='*ThreadLoadBenchmarkTest'
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark request handling on platform threads")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "spring.threads.virtual.enabled=false"})
+public class PlatformThreadLoadBenchmarkTest extends ThreadingLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "platform";
+    }
+}
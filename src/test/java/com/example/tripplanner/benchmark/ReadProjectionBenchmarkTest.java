@@ -0,0 +1,108 @@
+package com.example.tripplanner.benchmark;
+
+import com.example.tripplanner.fixture.TripFixtures;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.factory.DestinationFactory;
+import com.example.tripplanner.model.factory.TripFactory;
+import com.example.tripplanner.repository.DestinationRepository;
+import com.example.tripplanner.repository.FetchProfile;
+import com.example.tripplanner.repository.TripRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the read paths of GET /trips and GET /trips/{id}/destinations: loading managed entities and
+ * copying them through the factories vs. selecting straight into the response DTOs.
+ * Reports time and heap allocated per call on the calling thread.
+ * Run with: mvn test -Pbenchmark -Dtest=ReadProjectionBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ReadProjectionBenchmarkTest {
+
+    private static final int TRIPS = 5_000;
+    private static final int DESTINATIONS_PER_TRIP = 5;
+    private static final int ROUNDS = 20;
+    private static final int DESTINATION_LOOKUPS = 2_000;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TripFactory tripFactory;
+
+    @Autowired
+    private DestinationFactory destinationFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Benchmark reads: entity hydration + factory mapping vs. DTO projection")
+    void benchmarkReadProjections() {
+        List<Long> tripIds = TripFixtures.seed(tripRepository, TRIPS, DESTINATIONS_PER_TRIP).subList(0, DESTINATION_LOOKUPS);
+
+        Supplier<List<TripResponse>> allTripsViaEntities = () -> transactionTemplate.execute(status ->
+                tripRepository.findAll().stream().map(tripFactory::getTripResponse).collect(Collectors.toList()));
+        Supplier<List<TripResponse>> allTripsViaProjection = tripRepository::findAllResponses;
+        Supplier<Integer> destinationsViaEntities = () -> {
+            int count = 0;
+            for (Long tripId : tripIds) {
+                count += destinationRepository.findByTripId(tripId, FetchProfile.DESTINATION_ONLY).stream()
+                        .map(destinationFactory::createDestinationResponse).toList().size();
+            }
+            return count;
+        };
+        Supplier<Integer> destinationsViaProjection = () -> {
+            int count = 0;
+            for (Long tripId : tripIds) {
+                List<DestinationResponse> destinations = destinationRepository.findResponsesByTripId(tripId);
+                count += destinations.size();
+            }
+            return count;
+        };
+
+        // Warm up the JIT, the query plan cache and the connection pool before measuring
+        for (int i = 0; i < 3; i++) {
+            allTripsViaEntities.get();
+            allTripsViaProjection.get();
+            destinationsViaEntities.get();
+            destinationsViaProjection.get();
+        }
+
+        report("GET /trips, entities  ", ROUNDS, allTripsViaEntities);
+        report("GET /trips, projection", ROUNDS, allTripsViaProjection);
+        report("GET /trips/{id}/destinations x" + DESTINATION_LOOKUPS + ", entities  ", 1, destinationsViaEntities);
+        report("GET /trips/{id}/destinations x" + DESTINATION_LOOKUPS + ", projection", 1, destinationsViaProjection);
+
+        assertThat(allTripsViaProjection.get()).isEqualTo(allTripsViaEntities.get());
+        assertThat(destinationsViaProjection.get()).isEqualTo(DESTINATION_LOOKUPS * DESTINATIONS_PER_TRIP);
+    }
+
+    private void report(String label, int rounds, Supplier<?> call) {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long startBytes = threadBean.getCurrentThreadAllocatedBytes();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            call.get();
+        }
+        double millisPerCall = (System.nanoTime() - startNanos) / 1_000_000d / rounds;
+        double mbPerCall = (threadBean.getCurrentThreadAllocatedBytes() - startBytes) / 1_048_576d / rounds;
+        System.out.printf("[benchmark] %s: %8.1f ms/call, %8.1f MB allocated/call%n", label, millisPerCall, mbPerCall);
+    }
+}
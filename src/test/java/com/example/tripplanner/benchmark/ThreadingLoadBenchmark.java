@@ -0,0 +1,91 @@
+package com.example.tripplanner.benchmark;
+
+import com.example.tripplanner.fixture.TripFixtures;
+import com.example.tripplanner.repository.TripRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shared load test for the thread-mode benchmarks: more concurrent clients than Tomcat has platform threads
+ * send filtered GET /trips requests, each of which runs a JDBC query. Reports throughput and latency percentiles.
+ * Subclasses only differ in spring.threads.virtual.enabled.
+ */
+abstract class ThreadingLoadBenchmark {
+
+    private static final int TRIPS = 5_000;
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400); // Default is twice Tomcat's max threads
+    private static final int REQUESTS = 20_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    protected abstract String mode();
+
+    @Test
+    void benchmarkRequestHandling() throws Exception {
+        TripFixtures.seed(tripRepository, TRIPS, 0);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        runLoad(client, REQUESTS / 10); // Warm up the JIT, the connection pools and the query plan cache
+
+        long startNanos = System.nanoTime();
+        long[] latencies = runLoad(client, REQUESTS);
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000d;
+
+        Arrays.sort(latencies);
+        System.out.printf("[benchmark] %s threads, %d clients: %,.0f requests/sec, p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                mode(), CLIENTS, REQUESTS / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / 1_000_000d);
+    }
+
+    private long[] runLoad(HttpClient client, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.execute(() -> {
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                    // A name prefix matching ~10 trips, so every request runs an indexed query and returns a small page
+                    URI uri = URI.create("http://localhost:" + port + "/trips?namePrefix=Trip%20" + ThreadLocalRandom.current().nextInt(10, 500));
+                    long sentNanos = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - sentNanos;
+                }
+            });
+        }
+        clients.shutdown();
+        assertThat(clients.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        assertThat(failures.get()).isZero();
+        return latencies;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        return sortedNanos[(int) Math.ceil(percentile * sortedNanos.length) - 1] / 1_000_000d;
+    }
+}
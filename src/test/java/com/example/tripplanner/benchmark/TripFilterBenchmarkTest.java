@@ -0,0 +1,82 @@
+package com.example.tripplanner.benchmark;
+
+import com.example.tripplanner.model.dto.TripFilter;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.repository.TripRepository;
+import com.example.tripplanner.repository.TripSpecifications;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures GET /trips filters on a large table: loading every trip and filtering in memory (what clients did
+ * before) vs. the pushed-down Specification query, with and without the trips indexes.
+ * Row count defaults to 1M and can be changed with -Dbenchmark.rows.
+ * Run with: mvn test -Pbenchmark -Dtest=TripFilterBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class TripFilterBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Benchmark trip filters: in-memory filtering vs. SQL pushdown, with and without indexes")
+    void benchmarkTripFilters() {
+        // Set-based insert: trips spread over ~10 years, 1-14 days long, 26 name prefixes
+        jdbcTemplate.update("insert into trips (id, name, start_date, end_date, description, version) " +
+                "select x, concat(char(65 + mod(x, 26)), 'Trip ', x), dateadd(day, mod(x * 7, 3650), date '2030-01-01'), " +
+                "dateadd(day, mod(x * 7, 3650) + mod(x, 14), date '2030-01-01'), 'Generated', 0 from system_range(1, ?)", ROWS);
+        jdbcTemplate.execute("analyze");
+
+        TripFilter window = new TripFilter(LocalDate.of(2035, 3, 1), LocalDate.of(2035, 3, 7), TripFilter.DateMatch.OVERLAP, null, null);
+        TripFilter prefix = new TripFilter(null, null, TripFilter.DateMatch.OVERLAP, "QTrip 1234", null);
+
+        Supplier<List<TripResponse>> windowInMemory = () -> tripRepository.findAllResponses().stream()
+                .filter(t -> !t.getStartDate().isAfter(window.getTo()) && !t.getEndDate().isBefore(window.getFrom())).toList();
+        Supplier<List<TripResponse>> windowPushdown = () -> tripRepository.findResponses(TripSpecifications.matching(window));
+        Supplier<List<TripResponse>> prefixPushdown = () -> tripRepository.findResponses(TripSpecifications.matching(prefix));
+
+        int expected = windowInMemory.get().size();
+        assertThat(windowPushdown.get()).hasSize(expected);
+
+        report("date window, load all + filter in memory", 2, windowInMemory);
+        report("date window, SQL pushdown + indexes     ", ROUNDS, windowPushdown);
+        report("name prefix, SQL pushdown + indexes     ", ROUNDS, prefixPushdown);
+
+        jdbcTemplate.execute("drop index idx_trips_start_date_end_date");
+        jdbcTemplate.execute("drop index idx_trips_start_date_id");
+        jdbcTemplate.execute("drop index idx_trips_name");
+        report("date window, SQL pushdown, no indexes   ", 2, windowPushdown);
+        report("name prefix, SQL pushdown, no indexes   ", 2, prefixPushdown);
+
+        System.out.printf("[benchmark] %,d rows, date window matches %,d trips%n", ROWS, expected);
+    }
+
+    private void report(String label, int rounds, Supplier<List<TripResponse>> query) {
+        query.get(); // Warm up
+        long startNanos = System.nanoTime();
+        int size = 0;
+        for (int i = 0; i < rounds; i++) {
+            size = query.get().size();
+        }
+        double millisPerQuery = (System.nanoTime() - startNanos) / 1_000_000d / rounds;
+        System.out.printf("[benchmark] %s: %9.2f ms/query (%,d trips)%n", label, millisPerQuery, size);
+    }
+}
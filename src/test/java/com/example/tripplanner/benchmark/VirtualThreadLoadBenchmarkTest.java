@@ -0,0 +1,25 @@
+package com.example.tripplanner.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Request handling on virtual threads; compare with PlatformThreadLoadBenchmarkTest.
+ * Skipped below Java 21, where spring.threads.virtual.enabled has no effect.
+ * Run with: mvn test -Pbenchmark -Dtest='*ThreadLoadBenchmarkTest'
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark request handling on virtual threads")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "spring.threads.virtual.enabled=true"})
+public class VirtualThreadLoadBenchmarkTest extends ThreadingLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
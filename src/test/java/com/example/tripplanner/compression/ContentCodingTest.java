@@ -0,0 +1,96 @@
+package com.example.tripplanner.compression;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.ZipException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for ContentCoding: Accept-Encoding negotiation, Content-Encoding lookup,
+ * and detection of compressed input by its magic bytes.
+ */
+public class ContentCodingTest {
+
+    private static final String CSV = "name,startDate,endDate,description\r\nSpring Break,2027-03-15,2027-03-20,Relaxing getaway\r\n";
+
+    @Test
+    @DisplayName("Should prefer zstd, then gzip, and honour quality values")
+    void shouldNegotiateByQualityAndServerPreference() {
+        assertThat(ContentCoding.negotiate("gzip, deflate, br, zstd")).contains(ContentCoding.ZSTD);
+        assertThat(ContentCoding.negotiate("gzip, deflate")).contains(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("zstd;q=0.5, gzip;q=0.9")).contains(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("x-gzip")).contains(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("*")).contains(ContentCoding.ZSTD);
+        assertThat(ContentCoding.negotiate("zstd;q=0, *")).contains(ContentCoding.GZIP);
+    }
+
+    @Test
+    @DisplayName("Should send the response unencoded when no supported coding is acceptable")
+    void shouldNotEncodeWithoutAcceptableCoding() {
+        assertThat(ContentCoding.negotiate(null)).isEmpty();
+        assertThat(ContentCoding.negotiate("")).isEmpty();
+        assertThat(ContentCoding.negotiate("identity")).isEmpty();
+        assertThat(ContentCoding.negotiate("br, deflate")).isEmpty();
+        assertThat(ContentCoding.negotiate("gzip;q=0, zstd;q=0")).isEmpty();
+        assertThat(ContentCoding.negotiate("gzip;q=high")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should look up Content-Encoding names case-insensitively")
+    void shouldFindCodingByToken() {
+        assertThat(ContentCoding.fromToken("GZIP")).contains(ContentCoding.GZIP);
+        assertThat(ContentCoding.fromToken(" zstd ")).contains(ContentCoding.ZSTD);
+        assertThat(ContentCoding.fromToken("x-gzip")).contains(ContentCoding.GZIP);
+        assertThat(ContentCoding.fromToken("br")).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    @DisplayName("Should detect and decode gzip and zstd input by its magic bytes")
+    void shouldDecodeDetectedCompression() throws IOException {
+        for (ContentCoding coding : ContentCoding.values()) {
+            byte[] compressed = compress(coding, CSV);
+            assertThat(compressed.length).isLessThan(CSV.length() + 32);
+
+            try (InputStream is = ContentCoding.decodeDetected(new ByteArrayInputStream(compressed))) {
+                assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8)).as(coding.token()).isEqualTo(CSV);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should pass plain and very short input through unchanged")
+    void shouldPassThroughPlainInput() throws IOException {
+        for (String plain : new String[]{CSV, "[]", ""}) {
+            try (InputStream is = ContentCoding.decodeDetected(new ByteArrayInputStream(plain.getBytes(StandardCharsets.UTF_8)))) {
+                assertThat(new String(is.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(plain);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail on input that starts like gzip but is not")
+    void shouldRejectCorruptCompressedInput() {
+        byte[] corrupt = {0x1f, (byte) 0x8b, 0x00, 0x00, 0x00};
+
+        assertThatThrownBy(() -> ContentCoding.decodeDetected(new ByteArrayInputStream(corrupt)).readAllBytes())
+                .isInstanceOf(ZipException.class);
+    }
+
+    private static byte[] compress(ContentCoding coding, String content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream os = coding.encode(compressed)) {
+            os.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+}
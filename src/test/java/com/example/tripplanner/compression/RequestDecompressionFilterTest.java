@@ -0,0 +1,156 @@
+package com.example.tripplanner.compression;
+
+import com.example.tripplanner.controller.advice.GlobalExceptionHandler;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for RequestDecompressionFilter: the decoded size limit and non-blocking reads.
+ * A small echo handler stands in for the controllers, so the limit can be set low.
+ */
+public class RequestDecompressionFilterTest {
+
+    private static final DataSize MAX_DECODED_SIZE = DataSize.ofBytes(1024);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new EchoHandler())
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addFilters(new RequestDecompressionFilter(MAX_DECODED_SIZE))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should pass a compressed body within the limit to the handler decoded")
+    void shouldDecodeBodyWithinLimit() throws Exception {
+        mockMvc.perform(post("/echo")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .header("Content-Encoding", "zstd")
+                        .content(encode(ContentCoding.ZSTD, "a".repeat(1024))))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1024"));
+    }
+
+    @Test
+    @DisplayName("Should return 413 Payload Too Large once the decoded body passes the limit")
+    void shouldRejectBodyDecodingPastLimit() throws Exception {
+        // 1MB of zeros compresses to about a kilobyte
+        byte[] bomb = encode(ContentCoding.GZIP, "0".repeat(1024 * 1024));
+
+        mockMvc.perform(post("/echo")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .header("Content-Encoding", "gzip")
+                        .content(bomb))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    @DisplayName("Should return 413 Payload Too Large when JSON binding wraps the limit failure")
+    void shouldRejectJsonBodyDecodingPastLimit() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            names.add("Trip " + i);
+        }
+        String json = names.stream().map(name -> "\"" + name + "\"").toList().toString();
+
+        mockMvc.perform(post("/echo/json")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Content-Encoding", "gzip")
+                        .content(encode(ContentCoding.GZIP, json)))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    @DisplayName("Should call a ReadListener back at once instead of rejecting it")
+    void shouldCallReadListenerBackAtOnce() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/echo");
+        request.addHeader("Content-Encoding", "gzip");
+        request.setContent(encode(ContentCoding.GZIP, "hello"));
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                ServletInputStream in = ((HttpServletRequest) req).getInputStream();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        byte[] buffer = new byte[2];
+                        int count;
+                        while (in.isReady() && (count = in.read(buffer)) != -1) {
+                            received.write(buffer, 0, count);
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        allDataRead.set(true);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        throw new AssertionError(t);
+                    }
+                });
+            }
+        };
+        new RequestDecompressionFilter(MAX_DECODED_SIZE).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo("hello");
+        assertThat(allDataRead.get()).isTrue();
+    }
+
+    private static byte[] encode(ContentCoding coding, String text) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream out = coding.encode(encoded)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return encoded.toByteArray();
+    }
+
+    @RestController
+    static class EchoHandler {
+
+        @PostMapping("/echo")
+        public String echo(@RequestBody String body) {
+            return String.valueOf(body.length());
+        }
+
+        @PostMapping("/echo/json")
+        public String echoJson(@RequestBody List<String> names) {
+            return String.valueOf(names.size());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.tripplanner.controller;
 
 import com.example.tripplanner.exceptions.ResourceNotFoundException;
+import com.example.tripplanner.model.Trip;
 import com.example.tripplanner.model.dto.DestinationRequest;
 import com.example.tripplanner.model.dto.DestinationResponse;
 import com.example.tripplanner.service.DestinationService;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -23,6 +25,8 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -59,20 +63,21 @@ public class DestinationControllerTest {
         objectMapper.registerModule(new JavaTimeModule()); // Needed for LocalDate serialization
 
         existingTripId = 1L; // A dummy trip ID for testing
+        LocalDate tripStart = LocalDate.now().plusMonths(1); // Relative to today, so requests pass @FutureOrPresent
 
         validDestinationRequest = new DestinationRequest(
                 "Tokyo Tower",
                 "Tokyo, Japan",
-                LocalDate.of(2025, 10, 1),
-                LocalDate.of(2025, 10, 3)
+                tripStart,
+                tripStart.plusDays(2)
         );
 
         createdDestinationResponse = new DestinationResponse(
                 1L, // Simulated generated ID for destination
                 "Tokyo Tower",
                 "Tokyo, Japan",
-                LocalDate.of(2025, 10, 1),
-                LocalDate.of(2025, 10, 3),
+                tripStart,
+                tripStart.plusDays(2),
                 existingTripId
         );
 
@@ -80,16 +85,16 @@ public class DestinationControllerTest {
                 101L,
                 "Mount Fuji",
                 "Japan",
-                LocalDate.of(2025, 10, 5),
-                LocalDate.of(2025, 10, 7),
+                tripStart.plusDays(4),
+                tripStart.plusDays(6),
                 existingTripId
         );
         existingDestinationResponse2 = new DestinationResponse(
                 102L,
                 "Kyoto Temples",
                 "Kyoto, Japan",
-                LocalDate.of(2025, 10, 8),
-                LocalDate.of(2025, 10, 10),
+                tripStart.plusDays(7),
+                tripStart.plusDays(9),
                 existingTripId
         );
     }
@@ -142,6 +147,19 @@ public class DestinationControllerTest {
                 .andExpect(status().isNotFound()); // Expect 404 Not Found
     }
 
+    @Test
+    @DisplayName("Should return 409 Conflict when a concurrent write to the trip committed first")
+    void shouldReturnConflictWhenTripChangedConcurrently() throws Exception {
+        // GIVEN: The trip's version was bumped by another request between read and commit
+        doThrow(new ObjectOptimisticLockingFailureException(Trip.class, existingTripId))
+                .when(destinationService).addDestinationToTrip(eq(existingTripId), any(DestinationRequest.class));
+
+        mockMvc.perform(post("/trips/{tripId}/destinations", existingTripId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validDestinationRequest)))
+                .andExpect(status().isConflict());
+    }
+
     /**
      * Test case for adding a destination with invalid data.
      * Ensures validation works at the controller level.
@@ -221,4 +239,16 @@ public class DestinationControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(0));
     }
+
+    @Test
+    @DisplayName("Should return 304 Not Modified without loading destinations when the ETag matches")
+    void shouldReturnNotModifiedWhenDestinationsETagMatches() throws Exception {
+        when(destinationService.getDestinationsVersion(existingTripId)).thenReturn(4L);
+
+        mockMvc.perform(get("/trips/{tripId}/destinations", existingTripId).header("If-None-Match", "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(content().string(""));
+        verify(destinationService, never()).getDestinationsForTrip(existingTripId);
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.tripplanner.controller;
+
+import com.example.tripplanner.exceptions.ResourceNotFoundException;
+import com.example.tripplanner.model.ImportJobStatus;
+import com.example.tripplanner.model.dto.ImportJobResponse;
+import com.example.tripplanner.service.ImportJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ImportJobController.class)
+public class ImportJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImportJobService importJobService;
+
+    @Test
+    @DisplayName("Should return the progress of a running import job")
+    void shouldReturnImportJobProgress() throws Exception {
+        ImportJobResponse runningJob = new ImportJobResponse("job-1", "csv", ImportJobStatus.RUNNING, 1500, 3, 750,
+                37.5, 3L, List.of(), Instant.now(), Instant.now(), null);
+        when(importJobService.getJob("job-1")).thenReturn(runningJob);
+
+        mockMvc.perform(get("/imports/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.rowsProcessed").value(1500))
+                .andExpect(jsonPath("$.percentComplete").value(37.5))
+                .andExpect(jsonPath("$.etaSeconds").value(3));
+    }
+
+    @Test
+    @DisplayName("Should return 404 Not Found for an unknown import job")
+    void shouldReturnNotFoundForUnknownImportJob() throws Exception {
+        when(importJobService.getJob("missing")).thenThrow(new ResourceNotFoundException("Import job not found with ID: missing"));
+
+        mockMvc.perform(get("/imports/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should accept a cancellation request and return 202 Accepted")
+    void shouldCancelImportJob() throws Exception {
+        ImportJobResponse cancelledJob = new ImportJobResponse("job-1", "csv", ImportJobStatus.CANCELLED, 0, 0, 0,
+                0d, null, List.of(), Instant.now(), null, Instant.now());
+        when(importJobService.cancelJob("job-1")).thenReturn(cancelledJob);
+
+        mockMvc.perform(delete("/imports/job-1"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+}
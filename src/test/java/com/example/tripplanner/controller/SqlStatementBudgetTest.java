@@ -0,0 +1,155 @@
+package com.example.tripplanner.controller;
+
+import com.example.tripplanner.fixture.TripFixtures;
+import com.example.tripplanner.metrics.MaxSqlStatements;
+import com.example.tripplanner.repository.TripRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets for the main endpoints, run against the real repositories.
+ * Each test performs one request and fails if it issues more statements than its @MaxSqlStatements budget,
+ * so an N+1 query pattern (statements growing with the number of trips or destinations) fails the build.
+ * Several trips with several destinations each are seeded, so a per-row query would blow the budget.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+public class SqlStatementBudgetTest {
+
+    private static final int TRIPS = 5;
+    private static final int DESTINATIONS_PER_TRIP = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    private Long tripId;
+
+    @BeforeEach
+    void setUp() {
+        List<Long> tripIds = TripFixtures.seed(tripRepository, TRIPS, DESTINATIONS_PER_TRIP);
+        tripId = tripIds.get(tripIds.size() - 1);
+    }
+
+    @Test
+    @MaxSqlStatements(1) // The read; the ETag comes with the trip
+    @DisplayName("GET /trips/{id} should issue one read")
+    void getTripById() throws Exception {
+        mockMvc.perform(get("/trips/{id}", tripId)).andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxSqlStatements(1) // The first read only: the repeat and the conditional GET are answered from the read cache
+    @DisplayName("GET /trips/{id} should not query again once the trip is cached, not even for its ETag")
+    void getCachedTripById() throws Exception {
+        String etag = mockMvc.perform(get("/trips/{id}", tripId)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/trips/{id}", tripId)).andExpect(status().isOk());
+        mockMvc.perform(get("/trips/{id}", tripId).header("If-None-Match", etag)).andExpect(status().isNotModified());
+        mockMvc.perform(get("/trips/{id}/destinations", tripId).header("If-None-Match", etag)).andExpect(status().isNotModified());
+    }
+
+    @Test
+    @MaxSqlStatements(2) // The trip for its ETag (cached from then on), then the trip with its destinations
+    @DisplayName("GET /trips/{id}?include=destinations should load the trip and its destinations together")
+    void getTripWithDestinations() throws Exception {
+        mockMvc.perform(get("/trips/{id}", tripId).param("include", "destinations")).andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxSqlStatements(2) // The trip for its ETag (cached from then on), then the destinations
+    @DisplayName("GET /trips/{id}/destinations should not load destinations one by one")
+    void getDestinationsForTrip() throws Exception {
+        mockMvc.perform(get("/trips/{id}/destinations", tripId)).andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxSqlStatements(1)
+    @DisplayName("GET /trips?include=destinations should not query destinations per trip")
+    void getAllTripsWithDestinations() throws Exception {
+        mockMvc.perform(get("/trips").param("include", "destinations")).andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxSqlStatements(1) // The filter is the WHERE clause of the fetch-join query
+    @DisplayName("GET /trips?include=destinations with filters should filter in the same single query")
+    void searchTripsWithDestinations() throws Exception {
+        LocalDate from = TripFixtures.START;
+        mockMvc.perform(get("/trips").param("include", "destinations")
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(4 + TripFixtures.TRIP_DAYS).toString())
+                        .param("match", "within")
+                        .param("namePrefix", "Trip 4")
+                        .param("hasDestinations", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Trip 4"))
+                .andExpect(jsonPath("$[0].destinations.length()").value(DESTINATIONS_PER_TRIP));
+    }
+
+    @Test
+    @MaxSqlStatements(2)
+    @DisplayName("GET /trips?limit= should issue the page query and at most a count")
+    void getTripPage() throws Exception {
+        mockMvc.perform(get("/trips").param("limit", "50")).andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxSqlStatements(3)
+    @DisplayName("POST /trips/{id}/destinations should not load the trip's existing destinations")
+    void addDestination() throws Exception {
+        LocalDate arrival = LocalDate.now().plusDays(31);
+        mockMvc.perform(post("/trips/{id}/destinations", tripId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Extra\",\"location\":\"Elsewhere\",\"arrivalDate\":\"" + arrival
+                                + "\",\"departureDate\":\"" + arrival.plusDays(1) + "\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @MaxSqlStatements(2)
+    @DisplayName("PUT /trips/{id} should select and update the trip only")
+    void updateTrip() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(40);
+        mockMvc.perform(put("/trips/{id}", tripId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"startDate\":\"" + start + "\",\"endDate\":\"" + start.plusDays(3) + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @MaxSqlStatements(4) // Two batched inserts, plus a sequence call each when the pooled ids run out
+    @DisplayName("POST /trips/batch should insert trips and destinations in JDBC batches")
+    void importBatch() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(50);
+        StringBuilder body = new StringBuilder("[");
+        for (int n = 0; n < TRIPS; n++) {
+            body.append(n == 0 ? "" : ",").append("{\"name\":\"Batch ").append(n).append("\",\"startDate\":\"").append(start)
+                    .append("\",\"endDate\":\"").append(start.plusDays(5)).append("\",\"destinations\":[");
+            for (int d = 0; d < DESTINATIONS_PER_TRIP; d++) {
+                body.append(d == 0 ? "" : ",").append("{\"name\":\"Stop ").append(d).append("\",\"location\":\"Somewhere\",\"arrivalDate\":\"")
+                        .append(start.plusDays(d)).append("\",\"departureDate\":\"").append(start.plusDays(d + 1)).append("\"}");
+            }
+            body.append("]}");
+        }
+        body.append("]");
+        mockMvc.perform(post("/trips/batch").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isOk());
+    }
+}
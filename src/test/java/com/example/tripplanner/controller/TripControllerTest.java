@@ -1,42 +1,91 @@
 package com.example.tripplanner.controller;
 
 
+import com.example.tripplanner.compression.ContentCoding;
 import com.example.tripplanner.exceptions.FileProcessingException;
+import com.example.tripplanner.metrics.ImportMetrics;
 import com.example.tripplanner.exceptions.ResourceNotFoundException;
+import com.example.tripplanner.exceptions.TooManySubscribersException;
+import com.example.tripplanner.model.ImportJobStatus;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.TripSort;
+import com.example.tripplanner.model.dto.BulkDeleteRequest;
+import com.example.tripplanner.model.dto.BulkOperationResponse;
+import com.example.tripplanner.model.dto.BulkUpdateRequest;
+import com.example.tripplanner.model.dto.DestinationRequest;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.ImportJobResponse;
+import com.example.tripplanner.model.dto.TripChange;
+import com.example.tripplanner.model.dto.TripFilter;
+import com.example.tripplanner.model.dto.TripOverlapResponse;
+import com.example.tripplanner.model.dto.TripPage;
 import com.example.tripplanner.model.dto.TripRequest;
 import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripSearchHit;
+import com.example.tripplanner.model.dto.TripSearchResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.service.ChangeFeedService;
 import com.example.tripplanner.service.CsvService;
+import com.example.tripplanner.service.ImportJob;
+import com.example.tripplanner.service.ImportJobService;
+import com.example.tripplanner.service.JsonService;
 import com.example.tripplanner.service.TripService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -45,6 +94,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TripController.class)
@@ -59,6 +109,23 @@ public class TripControllerTest {
     @MockitoBean // Mock the CsvService for file I/O tests
     private CsvService csvService;
 
+    @MockitoBean
+    private JsonService jsonService;
+
+    @MockitoBean
+    private ImportJobService importJobService;
+
+    @MockitoBean
+    private ChangeFeedService changeFeedService;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        ImportMetrics importMetrics() {
+            return new ImportMetrics(new SimpleMeterRegistry());
+        }
+    }
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -75,11 +142,15 @@ public class TripControllerTest {
     void setUp() {
         objectMapper.registerModule(new JavaTimeModule());
 
+        // Request dates are relative to today, so the requests stay valid under @FutureOrPresent
+        LocalDate getawayStart = LocalDate.now().plusMonths(2);
+        LocalDate updatedStart = LocalDate.now().plusMonths(1);
+
         // Prepare a valid TripRequest DTO for sending in the request body
         validTripRequest = new TripRequest(
                 "Winter Getaway",
-                LocalDate.of(2025, 12, 1),
-                LocalDate.of(2025, 12, 10),
+                getawayStart,
+                getawayStart.plusDays(9),
                 "Skiing trip to the mountains"
         );
 
@@ -87,8 +158,8 @@ public class TripControllerTest {
         createdTripResponse = new TripResponse(
                 2L, // Simulate a generated ID for the new trip
                 "Winter Getaway",
-                LocalDate.of(2025, 12, 1),
-                LocalDate.of(2025, 12, 10),
+                getawayStart,
+                getawayStart.plusDays(9),
                 "Skiing trip to the mountains"
         );
 
@@ -102,15 +173,15 @@ public class TripControllerTest {
 
         updatedTripRequest = new TripRequest(
                 "Updated Trip Name",
-                LocalDate.of(2025, 10, 1),
-                LocalDate.of(2025, 10, 5),
+                updatedStart,
+                updatedStart.plusDays(4),
                 "Updated description"
         );
         updatedTripResponse = new TripResponse(
                 100L,
                 "Updated Trip Name",
-                LocalDate.of(2025, 10, 1),
-                LocalDate.of(2025, 10, 5),
+                updatedStart,
+                updatedStart.plusDays(4),
                 "Updated description"
         );
 
@@ -245,6 +316,18 @@ public class TripControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Should return 409 Conflict when a concurrent update to the trip committed first")
+    void shouldReturnConflictWhenTripUpdatedConcurrently() throws Exception {
+        doThrow(new ObjectOptimisticLockingFailureException(Trip.class, existingTripResponse.getId()))
+                .when(tripService).updateTrip(eq(existingTripResponse.getId()), any(TripRequest.class));
+
+        mockMvc.perform(put("/trips/{id}", existingTripResponse.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedTripRequest)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @DisplayName("Should return 400 Bad Request for invalid trip update")
     void shouldReturnBadRequestForInvalidTripUpdate() throws Exception {
@@ -302,20 +385,232 @@ public class TripControllerTest {
 
 
     @Test
-    @DisplayName("Should export all trips to CSV and return 200 OK")
+    @DisplayName("Should export all trips to CSV through the cursor and return 200 OK")
     void shouldExportAllTripsToCsv() throws Exception {
-        // GIVEN: The trip service returns a list of trips, and CsvService converts them to bytes
-        List<TripResponse> tripsToExport = Arrays.asList(existingTripResponse1, existingTripResponse2);
-        when(tripService.getAllTrips()).thenReturn(tripsToExport);
-        when(csvService.exportTripsToCsv(anyList())).thenReturn(sampleCsvBytesForExport);
+        // GIVEN: The service hands a stream of trips to the callback, and CsvService writes them out
+        doAnswer(invocation -> {
+            Consumer<Stream<TripResponse>> consumer = invocation.getArgument(0);
+            consumer.accept(Stream.of(existingTripResponse1, existingTripResponse2));
+            return null;
+        }).when(tripService).streamAllTrips(any());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write(sampleCsvBytesForExport);
+            return null;
+        }).when(csvService).exportTripsToCsv(ArgumentMatchers.<Stream<TripResponse>>any(), any(OutputStream.class));
 
         // WHEN: Perform a GET request to "/trips/export"
-        mockMvc.perform(MockMvcRequestBuilders.get("/trips/export"))
-                // THEN: Assert the response headers and content
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/trips/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // THEN: Assert the response headers and content
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Length")) // Streamed, not buffered
                 .andExpect(content().contentType("text/csv")) // Expect CSV content type
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"trips.csv\"")) // Expect download header
                 .andExpect(content().bytes(sampleCsvBytesForExport)); // Expect the correct CSV bytes
+        verify(tripService, never()).getAllTrips();
+        verify(csvService, never()).exportTripsToCsv(anyList());
+    }
+
+    @Test
+    @DisplayName("Should gzip the CSV export as it is streamed when the client accepts gzip")
+    void shouldCompressCsvExportForAcceptEncoding() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Stream<TripResponse>> consumer = invocation.getArgument(0);
+            consumer.accept(Stream.of(existingTripResponse1, existingTripResponse2));
+            return null;
+        }).when(tripService).streamAllTrips(any());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write(sampleCsvBytesForExport);
+            return null;
+        }).when(csvService).exportTripsToCsv(ArgumentMatchers.<Stream<TripResponse>>any(), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/trips/export").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn();
+        assertThat(decode(ContentCoding.GZIP, result.getResponse().getContentAsByteArray())).isEqualTo(sampleCsvBytesForExport);
+        verify(tripService, never()).getAllTrips();
+    }
+
+    @Test
+    @DisplayName("Should leave the compressed export unterminated when writing it fails midway")
+    void shouldNotTerminateCompressedExportOnFailure() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Stream<TripResponse>> consumer = invocation.getArgument(0);
+            consumer.accept(Stream.of(existingTripResponse1, existingTripResponse2));
+            return null;
+        }).when(tripService).streamAllTrips(any());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write(sampleCsvBytesForExport);
+            outputStream.flush();
+            throw new UncheckedIOException(new IOException("Cursor closed"));
+        }).when(csvService).exportTripsToCsv(ArgumentMatchers.<Stream<TripResponse>>any(), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/trips/export").param("stream", "true")
+                        .header("Accept-Encoding", "zstd"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(mvcResult.getAsyncResult()).isInstanceOf(UncheckedIOException.class);
+        // Without the zstd frame epilogue the client cannot mistake the partial body for the whole export
+        byte[] truncated = mvcResult.getResponse().getContentAsByteArray();
+        assertThatThrownBy(() -> decode(ContentCoding.ZSTD, truncated)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("Should stream all trips as CSV when stream mode is requested")
+    void shouldStreamAllTripsToCsv() throws Exception {
+        // GIVEN: The service hands a stream of trips to the callback, and CsvService writes them out
+        doAnswer(invocation -> {
+            Consumer<Stream<TripResponse>> consumer = invocation.getArgument(0);
+            consumer.accept(Stream.of(existingTripResponse1, existingTripResponse2));
+            return null;
+        }).when(tripService).streamAllTrips(any());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write(sampleCsvBytesForExport);
+            return null;
+        }).when(csvService).exportTripsToCsv(ArgumentMatchers.<Stream<TripResponse>>any(), any(OutputStream.class));
+
+        // WHEN: Perform a GET request to "/trips/export?stream=true"
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/trips/export").param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // THEN: The streamed body carries the CSV bytes and download headers
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"trips.csv\""))
+                .andExpect(content().bytes(sampleCsvBytesForExport));
+    }
+
+    @Test
+    @DisplayName("Should zstd compress the streamed CSV export when the client prefers zstd")
+    void shouldCompressStreamedCsvExportForAcceptEncoding() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Stream<TripResponse>> consumer = invocation.getArgument(0);
+            consumer.accept(Stream.of(existingTripResponse1, existingTripResponse2));
+            return null;
+        }).when(tripService).streamAllTrips(any());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write(sampleCsvBytesForExport);
+            return null;
+        }).when(csvService).exportTripsToCsv(ArgumentMatchers.<Stream<TripResponse>>any(), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/trips/export").param("stream", "true")
+                        .header("Accept-Encoding", "gzip;q=0.9, zstd"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "zstd"))
+                .andReturn();
+        assertThat(decode(ContentCoding.ZSTD, result.getResponse().getContentAsByteArray())).isEqualTo(sampleCsvBytesForExport);
+    }
+
+    @Test
+    @DisplayName("Should stream all trips with destinations as NDJSON when format=ndjson is requested")
+    void shouldStreamAllTripsWithDestinationsToNdjson() throws Exception {
+        byte[] ndjson = "{\"name\":\"Paris\",\"destinations\":[]}\n".getBytes();
+        doAnswer(invocation -> {
+            Consumer<Stream<TripWithDestinationsResponse>> consumer = invocation.getArgument(0);
+            consumer.accept(Stream.empty());
+            return null;
+        }).when(tripService).streamAllTripsWithDestinations(any());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write(ndjson);
+            return null;
+        }).when(jsonService).exportTripsWithDestinationsToNdjson(ArgumentMatchers.<Stream<TripWithDestinationsResponse>>any(), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/trips/export").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"trips.ndjson\""))
+                .andExpect(content().bytes(ndjson));
+    }
+
+    @Test
+    @DisplayName("Should stream the changes since the watermark and return the next watermark")
+    void shouldStreamTripChangesSinceWatermark() throws Exception {
+        Instant since = Instant.parse("2027-06-01T10:00:00Z");
+        Instant next = Instant.parse("2027-06-01T10:05:00.123456Z");
+        byte[] ndjson = "{\"type\":\"DELETE\",\"id\":5,\"deletedAt\":\"2027-06-01T10:01:00Z\"}\n".getBytes();
+        when(tripService.currentChangeWatermark()).thenReturn(next);
+        doAnswer(invocation -> {
+            Consumer<Stream<TripChange>> consumer = invocation.getArgument(2);
+            consumer.accept(Stream.empty());
+            return null;
+        }).when(tripService).streamTripChanges(eq(since), eq(next), any());
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write(ndjson);
+            return null;
+        }).when(jsonService).exportTripChangesToNdjson(ArgumentMatchers.<Stream<TripChange>>any(), any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get("/trips/export/changes").param("since", since.toString()))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Next-Watermark", next.toString()))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"trip-changes.ndjson\""))
+                .andExpect(content().bytes(ndjson));
+        verify(tripService).streamTripChanges(eq(since), eq(next), any());
+    }
+
+    @Test
+    @DisplayName("Should never move the watermark backwards, and reject a watermark that is not an instant")
+    void shouldKeepWatermarkMonotonic() throws Exception {
+        Instant since = Instant.parse("2027-06-01T10:00:00Z");
+        when(tripService.currentChangeWatermark()).thenReturn(since.minusSeconds(60)); // e.g. the clock was set back
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/export/changes").param("since", since.toString()))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Next-Watermark", since.toString()));
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/export/changes").param("since", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should subscribe to the change feed for the requested trips, resuming after Last-Event-ID")
+    void shouldSubscribeToChangeFeed() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(changeFeedService.subscribe(Set.of(1L, 2L), "42")).thenReturn(emitter);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/changes").param("tripId", "1", "2").header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted());
+        verify(changeFeedService).subscribe(Set.of(1L, 2L), "42");
+    }
+
+    @Test
+    @DisplayName("Should return 503 when the change feed has no room for another subscriber")
+    void shouldRejectChangeFeedSubscriberWhenFull() throws Exception {
+        when(changeFeedService.subscribe(Set.of(), null)).thenThrow(new TooManySubscribersException("Too many change feed subscribers"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/changes"))
+                .andExpect(status().isServiceUnavailable());
     }
 
     /**
@@ -335,22 +630,42 @@ public class TripControllerTest {
                 sampleCsvContentForImport.getBytes() // file content
         );
 
-        // GIVEN: CsvService returns parsed TripRequests, and TripService saves them
+        // GIVEN: CsvService hands the parsed TripRequests over as one chunk, and TripService saves them
         List<TripRequest> importedTripRequests = Arrays.asList(
                 new TripRequest("Imported Trip 1", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), "First imported trip"),
                 new TripRequest("Imported Trip 2", LocalDate.of(2026, 2, 10), LocalDate.of(2026, 2, 15), "Second imported trip")
         );
-        when(csvService.importTripsFromCsv(any(InputStream.class))).thenReturn(importedTripRequests);
-        // Simulate saving each imported trip (return a dummy response)
-        when(tripService.createTrip(any(TripRequest.class)))
-                .thenReturn(new TripResponse(99L, "Dummy", null, null, null)); // Dummy response for saving
+        doAnswer(invocation -> {
+            Consumer<List<TripRequest>> chunkConsumer = invocation.getArgument(2);
+            chunkConsumer.accept(importedTripRequests);
+            return (long) importedTripRequests.size();
+        }).when(csvService).importTripsFromCsv(any(InputStream.class), eq(500), any());
+        when(tripService.createTrips(anyList())).thenReturn(importedTripRequests.size());
 
         // WHEN: Perform a multipart POST request to "/trips/import"
         mockMvc.perform(multipart("/trips/import")
                         .file(csvFile))
                 // THEN: Assert the response
                 .andExpect(status().isOk())
-                .andExpect(content().string("Successfully imported 2 trips.")); // Expect success message with count
+                .andExpect(jsonPath("$.message").value("Successfully imported 2 trips.")) // Expect success message with count
+                .andExpect(jsonPath("$.rowsImported").value(2))
+                .andExpect(jsonPath("$.chunks").value(1))
+                .andExpect(jsonPath("$.rowsPerSecond").isNumber());
+        verify(tripService, times(1)).createTrips(importedTripRequests);
+    }
+
+    @Test
+    @DisplayName("Should use the chunk size requested by the client for CSV import")
+    void shouldImportTripsFromCsvWithRequestedChunkSize() throws Exception {
+        MockMultipartFile csvFile = new MockMultipartFile("file", "trips_import.csv", "text/csv", sampleCsvContentForImport.getBytes());
+        when(csvService.importTripsFromCsv(any(InputStream.class), eq(1), any())).thenReturn(0L);
+
+        mockMvc.perform(multipart("/trips/import")
+                        .file(csvFile)
+                        .param("chunkSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(0))
+                .andExpect(jsonPath("$.chunks").value(0));
     }
 
     /**
@@ -369,7 +684,7 @@ public class TripControllerTest {
 
         // GIVEN: CsvService throws FileProcessingException for malformed input
         doThrow(new FileProcessingException("Failed to parse CSV file: Missing required CSV header: endDate"))
-                .when(csvService).importTripsFromCsv(any(InputStream.class));
+                .when(csvService).importTripsFromCsv(any(InputStream.class), eq(500), any());
 
         // WHEN: Perform a multipart POST request
         mockMvc.perform(multipart("/trips/import")
@@ -397,4 +712,413 @@ public class TripControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("Please upload a CSV file!"));
     }
+
+    @Test
+    @DisplayName("Should stream trips with destinations from JSON and persist them per batch")
+    void shouldImportTripsWithDestinationsFromJson() throws Exception {
+        MockMultipartFile jsonFile = new MockMultipartFile("file", "trips.json", "application/json", "[]".getBytes());
+        DestinationRequest destinationRequest = new DestinationRequest("Eiffel Tower", "Paris, France",
+                LocalDate.of(2027, 7, 3), LocalDate.of(2027, 7, 7));
+        TripWithDestinationsRequest tripWithDestinations = new TripWithDestinationsRequest("European Grand Tour",
+                LocalDate.of(2027, 7, 1), LocalDate.of(2027, 7, 30), "Iconic cities", List.of(destinationRequest));
+
+        // GIVEN: JsonService hands one batch with one trip to the sink
+        doAnswer(invocation -> {
+            Consumer<List<TripWithDestinationsRequest>> batchConsumer = invocation.getArgument(2);
+            batchConsumer.accept(List.of(tripWithDestinations));
+            return 1L;
+        }).when(jsonService).importTripsWithDestinationsFromJson(any(InputStream.class), eq(500), any());
+        when(tripService.importTripsWithDestinations(anyList())).thenReturn(1);
+
+        mockMvc.perform(multipart("/trips/import-json").file(jsonFile))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Successfully imported 1 trips with their destinations."))
+                .andExpect(jsonPath("$.rowsImported").value(1))
+                .andExpect(jsonPath("$.chunks").value(1));
+        verify(tripService, times(1)).importTripsWithDestinations(List.of(tripWithDestinations));
+    }
+
+    @Test
+    @DisplayName("Should import an NDJSON upload through the newline-delimited reader")
+    void shouldImportTripsWithDestinationsFromNdjson() throws Exception {
+        MockMultipartFile ndjsonFile = new MockMultipartFile("file", "trips.ndjson", "application/x-ndjson",
+                "{\"name\":\"Paris\"}\n".getBytes());
+        TripWithDestinationsRequest trip = new TripWithDestinationsRequest("Paris", LocalDate.of(2027, 7, 1),
+                LocalDate.of(2027, 7, 5), null, List.of());
+        doAnswer(invocation -> {
+            Consumer<List<TripWithDestinationsRequest>> batchConsumer = invocation.getArgument(2);
+            batchConsumer.accept(List.of(trip));
+            return 1L;
+        }).when(jsonService).importTripsWithDestinationsFromNdjson(any(InputStream.class), eq(500), any());
+        when(tripService.importTripsWithDestinations(anyList())).thenReturn(1);
+
+        mockMvc.perform(multipart("/trips/import-json").file(ndjsonFile))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(1));
+        verify(jsonService, never()).importTripsWithDestinationsFromJson(any(InputStream.class), anyInt(), any());
+        verify(tripService, times(1)).importTripsWithDestinations(List.of(trip));
+    }
+
+    @Test
+    @DisplayName("Should import a .ndjson upload sent as application/octet-stream through the newline-delimited reader")
+    void shouldImportNdjsonFileByName() throws Exception {
+        MockMultipartFile ndjsonFile = new MockMultipartFile("file", "trips.ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                "{\"name\":\"Paris\"}\n".getBytes());
+        when(jsonService.importTripsWithDestinationsFromNdjson(any(InputStream.class), eq(500), any())).thenReturn(1L);
+
+        mockMvc.perform(multipart("/trips/import-json").file(ndjsonFile))
+                .andExpect(status().isOk());
+        verify(jsonService, never()).importTripsWithDestinationsFromJson(any(InputStream.class), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should import a direct JSON batch in chunks through the bulk service method")
+    void shouldImportBatchTripsInChunks() throws Exception {
+        List<TripWithDestinationsRequest> batchTrips = List.of(
+                new TripWithDestinationsRequest("Batch Trip London", LocalDate.of(2027, 11, 1), LocalDate.of(2027, 11, 5),
+                        "A quick visit to London.", List.of(new DestinationRequest("Big Ben", "London, UK",
+                        LocalDate.of(2027, 11, 2), LocalDate.of(2027, 11, 2)))),
+                new TripWithDestinationsRequest("Batch Trip Berlin", LocalDate.of(2027, 12, 1), LocalDate.of(2027, 12, 3),
+                        "Historical sites.", Collections.emptyList()),
+                new TripWithDestinationsRequest("Batch Trip Rome", LocalDate.of(2028, 1, 1), LocalDate.of(2028, 1, 3),
+                        null, null));
+        when(tripService.importTripsWithDestinations(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        mockMvc.perform(post("/trips/batch")
+                        .param("chunkSize", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchTrips)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Successfully imported 3 trips with their destinations."));
+        verify(tripService, times(1)).importTripsWithDestinations(batchTrips.subList(0, 2));
+        verify(tripService, times(1)).importTripsWithDestinations(batchTrips.subList(2, 3));
+    }
+
+    @Test
+    @DisplayName("Should decode a gzip request body sent with Content-Encoding")
+    void shouldImportGzipEncodedBatch() throws Exception {
+        List<TripWithDestinationsRequest> batchTrips = List.of(new TripWithDestinationsRequest("Batch Trip Rome",
+                LocalDate.of(2028, 1, 1), LocalDate.of(2028, 1, 3), null, List.of()));
+        when(tripService.importTripsWithDestinations(anyList())).thenReturn(1);
+
+        mockMvc.perform(post("/trips/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Content-Encoding", "gzip")
+                        .content(encode(ContentCoding.GZIP, objectMapper.writeValueAsBytes(batchTrips))))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Successfully imported 1 trips with their destinations."));
+        verify(tripService, times(1)).importTripsWithDestinations(batchTrips);
+    }
+
+    @Test
+    @DisplayName("Should return 415 Unsupported Media Type for an unsupported Content-Encoding")
+    void shouldRejectUnsupportedContentEncoding() throws Exception {
+        mockMvc.perform(post("/trips/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Content-Encoding", "br")
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(header().string("Accept-Encoding", "zstd, gzip"));
+        verify(tripService, never()).importTripsWithDestinations(anyList());
+    }
+
+    @Test
+    @DisplayName("Should accept a compressed CSV upload by its file name and hand it to the CSV import")
+    void shouldAcceptCompressedCsvUpload() throws Exception {
+        MockMultipartFile gzipFile = new MockMultipartFile("file", "trips.csv.gz", "application/gzip",
+                encode(ContentCoding.GZIP, sampleCsvContentForImport.getBytes()));
+        when(csvService.importTripsFromCsv(any(InputStream.class), eq(500), any())).thenReturn(2L);
+
+        mockMvc.perform(multipart("/trips/import").file(gzipFile))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsImported").value(2));
+
+        MockMultipartFile notCsv = new MockMultipartFile("file", "trips.json.gz", "application/gzip", new byte[]{0x1f, (byte) 0x8b});
+        mockMvc.perform(multipart("/trips/import").file(notCsv))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Please upload a CSV file!"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for non-JSON file type import")
+    void shouldReturnBadRequestForNonJsonFileImport() throws Exception {
+        MockMultipartFile textFile = new MockMultipartFile("file", "document.txt", "text/plain", "Not JSON.".getBytes());
+
+        mockMvc.perform(multipart("/trips/import-json").file(textFile))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Please upload a JSON file!"));
+    }
+
+    @Test
+    @DisplayName("Should accept an async CSV import and point to the job resource")
+    void shouldSubmitAsyncCsvImport() throws Exception {
+        MockMultipartFile csvFile = new MockMultipartFile("file", "trips.csv", "text/csv", sampleCsvContentForImport.getBytes());
+        ImportJobResponse queuedJob = new ImportJobResponse("job-1", "csv", ImportJobStatus.QUEUED, 0, 0, 0,
+                0d, null, List.of(), Instant.now(), null, null);
+        when(importJobService.submitFileImport(eq("csv"), any(), any())).thenReturn(queuedJob);
+
+        mockMvc.perform(multipart("/trips/import").file(csvFile).param("async", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/imports/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+        verify(csvService, times(0)).importTripsFromCsv(any(InputStream.class), eq(500), any());
+    }
+
+    @Test
+    @DisplayName("Should run an async batch import in chunks and record progress on the job")
+    void shouldRunAsyncBatchImportInChunks() throws Exception {
+        List<TripWithDestinationsRequest> batchTrips = List.of(
+                new TripWithDestinationsRequest("Batch Trip London", LocalDate.of(2027, 11, 1), LocalDate.of(2027, 11, 5),
+                        null, Collections.emptyList()),
+                new TripWithDestinationsRequest("Batch Trip Berlin", LocalDate.of(2027, 12, 1), LocalDate.of(2027, 12, 3),
+                        null, Collections.emptyList()),
+                new TripWithDestinationsRequest("Batch Trip Rome", LocalDate.of(2028, 1, 1), LocalDate.of(2028, 1, 3),
+                        null, Collections.emptyList()));
+        ImportJob job = new ImportJob("job-2", "batch", 0, 3);
+
+        // GIVEN: the job service runs the task inline instead of on the executor
+        when(importJobService.submitImport(eq("batch"), anyLong(), any())).thenAnswer(invocation -> {
+            ImportJobService.ImportTask task = invocation.getArgument(2);
+            task.run(job);
+            return new ImportJobResponse("job-2", "batch", ImportJobStatus.COMPLETED, job.getRowsProcessed().get(),
+                    job.getChunks().get(), 0, 100d, null, List.of(), Instant.now(), null, null);
+        });
+        when(tripService.importTripsWithDestinations(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        mockMvc.perform(post("/trips/batch")
+                        .param("async", "true")
+                        .param("chunkSize", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchTrips)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.rowsProcessed").value(3))
+                .andExpect(jsonPath("$.chunks").value(2));
+        verify(tripService, times(1)).importTripsWithDestinations(batchTrips.subList(0, 2));
+        verify(tripService, times(1)).importTripsWithDestinations(batchTrips.subList(2, 3));
+    }
+
+    @Test
+    @DisplayName("Should return a keyset page of trips when a limit is given")
+    void shouldReturnTripsPage() throws Exception {
+        TripPage page = new TripPage(List.of(existingTripResponse1), "Y3Vyc29y", 2L);
+        when(tripService.getTripsPage(1, null, TripSort.START_DATE)).thenReturn(page);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips").param("limit", "1").param("sort", "startDate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("Y3Vyc29y"))
+                .andExpect(jsonPath("$.totalCount").value(2));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for an unsupported sort or an out-of-range limit")
+    void shouldReturnBadRequestForInvalidPageRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips").param("limit", "10").param("sort", "name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unsupported sort 'name', expected 'id' or 'startDate'"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return the trip with its version as ETag, and 304 Not Modified once the client has it")
+    void shouldSupportConditionalGetForTrip() throws Exception {
+        existingTripResponse.setVersion(2L); // From the read cache in the real service
+        when(tripService.getTripById(100L)).thenReturn(existingTripResponse);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/100"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
+                .andExpect(jsonPath("$.name").value("Existing Trip"))
+                .andExpect(jsonPath("$.version").doesNotExist()); // Only in the ETag
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/100").header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("Should return a trip with its destinations nested when include=destinations is given")
+    void shouldReturnTripWithDestinations() throws Exception {
+        TripWithDestinationsResponse tripWithDestinations = new TripWithDestinationsResponse(100L, "Existing Trip",
+                LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 10), null,
+                List.of(new DestinationResponse(7L, "Louvre", "Paris, France", null, null, 100L)));
+        existingTripResponse.setVersion(1L);
+        when(tripService.getTripById(100L)).thenReturn(existingTripResponse);
+        when(tripService.getTripWithDestinations(100L)).thenReturn(tripWithDestinations);
+        when(tripService.getAllTripsWithDestinations()).thenReturn(List.of(tripWithDestinations));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/100").param("include", "destinations"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.name").value("Existing Trip"))
+                .andExpect(jsonPath("$.destinations[0].location").value("Paris, France"));
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips").param("include", "destinations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].destinations.length()").value(1));
+        verify(tripService, times(1)).getTripWithDestinations(100L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/100").param("include", "destinations").header("If-None-Match", "\"1\""))
+                .andExpect(status().isNotModified());
+        verify(tripService, times(1)).getTripWithDestinations(100L); // The 304 did not load the destinations
+    }
+
+    @Test
+    @DisplayName("Should bind trip filters from query parameters and search in the service")
+    void shouldSearchTripsWithFilters() throws Exception {
+        TripFilter expectedFilter = new TripFilter(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 30),
+                TripFilter.DateMatch.WITHIN, "Exist", true);
+        when(tripService.searchTrips(expectedFilter)).thenReturn(List.of(existingTripResponse));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips")
+                        .param("from", "2025-09-01")
+                        .param("to", "2025-09-30")
+                        .param("match", "within") // Lower case, as documented
+                        .param("namePrefix", "Exist")
+                        .param("hasDestinations", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Existing Trip"));
+        verify(tripService, times(0)).getAllTrips();
+    }
+
+    @Test
+    @DisplayName("Should apply trip filters to GET /trips?include=destinations")
+    void shouldSearchTripsWithDestinationsWithFilters() throws Exception {
+        TripFilter expectedFilter = new TripFilter(null, null, TripFilter.DateMatch.OVERLAP, "Exist", null);
+        when(tripService.searchTripsWithDestinations(expectedFilter)).thenReturn(List.of(new TripWithDestinationsResponse(
+                100L, "Existing Trip", null, null, null, List.of())));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips").param("include", "destinations").param("namePrefix", "Exist"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Existing Trip"));
+        verify(tripService, times(0)).getAllTripsWithDestinations();
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for an unknown date match")
+    void shouldReturnBadRequestForUnknownDateMatch() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips").param("from", "2025-09-01").param("match", "inside"))
+                .andExpect(status().isBadRequest());
+        verify(tripService, times(0)).searchTrips(any());
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when the filter window ends before it starts")
+    void shouldReturnBadRequestForInvertedDateWindow() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips").param("from", "2025-10-01").param("to", "2025-09-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.dateRangeValid").value("from must not be after to"));
+    }
+
+    @Test
+    @DisplayName("Should return the trips and destinations overlapping a date window")
+    void shouldReturnOverlappingTripsAndDestinations() throws Exception {
+        DestinationResponse destination = new DestinationResponse(7L, "Lisbon", "Portugal",
+                LocalDate.of(2025, 9, 3), LocalDate.of(2025, 9, 5), existingTripResponse.getId());
+        when(tripService.findOverlapping(LocalDate.of(2025, 9, 1), LocalDate.of(2025, 9, 4)))
+                .thenReturn(new TripOverlapResponse(List.of(existingTripResponse), List.of(destination)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/overlapping").param("from", "2025-09-01").param("to", "2025-09-04"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trips[0].name").value("Existing Trip"))
+                .andExpect(jsonPath("$.destinations[0].name").value("Lisbon"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when the overlap window is missing a date")
+    void shouldReturnBadRequestForIncompleteOverlapWindow() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/overlapping").param("from", "2025-09-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.to").value("to is mandatory"));
+    }
+
+    @Test
+    @DisplayName("Should search trips by keywords with the given limit")
+    void shouldSearchTripsByKeywords() throws Exception {
+        when(tripService.searchTripsByText("paris honeymoon", 5)).thenReturn(new TripSearchResponse(List.of(
+                new TripSearchHit(100L, "Paris Honeymoon", null, null, null, 4.2)), 1));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/search").param("q", "paris honeymoon").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHits").value(1))
+                .andExpect(jsonPath("$.hits[0].name").value("Paris Honeymoon"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for a blank search query")
+    void shouldReturnBadRequestForBlankSearchQuery() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/trips/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        verify(tripService, times(0)).searchTripsByText(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should bulk delete the trips matching a filter and report the rows deleted")
+    void shouldBulkDeleteTripsByFilter() throws Exception {
+        BulkDeleteRequest request = new BulkDeleteRequest(null, new TripFilter(null, LocalDate.of(2020, 1, 1),
+                TripFilter.DateMatch.WITHIN, null, null));
+        when(tripService.deleteTrips(request)).thenReturn(new BulkOperationResponse(42, 97));
+
+        mockMvc.perform(post("/trips/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"to\":\"2020-01-01\",\"match\":\"within\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tripsAffected").value(42))
+                .andExpect(jsonPath("$.destinationsAffected").value(97));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for a bulk delete with both IDs and a filter, or neither")
+    void shouldRejectAmbiguousBulkDelete() throws Exception {
+        mockMvc.perform(post("/trips/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2],\"filter\":{\"namePrefix\":\"Old\"}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.selectionValid").exists());
+        // An empty filter would select every trip
+        mockMvc.perform(post("/trips/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{}}"))
+                .andExpect(status().isBadRequest());
+        verify(tripService, times(0)).deleteTrips(any());
+    }
+
+    @Test
+    @DisplayName("Should bulk update trips by ID and report the rows updated")
+    void shouldBulkUpdateTripsByIds() throws Exception {
+        BulkUpdateRequest request = new BulkUpdateRequest(List.of(1L, 2L), null, 7, "Postponed a week");
+        when(tripService.updateTrips(request)).thenReturn(new BulkOperationResponse(2, 0));
+
+        mockMvc.perform(post("/trips/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tripsAffected").value(2));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request for a bulk update without a change")
+    void shouldRejectBulkUpdateWithoutChange() throws Exception {
+        mockMvc.perform(post("/trips/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.changeGiven").value("shiftDays or description is required"));
+        verify(tripService, times(0)).updateTrips(any());
+    }
+
+    private static byte[] encode(ContentCoding coding, byte[] content) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream os = coding.encode(encoded)) {
+            os.write(content);
+        }
+        return encoded.toByteArray();
+    }
+
+    private static byte[] decode(ContentCoding coding, byte[] content) throws IOException {
+        try (InputStream is = coding.decode(new ByteArrayInputStream(content))) {
+            return is.readAllBytes();
+        }
+    }
 }
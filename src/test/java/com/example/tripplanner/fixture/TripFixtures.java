@@ -0,0 +1,64 @@
+package com.example.tripplanner.fixture;
+
+import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.repository.TripRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated trips for tests and benchmarks that need many of them. Trip n is named "Trip n", starts n % 365 days after
+ * START, lasts a week and has the requested number of one-night stops, "Stop d" in "City d", from its first day on.
+ */
+public final class TripFixtures {
+
+    // Ahead of today, so generated trips also pass @FutureOrPresent when they are sent through the API
+    public static final LocalDate START = LocalDate.now().plusDays(30);
+    public static final int TRIP_DAYS = 7;
+    public static final String DESCRIPTION = "Generated";
+
+    // Trips saved per saveAll, so sequence IDs are allocated in blocks and the inserts are batched
+    private static final int SEED_CHUNK_SIZE = 500;
+
+    private TripFixtures() {
+    }
+
+    /**
+     * An unsaved trip with the given number of destinations, which are added to it so the cascade saves them.
+     */
+    public static Trip trip(String name, LocalDate startDate, int destinations) {
+        Trip trip = new Trip(null, name, startDate, startDate.plusDays(TRIP_DAYS), DESCRIPTION);
+        for (int d = 0; d < destinations; d++) {
+            trip.getDestinations().add(new Destination(null, "Stop " + d, "City " + d,
+                    startDate.plusDays(d), startDate.plusDays(d + 1), trip));
+        }
+        return trip;
+    }
+
+    /**
+     * Unsaved trips offset to offset + count - 1 of the generated dataset.
+     */
+    public static List<Trip> trips(int offset, int count, int destinationsPerTrip) {
+        List<Trip> trips = new ArrayList<>(count);
+        for (int n = offset; n < offset + count; n++) {
+            trips.add(trip("Trip " + n, START.plusDays(n % 365), destinationsPerTrip));
+        }
+        return trips;
+    }
+
+    /**
+     * Saves the first count trips of the generated dataset with their destinations, one transaction per chunk.
+     *
+     * @return The IDs of the saved trips, in order.
+     */
+    public static List<Long> seed(TripRepository tripRepository, int count, int destinationsPerTrip) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int offset = 0; offset < count; offset += SEED_CHUNK_SIZE) {
+            tripRepository.saveAll(trips(offset, Math.min(SEED_CHUNK_SIZE, count - offset), destinationsPerTrip))
+                    .forEach(trip -> ids.add(trip.getId()));
+        }
+        return ids;
+    }
+}
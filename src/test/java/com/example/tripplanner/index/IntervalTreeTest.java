@@ -0,0 +1,84 @@
+package com.example.tripplanner.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntervalTreeTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    @Test
+    @DisplayName("Should match intervals touching the window on either edge and skip the rest")
+    void shouldFindOverlappingIntervals() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.put(1, BASE, BASE.plusDays(4), "ends on window start");
+        tree.put(2, BASE.plusDays(10), BASE.plusDays(12), "starts on window end");
+        tree.put(3, BASE.plusDays(6), BASE.plusDays(7), "inside");
+        tree.put(4, BASE.minusDays(30), BASE.plusDays(30), "covers window");
+        tree.put(5, BASE.plusDays(11), BASE.plusDays(20), "after");
+        tree.put(6, BASE.minusDays(10), BASE.plusDays(3), "before");
+
+        List<String> overlapping = tree.findOverlapping(BASE.plusDays(4), BASE.plusDays(10));
+
+        // Ordered by start date
+        assertThat(overlapping).containsExactly("covers window", "ends on window start", "inside", "starts on window end");
+    }
+
+    @Test
+    @DisplayName("Should replace an interval stored under the same key and forget removed keys")
+    void shouldReplaceAndRemoveByKey() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.put(1, BASE, BASE.plusDays(2), "original");
+        tree.put(1, BASE.plusDays(50), BASE.plusDays(52), "moved");
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.findOverlapping(BASE, BASE.plusDays(2))).isEmpty();
+        assertThat(tree.findOverlapping(BASE.plusDays(51), BASE.plusDays(51))).containsExactly("moved");
+
+        assertThat(tree.remove(1)).isTrue();
+        assertThat(tree.remove(1)).isFalse();
+        assertThat(tree.findOverlapping(BASE.minusYears(1), BASE.plusYears(1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should agree with a linear scan across random puts, updates and removes")
+    void shouldMatchLinearScanUnderRandomOperations() {
+        Random random = new Random(42);
+        IntervalTree<Long> tree = new IntervalTree<>();
+        Map<Long, LocalDate[]> expected = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                assertThat(tree.remove(key)).isEqualTo(expected.remove(key) != null);
+            } else {
+                LocalDate start = BASE.plusDays(random.nextInt(1_000));
+                LocalDate end = start.plusDays(random.nextInt(30));
+                tree.put(key, start, end, key);
+                expected.put(key, new LocalDate[]{start, end});
+            }
+
+            if (i % 100 == 0) {
+                LocalDate from = BASE.plusDays(random.nextInt(1_000));
+                LocalDate to = from.plusDays(random.nextInt(60));
+                List<Long> scanned = expected.entrySet().stream()
+                        .filter(entry -> !entry.getValue()[0].isAfter(to) && !entry.getValue()[1].isBefore(from))
+                        .sorted(Comparator.<Map.Entry<Long, LocalDate[]>, LocalDate>comparing(entry -> entry.getValue()[0])
+                                .thenComparing(Map.Entry::getKey))
+                        .map(Map.Entry::getKey)
+                        .toList();
+                assertThat(tree.findOverlapping(from, to)).containsExactlyElementsOf(scanned);
+                assertThat(tree.size()).isEqualTo(expected.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.tripplanner.index;
+
+import com.example.tripplanner.event.DestinationAddedEvent;
+import com.example.tripplanner.event.DestinationsUpdatedEvent;
+import com.example.tripplanner.event.TripDeletedEvent;
+import com.example.tripplanner.event.TripUpdatedEvent;
+import com.example.tripplanner.event.TripsCreatedEvent;
+import com.example.tripplanner.event.TripsDeletedEvent;
+import com.example.tripplanner.event.TripsUpdatedEvent;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripOverlapResponse;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.repository.DestinationRepository;
+import com.example.tripplanner.repository.TripRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TripOverlapIndexTest {
+
+    @Mock
+    private TripRepository tripRepository;
+
+    @Mock
+    private DestinationRepository destinationRepository;
+
+    private TripOverlapIndex tripOverlapIndex;
+
+    private final TripResponse alps = new TripResponse(1L, "Alps", LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 20), null);
+    private final DestinationResponse zermatt = new DestinationResponse(10L, "Zermatt", "Switzerland",
+            LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 1L);
+
+    @BeforeEach
+    void setUp() {
+        tripOverlapIndex = new TripOverlapIndex(tripRepository, destinationRepository);
+    }
+
+    @Test
+    @DisplayName("Should load existing trips and destinations on rebuild, skipping undated ones")
+    void shouldLoadTripsAndDestinationsOnRebuild() {
+        TripResponse undated = new TripResponse(2L, "Someday", null, null, null);
+        when(tripRepository.streamAllTripResponses()).thenReturn(Stream.of(alps, undated));
+        when(destinationRepository.streamAllResponses()).thenReturn(Stream.of(zermatt));
+
+        tripOverlapIndex.rebuild();
+
+        TripOverlapResponse overlapping = tripOverlapIndex.findOverlapping(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31));
+        assertThat(overlapping.getTrips()).containsExactly(alps);
+        assertThat(overlapping.getDestinations()).containsExactly(zermatt);
+    }
+
+    @Test
+    @DisplayName("Should apply created, updated and deleted trips and added destinations")
+    void shouldApplyTripAndDestinationEvents() {
+        tripOverlapIndex.onTripsCreated(new TripsCreatedEvent(List.of(new TripWithDestinationsResponse(
+                alps.getId(), alps.getName(), alps.getStartDate(), alps.getEndDate(), null, List.of(zermatt)))));
+        DestinationResponse chamonix = new DestinationResponse(11L, "Chamonix", "France",
+                LocalDate.of(2030, 1, 15), LocalDate.of(2030, 1, 18), 1L);
+        tripOverlapIndex.onDestinationAdded(new DestinationAddedEvent(chamonix));
+
+        TripOverlapResponse midTrip = tripOverlapIndex.findOverlapping(LocalDate.of(2030, 1, 16), LocalDate.of(2030, 1, 16));
+        assertThat(midTrip.getTrips()).containsExactly(alps);
+        assertThat(midTrip.getDestinations()).containsExactly(chamonix);
+
+        TripResponse postponed = new TripResponse(1L, "Alps", LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 5), null);
+        tripOverlapIndex.onTripUpdated(new TripUpdatedEvent(postponed));
+        assertThat(tripOverlapIndex.findOverlapping(LocalDate.of(2030, 1, 16), LocalDate.of(2030, 1, 16)).getTrips()).isEmpty();
+        assertThat(tripOverlapIndex.findOverlapping(LocalDate.of(2030, 3, 5), LocalDate.of(2030, 3, 9)).getTrips()).containsExactly(postponed);
+
+        tripOverlapIndex.onTripDeleted(new TripDeletedEvent(1L));
+        TripOverlapResponse afterDelete = tripOverlapIndex.findOverlapping(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31));
+        assertThat(afterDelete.getTrips()).isEmpty();
+        assertThat(afterDelete.getDestinations()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply bulk updates of trips and destinations and bulk deletions")
+    void shouldApplyBulkEvents() {
+        tripOverlapIndex.onTripsCreated(new TripsCreatedEvent(List.of(new TripWithDestinationsResponse(
+                alps.getId(), alps.getName(), alps.getStartDate(), alps.getEndDate(), null, List.of(zermatt)))));
+        DestinationResponse shifted = new DestinationResponse(10L, "Zermatt", "Switzerland",
+                LocalDate.of(2030, 1, 17), LocalDate.of(2030, 1, 19), 1L);
+
+        TripResponse shiftedAlps = new TripResponse(1L, "Alps", LocalDate.of(2030, 1, 17), LocalDate.of(2030, 1, 21), null);
+
+        tripOverlapIndex.onTripsUpdated(new TripsUpdatedEvent(List.of(shiftedAlps)));
+        tripOverlapIndex.onDestinationsUpdated(new DestinationsUpdatedEvent(List.of(shifted)));
+
+        assertThat(tripOverlapIndex.findOverlapping(LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12)).getDestinations()).isEmpty();
+        TripOverlapResponse moved = tripOverlapIndex.findOverlapping(LocalDate.of(2030, 1, 18), LocalDate.of(2030, 1, 18));
+        assertThat(moved.getTrips()).containsExactly(shiftedAlps);
+        assertThat(moved.getDestinations()).containsExactly(shifted);
+
+        tripOverlapIndex.onTripsDeleted(new TripsDeletedEvent(List.of(1L, 2L)));
+        TripOverlapResponse afterDelete = tripOverlapIndex.findOverlapping(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31));
+        assertThat(afterDelete.getTrips()).isEmpty();
+        assertThat(afterDelete.getDestinations()).isEmpty();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.tripplanner.index;
+
+import com.example.tripplanner.event.DestinationAddedEvent;
+import com.example.tripplanner.event.TripDeletedEvent;
+import com.example.tripplanner.event.TripUpdatedEvent;
+import com.example.tripplanner.event.TripsCreatedEvent;
+import com.example.tripplanner.event.TripsDeletedEvent;
+import com.example.tripplanner.event.TripsUpdatedEvent;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripSearchHit;
+import com.example.tripplanner.model.dto.TripSearchResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.repository.DestinationRepository;
+import com.example.tripplanner.repository.TripRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TripSearchIndexTest {
+
+    @Mock
+    private TripRepository tripRepository;
+
+    @Mock
+    private DestinationRepository destinationRepository;
+
+    private TripSearchIndex tripSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        tripSearchIndex = new TripSearchIndex(tripRepository, destinationRepository);
+        tripSearchIndex.onTripsCreated(new TripsCreatedEvent(List.of(
+                trip(1L, "Paris Honeymoon", "Romantic week in France", List.of()),
+                trip(2L, "European Grand Tour", "Museums and food",
+                        List.of(new DestinationResponse(20L, "Eiffel Tower", "Paris, France", null, null, 2L))),
+                trip(3L, "Zürich business trip", "Meetings in Paris on the way back", List.of()))));
+    }
+
+    @Test
+    @DisplayName("Should rank a name match above destination and description matches")
+    void shouldRankByFieldWeight() {
+        TripSearchResponse result = tripSearchIndex.search("paris", 10);
+
+        assertThat(result.getTotalHits()).isEqualTo(3);
+        assertThat(result.getHits()).extracting(TripSearchHit::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should match keywords as prefixes, ignore case and accents, and require every keyword")
+    void shouldMatchPrefixesAndRequireAllKeywords() {
+        assertThat(ids(tripSearchIndex.search("HONEY", 10))).containsExactly(1L);
+        assertThat(ids(tripSearchIndex.search("zurich", 10))).containsExactly(3L);
+        assertThat(ids(tripSearchIndex.search("paris museum", 10))).containsExactly(2L);
+        assertThat(ids(tripSearchIndex.search("paris berlin", 10))).isEmpty();
+        assertThat(ids(tripSearchIndex.search("!!!", 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return only the top hits up to the limit while counting all matches")
+    void shouldLimitHits() {
+        TripSearchResponse result = tripSearchIndex.search("paris", 2);
+
+        assertThat(result.getTotalHits()).isEqualTo(3);
+        assertThat(ids(result)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should follow updates, added destinations and deletions")
+    void shouldApplyWriteEvents() {
+        tripSearchIndex.onTripUpdated(new TripUpdatedEvent(new TripResponse(1L, "Rome Honeymoon", LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 8), null)));
+        assertThat(ids(tripSearchIndex.search("rome", 10))).containsExactly(1L);
+        assertThat(ids(tripSearchIndex.search("romantic", 10))).isEmpty();
+
+        tripSearchIndex.onDestinationAdded(new DestinationAddedEvent(new DestinationResponse(30L, "Colosseum", "Rome, Italy", null, null, 3L)));
+        assertThat(ids(tripSearchIndex.search("colosseum", 10))).containsExactly(3L);
+
+        tripSearchIndex.onTripDeleted(new TripDeletedEvent(3L));
+        assertThat(ids(tripSearchIndex.search("colosseum", 10))).isEmpty();
+        assertThat(ids(tripSearchIndex.search("rome", 10))).containsExactly(1L);
+
+        tripSearchIndex.onTripsUpdated(new TripsUpdatedEvent(List.of(
+                new TripResponse(1L, "Rome Honeymoon", LocalDate.of(2030, 5, 1), LocalDate.of(2030, 5, 8), "Postponed"))));
+        assertThat(ids(tripSearchIndex.search("postponed", 10))).containsExactly(1L);
+
+        tripSearchIndex.onTripsDeleted(new TripsDeletedEvent(List.of(1L, 2L)));
+        assertThat(ids(tripSearchIndex.search("rome", 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should load trips with their destinations on rebuild")
+    void shouldLoadOnRebuild() {
+        when(tripRepository.streamAllTripResponses()).thenReturn(Stream.of(new TripResponse(5L, "Alps", null, null, null)));
+        when(destinationRepository.streamAllResponses()).thenReturn(Stream.of(new DestinationResponse(50L, "Zermatt", "Switzerland", null, null, 5L)));
+
+        tripSearchIndex.rebuild();
+
+        assertThat(ids(tripSearchIndex.search("switz", 10))).containsExactly(5L);
+        assertThat(ids(tripSearchIndex.search("paris", 10))).isEmpty();
+    }
+
+    private static TripWithDestinationsResponse trip(Long id, String name, String description, List<DestinationResponse> destinations) {
+        return new TripWithDestinationsResponse(id, name, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 8), description, destinations);
+    }
+
+    private static List<Long> ids(TripSearchResponse result) {
+        return result.getHits().stream().map(TripSearchHit::getId).toList();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.tripplanner.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the annotated test if its body issues more than value() SQL statements on the test thread.
+ * Setup in @BeforeEach methods is not counted. A JDBC batch counts as one statement.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementCountExtension.class)
+public @interface MaxSqlStatements {
+
+    int value();
+}
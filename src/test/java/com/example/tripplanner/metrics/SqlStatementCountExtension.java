@@ -0,0 +1,34 @@
+package com.example.tripplanner.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Counts the SQL statements a test method issues and enforces its @MaxSqlStatements budget.
+ * Only the test body is counted, on the test's own thread; MockMvc requests run there too,
+ * so a test that performs one request measures that endpoint.
+ */
+public class SqlStatementCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlStatementCountExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementCounter.open());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementCounter.Scope scope = context.getStore(NAMESPACE).remove(context.getUniqueId(), SqlStatementCounter.Scope.class);
+        scope.close();
+        AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxSqlStatements.class).ifPresent(budget -> {
+            if (scope.count() > budget.value()) {
+                throw new AssertionFailedError("Expected at most " + budget.value() + " SQL statements but " + scope.count()
+                        + " were issued:\n" + String.join("\n", scope.statements()), budget.value(), scope.count());
+            }
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.config.SqlStatementCountingConfig;
+import com.example.tripplanner.fixture.TripFixtures;
+import com.example.tripplanner.metrics.MaxSqlStatements;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.TripTombstone;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripFilter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the set-based statements behind the bulk delete and bulk update endpoints, run against the in-memory
+ * database. Each statement covers a whole chunk of trips, so the statement count does not grow with the trip count.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+public class TripBulkStatementsTest {
+
+    private static final int TRIPS = 6;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TripTombstoneRepository tripTombstoneRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private List<Long> tripIds;
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+        @Bean
+        static BeanPostProcessor sqlStatementCountingDataSourcePostProcessor() {
+            return SqlStatementCountingConfig.sqlStatementCountingDataSourcePostProcessor();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        List<Trip> trips = new ArrayList<>();
+        for (int n = 0; n < TRIPS; n++) {
+            trips.add(TripFixtures.trip((n % 2 == 0 ? "Even " : "Odd ") + n, TripFixtures.START.plusDays(n), 3));
+        }
+        tripIds = tripRepository.saveAllAndFlush(trips).stream().map(Trip::getId).toList();
+        entityManager.clear();
+    }
+
+    @Test
+    @MaxSqlStatements(3) // Tombstones, destinations and trips: one statement each, however many trips
+    @DisplayName("Should delete a chunk of trips with their destinations and tombstones in three statements")
+    void shouldDeleteTripsInBulk() {
+        List<Long> doomed = List.of(tripIds.get(0), tripIds.get(2), tripIds.get(4), -1L);
+        Instant deletedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        int tombstones = tripTombstoneRepository.insertForTrips(doomed, deletedAt);
+        int destinations = destinationRepository.deleteByTripIdIn(doomed);
+        int trips = tripRepository.deleteByIdIn(doomed);
+
+        assertThat(tombstones).isEqualTo(3); // The unknown ID gets no tombstone
+        assertThat(destinations).isEqualTo(9);
+        assertThat(trips).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should leave the other trips, and record when each deleted trip went away")
+    void shouldKeepOtherTripsAfterBulkDelete() {
+        List<Long> doomed = List.of(tripIds.get(0), tripIds.get(2));
+        Instant deletedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        tripTombstoneRepository.insertForTrips(doomed, deletedAt);
+        destinationRepository.deleteByTripIdIn(doomed);
+        tripRepository.deleteByIdIn(doomed);
+
+        assertThat(tripRepository.findExistingIds(tripIds)).containsExactly(tripIds.get(1), tripIds.get(3), tripIds.get(4), tripIds.get(5));
+        assertThat(destinationRepository.count()).isEqualTo(12);
+        assertThat(tripTombstoneRepository.findAllById(doomed)).extracting(TripTombstone::getDeletedAt)
+                .containsOnly(deletedAt);
+    }
+
+    @Test
+    @MaxSqlStatements(1 + 2) // The update, plus the two reads checking it
+    @DisplayName("Should shift dates, replace descriptions, bump versions and stamp updatedAt in one statement")
+    void shouldUpdateTripsInBulk() {
+        List<Long> moved = List.of(tripIds.get(1), tripIds.get(3));
+        Instant updatedAt = Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.MICROS);
+
+        assertThat(tripRepository.updateByIdIn(moved, 7, "Rescheduled", updatedAt)).isEqualTo(2);
+
+        Trip first = tripRepository.findById(tripIds.get(1)).orElseThrow();
+        assertThat(first.getStartDate()).isEqualTo(TripFixtures.START.plusDays(1 + 7));
+        assertThat(first.getEndDate()).isEqualTo(TripFixtures.START.plusDays(1 + TripFixtures.TRIP_DAYS + 7));
+        assertThat(first.getDescription()).isEqualTo("Rescheduled");
+        assertThat(first.getVersion()).isEqualTo(1);
+        assertThat(first.getUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(tripRepository.findById(tripIds.get(0)).orElseThrow().getStartDate()).isEqualTo(TripFixtures.START);
+    }
+
+    @Test
+    @DisplayName("Should keep each trip's description when no new one is given")
+    void shouldKeepDescriptionsWhenOnlyShifting() {
+        tripRepository.updateByIdIn(List.of(tripIds.get(5)), -2, null, Instant.now());
+
+        assertThat(tripRepository.findResponsesByIdIn(List.of(tripIds.get(5))).get(0))
+                .satisfies(trip -> {
+                    assertThat(trip.getStartDate()).isEqualTo(TripFixtures.START.plusDays(5 - 2));
+                    assertThat(trip.getDescription()).isEqualTo(TripFixtures.DESCRIPTION);
+                });
+    }
+
+    @Test
+    @MaxSqlStatements(1 + 1) // The update, plus the read checking it
+    @DisplayName("Should move the destinations of a chunk of trips in one statement")
+    void shouldShiftDestinationsInBulk() {
+        List<Long> moved = List.of(tripIds.get(1), tripIds.get(3));
+        Instant updatedAt = Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.MICROS);
+
+        assertThat(destinationRepository.shiftDatesByTripIdIn(moved, 7, updatedAt)).isEqualTo(6);
+
+        assertThat(destinationRepository.findResponsesByTripIdIn(List.of(tripIds.get(1), tripIds.get(0))))
+                .filteredOn(destination -> destination.getTripId().equals(tripIds.get(1)))
+                .extracting(DestinationResponse::getArrivalDate)
+                .containsExactly(TripFixtures.START.plusDays(1 + 7), TripFixtures.START.plusDays(2 + 7), TripFixtures.START.plusDays(3 + 7));
+    }
+
+    @Test
+    @DisplayName("Should leave the destinations of other trips where they are")
+    void shouldKeepOtherDestinationsWhenShifting() {
+        destinationRepository.shiftDatesByTripIdIn(List.of(tripIds.get(1)), -2, Instant.now());
+
+        assertThat(destinationRepository.findResponsesByTripId(tripIds.get(0)))
+                .extracting(DestinationResponse::getDepartureDate)
+                .containsExactly(TripFixtures.START.plusDays(1), TripFixtures.START.plusDays(2), TripFixtures.START.plusDays(3));
+    }
+
+    @Test
+    @DisplayName("Should select the IDs of the trips matching a filter, up to the limit")
+    void shouldFindIdsMatchingFilter() {
+        TripFilter evenNames = new TripFilter(null, null, TripFilter.DateMatch.OVERLAP, "Even", null);
+
+        assertThat(tripRepository.findIds(TripSpecifications.matching(evenNames), 10))
+                .containsExactly(tripIds.get(0), tripIds.get(2), tripIds.get(4));
+        assertThat(tripRepository.findIds(TripSpecifications.matching(evenNames), 2))
+                .containsExactly(tripIds.get(0), tripIds.get(2));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.TripFilter;
+import com.example.tripplanner.model.dto.TripResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for TripSpecifications and TripRepository.findResponses against the in-memory database,
+ * so the generated SQL predicates are actually executed.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+public class TripSpecificationsTest {
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @BeforeEach
+    void setUp() {
+        Trip alps = new Trip(null, "Alps Hiking", LocalDate.of(2027, 7, 1), LocalDate.of(2027, 7, 10), null);
+        alps.getDestinations().add(new Destination(null, "Zermatt", "Switzerland", null, null, alps));
+        tripRepository.saveAll(List.of(
+                alps,
+                new Trip(null, "Alps_Skiing", LocalDate.of(2027, 12, 20), LocalDate.of(2028, 1, 3), null),
+                new Trip(null, "Berlin Weekend", LocalDate.of(2027, 7, 9), LocalDate.of(2027, 7, 12), null)));
+    }
+
+    @Test
+    @DisplayName("Should find trips overlapping or contained in a date window")
+    void shouldFilterByDateWindow() {
+        TripFilter overlap = new TripFilter(LocalDate.of(2027, 7, 10), LocalDate.of(2027, 7, 31), TripFilter.DateMatch.OVERLAP, null, null);
+        TripFilter within = new TripFilter(LocalDate.of(2027, 7, 5), LocalDate.of(2027, 7, 31), TripFilter.DateMatch.WITHIN, null, null);
+
+        assertThat(search(overlap)).containsExactly("Alps Hiking", "Berlin Weekend");
+        assertThat(search(within)).containsExactly("Berlin Weekend");
+    }
+
+    @Test
+    @DisplayName("Should match the name prefix literally, treating LIKE wildcards as plain characters")
+    void shouldFilterByNamePrefix() {
+        assertThat(search(new TripFilter(null, null, TripFilter.DateMatch.OVERLAP, "Alps", null)))
+                .containsExactly("Alps Hiking", "Alps_Skiing");
+        assertThat(search(new TripFilter(null, null, TripFilter.DateMatch.OVERLAP, "Alps_", null)))
+                .containsExactly("Alps_Skiing");
+    }
+
+    @Test
+    @DisplayName("Should filter on the presence of destinations combined with other filters")
+    void shouldFilterByDestinations() {
+        assertThat(search(new TripFilter(null, null, TripFilter.DateMatch.OVERLAP, null, true))).containsExactly("Alps Hiking");
+        assertThat(search(new TripFilter(null, null, TripFilter.DateMatch.OVERLAP, "Alps", false))).containsExactly("Alps_Skiing");
+        assertThat(search(new TripFilter())).hasSize(3);
+    }
+
+    private List<String> search(TripFilter filter) {
+        return tripRepository.findResponses(TripSpecifications.matching(filter)).stream().map(TripResponse::getName).toList();
+    }
+}
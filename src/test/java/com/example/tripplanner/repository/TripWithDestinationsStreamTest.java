@@ -0,0 +1,142 @@
+package com.example.tripplanner.repository;
+
+import com.example.tripplanner.config.SqlStatementCountingConfig;
+import com.example.tripplanner.fixture.TripFixtures;
+import com.example.tripplanner.metrics.MaxSqlStatements;
+import com.example.tripplanner.metrics.SqlStatementCounter;
+import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.TripChangeType;
+import com.example.tripplanner.model.TripTombstone;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripChange;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for TripRepository.streamAllWithDestinations and streamChangedWithDestinations, the cursors behind the NDJSON
+ * and delta exports. With a fetch size of 2, five trips are read in three batches, and each batch loads its destinations
+ * in one query.
+ */
+@DataJpaTest(properties = {"spring.jpa.show-sql=false", "tripplanner.export.fetch-size=2"})
+public class TripWithDestinationsStreamTest {
+
+    private static final int TRIPS = 5;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private DestinationRepository destinationRepository;
+
+    @Autowired
+    private TripTombstoneRepository tripTombstoneRepository;
+
+    private List<Trip> trips;
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+        // Only the DataSource proxy; the request filter needs a MeterRegistry this slice does not have
+        @Bean
+        static BeanPostProcessor sqlStatementCountingDataSourcePostProcessor() {
+            return SqlStatementCountingConfig.sqlStatementCountingDataSourcePostProcessor();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        List<Trip> trips = new ArrayList<>();
+        for (int n = 0; n < TRIPS; n++) {
+            // Trip n gets n destinations, so the first trip has none
+            trips.add(TripFixtures.trip("Trip " + n, TripFixtures.START.plusDays(n), n));
+        }
+        this.trips = tripRepository.saveAllAndFlush(trips);
+    }
+
+    @Test
+    @MaxSqlStatements(1 + 3) // The trip cursor, plus one destination query per batch of two trips
+    @DisplayName("Should stream every trip with its own destinations, loading destinations per batch")
+    void shouldStreamTripsWithDestinationsPerBatch() {
+        List<TripWithDestinationsResponse> trips;
+        try (Stream<TripWithDestinationsResponse> stream = tripRepository.streamAllWithDestinations()) {
+            trips = stream.toList();
+        }
+
+        assertThat(trips).extracting(TripWithDestinationsResponse::getName)
+                .containsExactly("Trip 0", "Trip 1", "Trip 2", "Trip 3", "Trip 4");
+        for (int n = 0; n < TRIPS; n++) {
+            TripWithDestinationsResponse trip = trips.get(n);
+            assertThat(trip.getDestinations()).hasSize(n)
+                    .allSatisfy(destination -> assertThat(destination.getTripId()).isEqualTo(trip.getId()));
+            assertThat(trip.getDestinations()).extracting(DestinationResponse::getName)
+                    .containsExactlyElementsOf(IntStream.range(0, n).mapToObj(d -> "Stop " + d).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream only trips changed after the watermark, and deletions from their tombstones")
+    void shouldStreamChangesSinceWatermark() {
+        Instant watermark = Instant.now();
+        Trip renamed = trips.get(1);
+        renamed.setName("Trip 1 renamed");
+        tripRepository.saveAndFlush(renamed);
+        // Trip 3's own row is unchanged; the new destination marks it as changed
+        destinationRepository.saveAndFlush(new Destination(null, "Late stop", "Elsewhere", null, null, trips.get(3)));
+        tripRepository.delete(trips.get(4));
+        tripTombstoneRepository.saveAndFlush(new TripTombstone(trips.get(4).getId()));
+        Instant until = Instant.now();
+
+        List<TripWithDestinationsResponse> changed;
+        List<TripChange> deletions;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            try (Stream<TripWithDestinationsResponse> stream = tripRepository.streamChangedWithDestinations(watermark, until)) {
+                changed = stream.toList();
+            }
+            // The changed-ID cursor, plus the trips and their destinations for the single batch of two
+            assertThat(scope.count()).isEqualTo(3);
+        }
+        try (Stream<TripChange> stream = tripTombstoneRepository.streamDeletions(watermark, until)) {
+            deletions = stream.toList();
+        }
+
+        assertThat(changed).extracting(TripWithDestinationsResponse::getName).containsExactly("Trip 1 renamed", "Trip 3");
+        assertThat(changed.get(1).getDestinations()).extracting(DestinationResponse::getName)
+                .containsExactly("Stop 0", "Stop 1", "Stop 2", "Late stop");
+        assertThat(deletions).extracting(TripChange::getType, TripChange::getId)
+                .containsExactly(tuple(TripChangeType.DELETE, trips.get(4).getId()));
+    }
+
+    @Test
+    @DisplayName("Should leave changes after the upper bound for the next window")
+    void shouldExcludeChangesAfterUpperBound() {
+        Instant watermark = Instant.now();
+        Trip renamed = trips.get(0);
+        renamed.setName("Trip 0 renamed");
+        tripRepository.saveAndFlush(renamed);
+
+        try (Stream<TripWithDestinationsResponse> stream = tripRepository.streamChangedWithDestinations(Instant.EPOCH, watermark)) {
+            // Trip 0 changed after the upper bound, so the earlier window no longer sees it
+            assertThat(stream.toList()).extracting(TripWithDestinationsResponse::getName)
+                    .containsExactly("Trip 1", "Trip 2", "Trip 3", "Trip 4");
+        }
+        try (Stream<TripWithDestinationsResponse> stream = tripRepository.streamChangedWithDestinations(watermark, Instant.now())) {
+            assertThat(stream.toList()).extracting(TripWithDestinationsResponse::getName).containsExactly("Trip 0 renamed");
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.tripplanner.service;
+
+import com.example.tripplanner.controller.TripController;
+import com.example.tripplanner.event.DestinationAddedEvent;
+import com.example.tripplanner.event.DestinationsUpdatedEvent;
+import com.example.tripplanner.event.TripDeletedEvent;
+import com.example.tripplanner.event.TripUpdatedEvent;
+import com.example.tripplanner.event.TripsCreatedEvent;
+import com.example.tripplanner.event.TripsUpdatedEvent;
+import com.example.tripplanner.exceptions.TooManySubscribersException;
+import com.example.tripplanner.metrics.ImportMetrics;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.service.impl.ChangeFeedServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests for the ChangeFeedServiceImpl behind GET /trips/changes.
+ * The feed runs with its own sender threads behind a standalone TripController, so the tests read the
+ * Server-Sent Events exactly as a client receives them: filtered, numbered, replayed and dropped when too slow.
+ */
+public class ChangeFeedServiceTest {
+
+    private static final Duration HEARTBEAT = Duration.ofMillis(100);
+    private static final int SENDER_THREADS = 3;
+
+    private ObjectMapper objectMapper;
+    private MeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private ChangeFeedServiceImpl changeFeedService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(SENDER_THREADS);
+        executor.setMaxPoolSize(SENDER_THREADS);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        changeFeedService = newChangeFeedService(executor, 16, 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should push committed changes in order, only for the trips a subscriber asked for")
+    void shouldPushChangesFilteredByTrip() throws Exception {
+        MvcResult all = subscribe(null);
+        MvcResult tripTwo = mockMvc.perform(MockMvcRequestBuilders.get("/trips/changes").param("tripId", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        changeFeedService.onTripsCreated(new TripsCreatedEvent(List.of(trip(1L, "Paris"), trip(2L, "Rome"))));
+        changeFeedService.onTripUpdated(new TripUpdatedEvent(new TripResponse(2L, "Rome in spring",
+                LocalDate.of(2027, 4, 1), LocalDate.of(2027, 4, 5), null)));
+        changeFeedService.onDestinationAdded(new DestinationAddedEvent(new DestinationResponse(10L, "Louvre", "Paris, France",
+                null, null, 1L)));
+        changeFeedService.onTripDeleted(new TripDeletedEvent(2L));
+
+        List<Sse> events = awaitEvents(all, 4);
+        assertThat(events).extracting(Sse::event)
+                .containsExactly("trips-created", "trip-updated", "destination-added", "trip-deleted");
+        assertThat(events).extracting(event -> Long.parseLong(event.id())).isSorted().doesNotHaveDuplicates();
+        assertThat(arraySize(events.get(0).data())).isEqualTo(2);
+        assertThat(events.get(1).data()).isEqualTo(
+                "{\"id\":2,\"name\":\"Rome in spring\",\"startDate\":\"2027-04-01\",\"endDate\":\"2027-04-05\",\"description\":null}");
+        assertThat(events.get(3).data()).isEqualTo("{\"tripId\":2}");
+
+        List<Sse> tripTwoEvents = awaitEvents(tripTwo, 3);
+        assertThat(tripTwoEvents).extracting(Sse::event).containsExactly("trips-created", "trip-updated", "trip-deleted");
+        assertThat(objectMapper.readTree(tripTwoEvents.get(0).data()).findValuesAsText("name")).containsExactly("Rome");
+        assertThat(awaitContent(all, ":heartbeat")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should replay the events after Last-Event-ID to a reconnecting client")
+    void shouldReplayEventsAfterLastEventId() throws Exception {
+        MvcResult first = subscribe(null);
+        for (long id = 1; id <= 3; id++) {
+            changeFeedService.onTripDeleted(new TripDeletedEvent(id));
+        }
+        List<Sse> seen = awaitEvents(first, 3);
+
+        MvcResult resumed = subscribe(seen.get(0).id());
+        changeFeedService.onTripDeleted(new TripDeletedEvent(4L));
+
+        assertThat(awaitEvents(resumed, 3)).extracting(Sse::data)
+                .containsExactly("{\"tripId\":2}", "{\"tripId\":3}", "{\"tripId\":4}");
+    }
+
+    @Test
+    @DisplayName("Should tell a client to resync when the events it missed are no longer buffered")
+    void shouldSendResyncWhenEventsWereEvicted() throws Exception {
+        MvcResult first = subscribe(null);
+        for (long id = 1; id <= 20; id++) { // More than the 16 buffered
+            changeFeedService.onTripDeleted(new TripDeletedEvent(id));
+        }
+        List<Sse> seen = awaitEvents(first, 20);
+
+        List<Sse> resumed = awaitEvents(subscribe(seen.get(0).id()), 1);
+        List<Sse> restarted = awaitEvents(subscribe("1"), 1); // An ID from before a restart
+
+        assertThat(resumed).extracting(Sse::event, Sse::id).containsExactly(tuple("resync", seen.get(19).id()));
+        assertThat(restarted).extracting(Sse::event).containsExactly("resync");
+    }
+
+    @Test
+    @DisplayName("Should drop a subscriber that falls behind instead of blocking the writer")
+    void shouldDropSlowSubscriber() throws Exception {
+        // Sender tasks are held back, so the subscriber's queue of two is never drained
+        List<Runnable> heldSenders = new ArrayList<>();
+        changeFeedService = newChangeFeedService(new ConcurrentTaskExecutor(heldSenders::add), 16, 2);
+        MvcResult slow = subscribe(null);
+
+        for (long id = 1; id <= 3; id++) {
+            changeFeedService.onTripDeleted(new TripDeletedEvent(id));
+        }
+        heldSenders.forEach(Runnable::run);
+
+        assertThat(meterRegistry.get("tripplanner.changes.subscribers.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tripplanner.changes.subscribers").gauge().value()).isZero();
+        assertThat(events(slow)).isEmpty(); // Disconnected rather than sent a partial backlog; it resumes on reconnect
+    }
+
+    @Test
+    @DisplayName("Should keep a subscriber through an import whose chunks hold more trips than its buffer")
+    void shouldKeepSubscriberThroughImport() throws Exception {
+        List<Runnable> heldSenders = new ArrayList<>();
+        changeFeedService = newChangeFeedService(new ConcurrentTaskExecutor(heldSenders::add), 16, 4);
+        MvcResult all = subscribe(null);
+
+        // Three chunks of the default tripplanner.import.chunk-size, each committed and announced on its own
+        for (long chunkStart = 1; chunkStart <= 1500; chunkStart += 500) {
+            changeFeedService.onTripsCreated(new TripsCreatedEvent(LongStream.range(chunkStart, chunkStart + 500)
+                    .mapToObj(id -> trip(id, "Imported " + id))
+                    .toList()));
+        }
+        changeFeedService.onTripsCreated(new TripsCreatedEvent(List.of(trip(1501L, "Created"))));
+        heldSenders.forEach(executor::execute);
+
+        assertThat(awaitEvents(all, 4)).extracting(Sse::event)
+                .containsExactly("trips-created", "trips-created", "trips-created", "trip-created");
+        assertThat(meterRegistry.get("tripplanner.changes.subscribers.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep subscribers through a bulk update of more trips than their buffer holds")
+    void shouldKeepSubscribersThroughBulkUpdate() throws Exception {
+        // Sender tasks are held back until everything is published, so nothing is drained in between
+        List<Runnable> heldSenders = new ArrayList<>();
+        changeFeedService = newChangeFeedService(new ConcurrentTaskExecutor(heldSenders::add), 16, 8);
+        MvcResult all = subscribe(null);
+        MvcResult tripTwo = mockMvc.perform(MockMvcRequestBuilders.get("/trips/changes").param("tripId", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Published the way TripServiceImpl.updateTrips does: per chunk of 1000 trips, the trips, then their moved destinations
+        List<TripResponse> trips = LongStream.rangeClosed(1, 2500)
+                .mapToObj(id -> new TripResponse(id, "Trip " + id, LocalDate.of(2027, 8, 1), LocalDate.of(2027, 8, 5), null))
+                .toList();
+        for (int from = 0; from < trips.size(); from += 1000) {
+            List<TripResponse> chunk = trips.subList(from, Math.min(from + 1000, trips.size()));
+            changeFeedService.onTripsUpdated(new TripsUpdatedEvent(chunk));
+            changeFeedService.onDestinationsUpdated(new DestinationsUpdatedEvent(chunk.stream()
+                    .map(trip -> new DestinationResponse(trip.getId() * 10, "Stop", null, trip.getStartDate(), trip.getStartDate(), trip.getId()))
+                    .toList()));
+        }
+        heldSenders.forEach(executor::execute);
+
+        List<Sse> events = awaitEvents(all, 6);
+        assertThat(events).extracting(Sse::event).containsExactly("trips-updated", "destinations-updated",
+                "trips-updated", "destinations-updated", "trips-updated", "destinations-updated");
+        int tripsAnnounced = 0;
+        for (Sse event : events.subList(0, 6)) {
+            tripsAnnounced += event.event().equals("trips-updated") ? arraySize(event.data()) : 0;
+        }
+        assertThat(tripsAnnounced).isEqualTo(2500);
+        assertThat(meterRegistry.get("tripplanner.changes.subscribers.dropped").counter().count()).isZero();
+
+        // A subscriber following one trip only gets that trip's elements of the chunk events
+        List<Sse> tripTwoEvents = awaitEvents(tripTwo, 2);
+        assertThat(tripTwoEvents).extracting(Sse::event).containsExactly("trips-updated", "destinations-updated");
+        assertThat(tripTwoEvents.get(0).data()).isEqualTo(
+                "[{\"id\":2,\"name\":\"Trip 2\",\"startDate\":\"2027-08-01\",\"endDate\":\"2027-08-05\",\"description\":null}]");
+        assertThat(arraySize(tripTwoEvents.get(1).data())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should turn away subscribers beyond the sender pool")
+    void shouldRejectSubscribersBeyondPool() throws Exception {
+        for (int n = 0; n < SENDER_THREADS; n++) {
+            subscribe(null);
+        }
+
+        assertThatThrownBy(() -> changeFeedService.subscribe(Set.of(), null))
+                .isInstanceOf(TooManySubscribersException.class);
+    }
+
+    private ChangeFeedServiceImpl newChangeFeedService(AsyncTaskExecutor senders, int replaySize, int subscriberBuffer) {
+        meterRegistry = new SimpleMeterRegistry();
+        ChangeFeedServiceImpl service = new ChangeFeedServiceImpl(senders, objectMapper, meterRegistry,
+                replaySize, subscriberBuffer, HEARTBEAT);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TripController(mock(TripService.class), mock(CsvService.class),
+                mock(JsonService.class), mock(ImportJobService.class), mock(ImportMetrics.class), service)).build();
+        return service;
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        var builder = MockMvcRequestBuilders.get("/trips/changes");
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private int arraySize(String json) throws Exception {
+        return objectMapper.readTree(json).size();
+    }
+
+    private static TripWithDestinationsResponse trip(Long id, String name) {
+        return new TripWithDestinationsResponse(id, name, LocalDate.of(2027, 7, 1), LocalDate.of(2027, 7, 5), null, List.of());
+    }
+
+    private record Sse(String id, String event, String data) {
+    }
+
+    private static List<Sse> events(MvcResult result) throws Exception {
+        List<Sse> events = new ArrayList<>();
+        for (String block : result.getResponse().getContentAsString().split("\n\n")) {
+            String id = null;
+            String event = null;
+            String data = null;
+            for (String line : block.split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    event = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    data = line.substring(5);
+                }
+            }
+            if (event != null) {
+                events.add(new Sse(id, event, data));
+            }
+        }
+        return events;
+    }
+
+    private static List<Sse> awaitEvents(MvcResult result, int count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<Sse> events = events(result);
+        while (events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            events = events(result);
+        }
+        return events;
+    }
+
+    private static boolean awaitContent(MvcResult result, String content) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.getResponse().getContentAsString().contains(content)) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
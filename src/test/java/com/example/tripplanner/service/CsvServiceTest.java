@@ -1,23 +1,32 @@
 package com.example.tripplanner.service;
 
+import com.example.tripplanner.compression.ContentCoding;
 import com.example.tripplanner.exceptions.FileProcessingException;
+import com.example.tripplanner.metrics.ImportMetrics;
 import com.example.tripplanner.model.Trip;
 import com.example.tripplanner.model.dto.TripRequest;
 import com.example.tripplanner.model.dto.TripResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -30,6 +39,11 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @ExtendWith(MockitoExtension.class)
 public class CsvServiceTest {
 
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ImportMetrics importMetrics = new ImportMetrics(meterRegistry);
+
     @InjectMocks
     private CsvService csvService;
 
@@ -86,6 +100,28 @@ public class CsvServiceTest {
         assertThat(new String(csvBytes)).isEqualTo("id,name,startDate,endDate,description\r\n");
     }
 
+    /**
+     * Test case for streaming trips to an OutputStream as CSV.
+     */
+    @Test
+    @DisplayName("Should stream TripResponses to an OutputStream as CSV")
+    void shouldStreamTripsToCsvOutputStream() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        csvService.exportTripsToCsv(sampleTripResponses.stream(), os);
+        assertThat(os.toString()).isEqualTo(sampleCsvContentForExport);
+    }
+
+    /**
+     * Test case for streaming an empty stream of trips to CSV.
+     */
+    @Test
+    @DisplayName("Should stream only headers when there are no trips")
+    void shouldStreamOnlyHeadersForEmptyStream() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        csvService.exportTripsToCsv(Stream.empty(), os);
+        assertThat(os.toString()).isEqualTo("id,name,startDate,endDate,description\r\n");
+    }
+
     /**
      * Test case for importing trips from a valid CSV InputStream.
      */
@@ -133,4 +169,75 @@ public class CsvServiceTest {
         assertThat(importedTrips).isNotNull();
         assertThat(importedTrips).isEmpty();
     }
+
+    /**
+     * Test case for the chunked import: records are delivered in chunks of the requested size.
+     */
+    @Test
+    @DisplayName("Should import trips from CSV in chunks of the requested size")
+    void shouldImportTripsFromCsvInChunks() {
+        String csv = sampleCsvContentForImport + "Winter Lights,2025-12-20,2025-12-24,Christmas markets\r\n";
+        List<List<TripRequest>> chunks = new ArrayList<>();
+
+        long importedCount = csvService.importTripsFromCsv(new ByteArrayInputStream(csv.getBytes()), 2, chunks::add);
+
+        assertThat(importedCount).isEqualTo(3);
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).extracting(TripRequest::getName).containsExactly("Spring Break", "Autumn Colors");
+        assertThat(chunks.get(1)).extracting(TripRequest::getName).containsExactly("Winter Lights");
+    }
+
+    /**
+     * Test case for compressed uploads: gzip and zstd CSV is detected by its magic bytes and decompressed while parsing.
+     */
+    @Test
+    @DisplayName("Should import gzip and zstd compressed CSV in chunks")
+    void shouldImportCompressedCsvInChunks() throws IOException {
+        for (ContentCoding coding : ContentCoding.values()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream os = coding.encode(compressed)) {
+                os.write(sampleCsvContentForImport.getBytes());
+            }
+            List<List<TripRequest>> chunks = new ArrayList<>();
+
+            long importedCount = csvService.importTripsFromCsv(new ByteArrayInputStream(compressed.toByteArray()), 1, chunks::add);
+
+            assertThat(importedCount).as(coding.token()).isEqualTo(2);
+            assertThat(chunks).extracting(chunk -> chunk.get(0).getName()).containsExactly("Spring Break", "Autumn Colors");
+        }
+    }
+
+    /**
+     * Test case for the chunked import of a malformed CSV: nothing is handed to the consumer.
+     */
+    @Test
+    @DisplayName("Should throw FileProcessingException for malformed CSV in chunked import")
+    void shouldThrowFileProcessingExceptionForMalformedCsvInChunkedImport() {
+        List<List<TripRequest>> chunks = new ArrayList<>();
+        InputStream is = new ByteArrayInputStream(malformedCsvContent.getBytes());
+
+        assertThatThrownBy(() -> csvService.importTripsFromCsv(is, 2, chunks::add))
+                .isInstanceOf(FileProcessingException.class)
+                .hasMessageContaining("Missing required CSV header: endDate");
+        assertThat(chunks).isEmpty();
+    }
+
+    /**
+     * Test case for the import metrics: parsed and persisted rows are counted per chunk,
+     * and a record that fails to parse is counted as rejected.
+     */
+    @Test
+    @DisplayName("Should count parsed, persisted and rejected rows in the chunked import")
+    void shouldCountImportedRowsInMetrics() {
+        String csv = sampleCsvContentForImport + "Broken Trip,not-a-date,2025-12-24,Bad start date\r\n";
+
+        assertThatThrownBy(() -> csvService.importTripsFromCsv(new ByteArrayInputStream(csv.getBytes()), 2, chunk -> { }))
+                .isInstanceOf(FileProcessingException.class);
+
+        assertThat(meterRegistry.get("tripplanner.import.rows.parsed").tag("format", "csv").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("tripplanner.import.rows.persisted").tag("format", "csv").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("tripplanner.import.rows.rejected").tag("format", "csv").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tripplanner.import").tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tripplanner.import.active").gauge().value()).isZero();
+    }
 }
@@ -0,0 +1,170 @@
+package com.example.tripplanner.service;
+
+import com.example.tripplanner.exceptions.ResourceNotFoundException;
+import com.example.tripplanner.model.ImportJobStatus;
+import com.example.tripplanner.model.dto.ImportJobResponse;
+import com.example.tripplanner.service.impl.ImportJobServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the ImportJobServiceImpl.
+ * These tests run jobs on a real single-threaded executor to check the job lifecycle,
+ * progress reporting and cooperative cancellation.
+ */
+public class ImportJobServiceTest {
+
+    private ThreadPoolTaskExecutor executor;
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        importJobService = new ImportJobServiceImpl(executor, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should run a file import to completion and report its progress")
+    void shouldCompleteFileImport() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "trips.csv", "text/csv", "a,b\n1,2\n3,4\n".getBytes());
+
+        ImportJobResponse submitted = importJobService.submitFileImport("csv", file, (is, job) -> {
+            is.readAllBytes();
+            job.recordChunk(2);
+        });
+
+        ImportJobResponse finished = awaitFinished(submitted.getJobId());
+        assertThat(finished.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(finished.getRowsProcessed()).isEqualTo(2);
+        assertThat(finished.getChunks()).isEqualTo(1);
+        assertThat(finished.getPercentComplete()).isEqualTo(100d);
+    }
+
+    @Test
+    @DisplayName("Should mark the job as failed and keep the error when the import throws")
+    void shouldReportFailedImport() throws Exception {
+        ImportJobResponse submitted = importJobService.submitImport("batch", 10, job -> {
+            job.recordChunk(5);
+            throw new IllegalStateException("Broken row");
+        });
+
+        ImportJobResponse finished = awaitFinished(submitted.getJobId());
+        assertThat(finished.getStatus()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(finished.getRowsProcessed()).isEqualTo(5);
+        assertThat(finished.getErrors()).containsExactly("Broken row");
+    }
+
+    @Test
+    @DisplayName("Should stop a running import at the next chunk boundary when cancelled")
+    void shouldCancelRunningImport() throws Exception {
+        CountDownLatch firstChunkDone = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        ImportJobResponse submitted = importJobService.submitImport("batch", 100, job -> {
+            for (int chunk = 0; chunk < 10; chunk++) {
+                job.checkNotCancelled();
+                job.recordChunk(10);
+                firstChunkDone.countDown();
+                awaitLatch(cancelled);
+            }
+        });
+
+        assertThat(firstChunkDone.await(5, TimeUnit.SECONDS)).isTrue();
+        importJobService.cancelJob(submitted.getJobId());
+        cancelled.countDown();
+
+        ImportJobResponse finished = awaitFinished(submitted.getJobId());
+        assertThat(finished.getStatus()).isEqualTo(ImportJobStatus.CANCELLED);
+        assertThat(finished.getRowsProcessed()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should delete the spooled upload of a queued file import when it is cancelled, and never run it")
+    void shouldDeleteUploadOfCancelledQueuedImport() throws Exception {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        importJobService.submitImport("batch", 1, job -> {
+            workerBusy.countDown();
+            awaitLatch(release);
+        });
+        assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Set<Path> uploadsBefore = spooledUploads();
+        AtomicBoolean ran = new AtomicBoolean();
+        MockMultipartFile file = new MockMultipartFile("file", "trips.csv", "text/csv", "a,b\n1,2\n".getBytes());
+        ImportJobResponse queued = importJobService.submitFileImport("csv", file, (is, job) -> ran.set(true));
+        Set<Path> spooled = spooledUploads();
+        spooled.removeAll(uploadsBefore);
+        assertThat(spooled).hasSize(1);
+
+        ImportJobResponse cancelled = importJobService.cancelJob(queued.getJobId());
+        assertThat(cancelled.getStatus()).isEqualTo(ImportJobStatus.CANCELLED);
+        assertThat(spooled.iterator().next()).doesNotExist(); // Right away, not once the worker gets to it
+
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran).isFalse();
+        assertThat(importJobService.getJob(queued.getJobId()).getStatus()).isEqualTo(ImportJobStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException for an unknown job")
+    void shouldThrowResourceNotFoundExceptionForUnknownJob() {
+        assertThatThrownBy(() -> importJobService.getJob("missing"))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Import job not found with ID: missing");
+    }
+
+    private ImportJobResponse awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ImportJobResponse job = importJobService.getJob(jobId);
+        while (!job.getStatus().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = importJobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    private static Set<Path> spooledUploads() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(path -> path.getFileName().toString().matches("trip-import-.*\\.upload"))
+                    .collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
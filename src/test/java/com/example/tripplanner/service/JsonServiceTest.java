@@ -0,0 +1,208 @@
+package com.example.tripplanner.service;
+
+import com.example.tripplanner.exceptions.FileProcessingException;
+import com.example.tripplanner.metrics.ImportMetrics;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripChange;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the JsonService.
+ * These tests ensure that JSON arrays of trips with nested destinations are bound correctly,
+ * both in one go and through the streaming, batched import, that the NDJSON export round-trips through the NDJSON import,
+ * and that the delta export writes one change per line.
+ */
+public class JsonServiceTest {
+
+    private JsonService jsonService;
+    private MeterRegistry meterRegistry;
+
+    private String sampleJsonContent;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jsonService = new JsonService(new ImportMetrics(meterRegistry));
+
+        sampleJsonContent = "[" +
+                "{\"name\":\"European Grand Tour\",\"startDate\":\"2027-07-01\",\"endDate\":\"2027-07-30\"," +
+                "\"description\":\"Iconic cities\",\"destinations\":[" +
+                "{\"name\":\"Eiffel Tower\",\"location\":\"Paris, France\",\"arrivalDate\":\"2027-07-03\",\"departureDate\":\"2027-07-07\"}," +
+                "{\"name\":\"Colosseum\",\"location\":\"Rome, Italy\",\"arrivalDate\":\"2027-07-10\",\"departureDate\":\"2027-07-14\"}]}," +
+                "{\"name\":\"Weekend in Berlin\",\"startDate\":\"2027-08-01\",\"endDate\":\"2027-08-03\",\"destinations\":[]}," +
+                "{\"name\":\"Lisbon\",\"startDate\":\"2027-09-01\",\"endDate\":\"2027-09-05\"}" +
+                "]";
+    }
+
+    @Test
+    @DisplayName("Should import all trips with destinations from a JSON array")
+    void shouldImportTripsWithDestinationsFromJson() {
+        List<TripWithDestinationsRequest> trips = jsonService.importTripsWithDestinationsFromJson(
+                new ByteArrayInputStream(sampleJsonContent.getBytes()));
+
+        assertThat(trips).hasSize(3);
+        assertThat(trips.get(0).getDestinations()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should stream trips with nested destinations to the consumer in batches")
+    void shouldStreamTripsInBatches() {
+        List<List<TripWithDestinationsRequest>> batches = new ArrayList<>();
+
+        long importedCount = jsonService.importTripsWithDestinationsFromJson(
+                new ByteArrayInputStream(sampleJsonContent.getBytes()), 2, batches::add);
+
+        assertThat(importedCount).isEqualTo(3);
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).extracting(TripWithDestinationsRequest::getName)
+                .containsExactly("European Grand Tour", "Weekend in Berlin");
+        assertThat(batches.get(1)).extracting(TripWithDestinationsRequest::getName).containsExactly("Lisbon");
+
+        TripWithDestinationsRequest firstTrip = batches.get(0).get(0);
+        assertThat(firstTrip.getStartDate()).isEqualTo(LocalDate.of(2027, 7, 1));
+        assertThat(firstTrip.getDestinations()).hasSize(2);
+        assertThat(firstTrip.getDestinations().get(1).getLocation()).isEqualTo("Rome, Italy");
+    }
+
+    @Test
+    @DisplayName("Should not call the consumer for an empty JSON array")
+    void shouldImportNothingFromEmptyArray() {
+        List<List<TripWithDestinationsRequest>> batches = new ArrayList<>();
+
+        long importedCount = jsonService.importTripsWithDestinationsFromJson(
+                new ByteArrayInputStream("[]".getBytes()), 2, batches::add);
+
+        assertThat(importedCount).isZero();
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should throw FileProcessingException when the document is not an array")
+    void shouldThrowFileProcessingExceptionWhenNotAnArray() {
+        InputStream is = new ByteArrayInputStream("{\"name\":\"Lonely trip\"}".getBytes());
+
+        assertThatThrownBy(() -> jsonService.importTripsWithDestinationsFromJson(is, 2, batch -> { }))
+                .isInstanceOf(FileProcessingException.class)
+                .hasMessageContaining("Failed to parse JSON file");
+    }
+
+    @Test
+    @DisplayName("Should throw FileProcessingException for malformed JSON in streaming import")
+    void shouldThrowFileProcessingExceptionForMalformedJson() {
+        InputStream is = new ByteArrayInputStream("[{\"name\":\"Broken\",\"startDate\":\"not-a-date\"}]".getBytes());
+
+        assertThatThrownBy(() -> jsonService.importTripsWithDestinationsFromJson(is, 2, batch -> { }))
+                .isInstanceOf(FileProcessingException.class)
+                .hasMessageContaining("Failed to parse JSON file");
+    }
+
+    @Test
+    @DisplayName("Should count rows of a batch that fails to persist as rejected")
+    void shouldCountRejectedBatchInMetrics() {
+        InputStream is = new ByteArrayInputStream(sampleJsonContent.getBytes());
+        List<Integer> batchSizes = new ArrayList<>();
+
+        assertThatThrownBy(() -> jsonService.importTripsWithDestinationsFromJson(is, 2, batch -> {
+            batchSizes.add(batch.size());
+            if (batchSizes.size() == 2) {
+                throw new IllegalStateException("Database unavailable");
+            }
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get("tripplanner.import.rows.parsed").tag("format", "json").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("tripplanner.import.rows.persisted").tag("format", "json").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("tripplanner.import.rows.rejected").tag("format", "json").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("tripplanner.import").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should export one trip per line in the import shape, without IDs")
+    void shouldExportTripsWithDestinationsToNdjson() {
+        TripWithDestinationsResponse paris = new TripWithDestinationsResponse(1L, "Paris", LocalDate.of(2027, 7, 1),
+                LocalDate.of(2027, 7, 5), "Museums", List.of(new DestinationResponse(10L, "Louvre", "Paris, France",
+                LocalDate.of(2027, 7, 2), LocalDate.of(2027, 7, 3), 1L)));
+        TripWithDestinationsResponse berlin = new TripWithDestinationsResponse(2L, "Berlin", LocalDate.of(2027, 8, 1),
+                LocalDate.of(2027, 8, 3), null, List.of());
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        jsonService.exportTripsWithDestinationsToNdjson(Stream.of(paris, berlin), os);
+
+        String[] lines = os.toString().split("\n");
+        assertThat(lines).containsExactly(
+                "{\"name\":\"Paris\",\"startDate\":\"2027-07-01\",\"endDate\":\"2027-07-05\",\"description\":\"Museums\","
+                        + "\"destinations\":[{\"name\":\"Louvre\",\"location\":\"Paris, France\",\"arrivalDate\":\"2027-07-02\",\"departureDate\":\"2027-07-03\"}]}",
+                "{\"name\":\"Berlin\",\"startDate\":\"2027-08-01\",\"endDate\":\"2027-08-03\",\"description\":null,\"destinations\":[]}");
+    }
+
+    @Test
+    @DisplayName("Should export one change per line, with the trip for upserts and only the ID for deletions")
+    void shouldExportTripChangesToNdjson() {
+        TripWithDestinationsResponse berlin = new TripWithDestinationsResponse(2L, "Berlin", LocalDate.of(2027, 8, 1),
+                LocalDate.of(2027, 8, 3), null, List.of());
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        jsonService.exportTripChangesToNdjson(Stream.of(TripChange.upsert(berlin),
+                new TripChange(5L, Instant.parse("2027-06-01T10:15:30.123456Z"))), os);
+
+        String[] lines = os.toString().split("\n");
+        assertThat(lines).containsExactly(
+                "{\"type\":\"UPSERT\",\"id\":2,\"trip\":{\"id\":2,\"name\":\"Berlin\",\"startDate\":\"2027-08-01\","
+                        + "\"endDate\":\"2027-08-03\",\"description\":null,\"destinations\":[]}}",
+                "{\"type\":\"DELETE\",\"id\":5,\"deletedAt\":\"2027-06-01T10:15:30.123456Z\"}");
+    }
+
+    @Test
+    @DisplayName("Should import NDJSON written by the export in batches")
+    void shouldRoundTripNdjsonExportThroughImport() {
+        List<TripWithDestinationsRequest> original = jsonService.importTripsWithDestinationsFromJson(
+                new ByteArrayInputStream(sampleJsonContent.getBytes()));
+        Stream<TripWithDestinationsResponse> exported = original.stream().map(trip -> new TripWithDestinationsResponse(null,
+                trip.getName(), trip.getStartDate(), trip.getEndDate(), trip.getDescription(),
+                trip.getDestinations() == null ? List.of() : trip.getDestinations().stream()
+                        .map(d -> new DestinationResponse(null, d.getName(), d.getLocation(), d.getArrivalDate(), d.getDepartureDate(), null))
+                        .toList()));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        jsonService.exportTripsWithDestinationsToNdjson(exported, os);
+
+        List<TripWithDestinationsRequest> imported = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        long count = jsonService.importTripsWithDestinationsFromNdjson(new ByteArrayInputStream(os.toByteArray()), 2, batch -> {
+            batchSizes.add(batch.size());
+            imported.addAll(batch);
+        });
+
+        assertThat(count).isEqualTo(3);
+        assertThat(batchSizes).containsExactly(2, 1);
+        assertThat(imported).extracting(TripWithDestinationsRequest::getName).containsExactly("European Grand Tour", "Weekend in Berlin", "Lisbon");
+        assertThat(imported.get(0).getDestinations()).isEqualTo(original.get(0).getDestinations());
+        assertThat(meterRegistry.get("tripplanner.import.rows.persisted").tag("format", "ndjson").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should throw FileProcessingException for an NDJSON line that is not a trip object")
+    void shouldThrowFileProcessingExceptionForMalformedNdjson() {
+        InputStream is = new ByteArrayInputStream("{\"name\":\"Fine\",\"startDate\":\"2027-07-01\",\"endDate\":\"2027-07-02\"}\n[1,2]\n".getBytes());
+
+        assertThatThrownBy(() -> jsonService.importTripsWithDestinationsFromNdjson(is, 2, batch -> { }))
+                .isInstanceOf(FileProcessingException.class)
+                .hasMessageContaining("expected a trip object");
+    }
+}
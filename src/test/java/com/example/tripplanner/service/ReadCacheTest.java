@@ -0,0 +1,159 @@
+package com.example.tripplanner.service;
+
+import com.example.tripplanner.config.CacheConfig;
+import com.example.tripplanner.index.TripOverlapIndex;
+import com.example.tripplanner.index.TripSearchIndex;
+import com.example.tripplanner.model.Destination;
+import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.dto.DestinationRequest;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripRequest;
+import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.factory.DestinationFactory;
+import com.example.tripplanner.model.factory.TripFactory;
+import com.example.tripplanner.repository.DestinationRepository;
+import com.example.tripplanner.repository.FetchProfile;
+import com.example.tripplanner.repository.TripRepository;
+import com.example.tripplanner.repository.TripTombstoneRepository;
+import com.example.tripplanner.service.impl.DestinationServiceImpl;
+import com.example.tripplanner.service.impl.TripServiceImpl;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the read cache in front of TripService.getTripById and DestinationService.getDestinationsForTrip.
+ * The services run behind the real Spring caching proxies with mocked repositories,
+ * so the tests can count how often a read actually reaches the database.
+ */
+@SpringJUnitConfig(ReadCacheTest.TestConfig.class)
+public class ReadCacheTest {
+
+    @Import({CacheConfig.class, TripServiceImpl.class, DestinationServiceImpl.class, TripOverlapIndex.class, TripSearchIndex.class, TripFactory.class, DestinationFactory.class})
+    static class TestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            CaffeineCacheManager cacheManager = new CaffeineCacheManager(CacheConfig.TRIPS, CacheConfig.TRIP_DESTINATIONS);
+            cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(100).recordStats());
+            return cacheManager;
+        }
+
+        // Lets @Value inject durations such as the change feed's commit lag, as it does under Spring Boot
+        @Bean
+        static ConversionService conversionService() {
+            return new ApplicationConversionService();
+        }
+    }
+
+    @MockitoBean
+    private TripRepository tripRepository;
+
+    @MockitoBean
+    private DestinationRepository destinationRepository;
+
+    @MockitoBean
+    private TripTombstoneRepository tripTombstoneRepository;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private DestinationService destinationService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final TripResponse tripResponse = new TripResponse(1L, "Alps", LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 5), null);
+    private final Trip trip = new Trip(1L, "Alps", LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 5), null);
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated trip reads from the cache")
+    void shouldCacheTripById() {
+        when(tripRepository.findResponseById(1L)).thenReturn(Optional.of(tripResponse));
+
+        tripService.getTripById(1L);
+        TripResponse cached = tripService.getTripById(1L);
+
+        assertThat(cached).isEqualTo(tripResponse);
+        verify(tripRepository, times(1)).findResponseById(1L);
+    }
+
+    @Test
+    @DisplayName("Should replace the cached trip on update and drop it on delete")
+    void shouldRefreshCachedTripOnUpdateAndEvictOnDelete() {
+        when(tripRepository.findResponseById(1L)).thenReturn(Optional.of(tripResponse));
+        when(tripRepository.findById(1L, FetchProfile.SUMMARY)).thenReturn(Optional.of(trip));
+        when(tripRepository.saveAndFlush(any(Trip.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(tripRepository.existsById(1L)).thenReturn(true);
+        tripService.getTripById(1L);
+
+        tripService.updateTrip(1L, new TripRequest("Alps in winter", LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 5), null));
+        assertThat(tripService.getTripById(1L).getName()).isEqualTo("Alps in winter");
+        verify(tripRepository, times(1)).findResponseById(1L);
+
+        tripService.deleteTrip(1L);
+        tripService.getTripById(1L);
+        verify(tripRepository, times(2)).findResponseById(1L);
+    }
+
+    @Test
+    @DisplayName("Should evict a trip's cached destinations when a destination is added")
+    void shouldEvictCachedDestinationsWhenDestinationIsAdded() {
+        DestinationResponse existing = new DestinationResponse(10L, "Zermatt", "Switzerland", null, null, 1L);
+        when(destinationRepository.findResponsesByTripId(1L)).thenReturn(List.of(existing));
+        when(tripRepository.findByIdIncrementingVersion(1L)).thenReturn(Optional.of(trip));
+        when(destinationRepository.save(any(Destination.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        destinationService.getDestinationsForTrip(1L);
+        destinationService.getDestinationsForTrip(1L);
+        verify(destinationRepository, times(1)).findResponsesByTripId(1L);
+
+        destinationService.addDestinationToTrip(1L, new DestinationRequest("Chamonix", "France", null, null));
+        destinationService.getDestinationsForTrip(1L);
+        verify(destinationRepository, times(2)).findResponsesByTripId(1L);
+    }
+
+    @Test
+    @DisplayName("Should take ETag versions from the cached trip, and reload it once a destination bumps the version")
+    void shouldServeVersionsFromCachedTrip() {
+        when(tripRepository.findResponseById(1L)).thenReturn(
+                Optional.of(new TripResponse(1L, "Alps", null, null, null, 3L)),
+                Optional.of(new TripResponse(1L, "Alps", null, null, null, 4L)));
+        when(tripRepository.findByIdIncrementingVersion(1L)).thenReturn(Optional.of(trip));
+        when(destinationRepository.save(any(Destination.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertThat(tripService.getTripById(1L).getVersion()).isEqualTo(3L);
+        assertThat(destinationService.getDestinationsVersion(1L)).isEqualTo(3L);
+        verify(tripRepository, times(1)).findResponseById(1L);
+
+        destinationService.addDestinationToTrip(1L, new DestinationRequest("Chamonix", "France", null, null));
+        assertThat(destinationService.getDestinationsVersion(1L)).isEqualTo(4L);
+        assertThat(tripService.getTripById(1L).getVersion()).isEqualTo(4L);
+        verify(tripRepository, times(2)).findResponseById(1L);
+    }
+}
@@ -1,18 +1,45 @@
 package com.example.tripplanner.service;
 
+import com.example.tripplanner.event.DestinationsUpdatedEvent;
+import com.example.tripplanner.event.TripDeletedEvent;
+import com.example.tripplanner.event.TripsCreatedEvent;
+import com.example.tripplanner.event.TripsDeletedEvent;
+import com.example.tripplanner.event.TripsUpdatedEvent;
+import com.example.tripplanner.exceptions.BulkSelectionTooLargeException;
+import com.example.tripplanner.exceptions.InvalidPageRequestException;
 import com.example.tripplanner.exceptions.ResourceNotFoundException;
+import com.example.tripplanner.index.TripOverlapIndex;
+import com.example.tripplanner.index.TripSearchIndex;
+import com.example.tripplanner.model.Destination;
 import com.example.tripplanner.model.Trip;
+import com.example.tripplanner.model.TripSort;
+import com.example.tripplanner.model.dto.BulkDeleteRequest;
+import com.example.tripplanner.model.dto.BulkOperationResponse;
+import com.example.tripplanner.model.dto.BulkUpdateRequest;
+import com.example.tripplanner.model.dto.DestinationResponse;
+import com.example.tripplanner.model.dto.TripFilter;
+import com.example.tripplanner.model.dto.TripPage;
 import com.example.tripplanner.model.dto.TripRequest;
+import com.example.tripplanner.model.dto.DestinationRequest;
 import com.example.tripplanner.model.dto.TripResponse;
+import com.example.tripplanner.model.dto.TripWithDestinationsRequest;
+import com.example.tripplanner.model.dto.TripWithDestinationsResponse;
+import com.example.tripplanner.model.factory.DestinationFactory;
 import com.example.tripplanner.model.factory.TripFactory;
+import com.example.tripplanner.repository.DestinationRepository;
+import com.example.tripplanner.repository.FetchProfile;
 import com.example.tripplanner.repository.TripRepository;
+import com.example.tripplanner.repository.TripTombstoneRepository;
 import com.example.tripplanner.service.impl.TripServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -20,18 +47,37 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.verifyNoInteractions;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 @ExtendWith(MockitoExtension.class)
 public class TripServiceTest {
 
     @Mock
     private TripRepository tripRepository;
+    @Mock
+    private DestinationRepository destinationRepository;
+    @Mock
+    private TripTombstoneRepository tripTombstoneRepository;
+    @Mock
+    private TripOverlapIndex tripOverlapIndex;
+    @Mock
+    private TripSearchIndex tripSearchIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private TripFactory tripFactory = new TripFactory();
+    private DestinationFactory destinationFactory = new DestinationFactory();
 
     private TripServiceImpl tripServiceimpl;
 
@@ -53,7 +99,7 @@ public class TripServiceTest {
 
     @BeforeEach
     public void setUp() {
-        tripServiceimpl = new TripServiceImpl(tripRepository, tripFactory);
+        tripServiceimpl = new TripServiceImpl(tripRepository, destinationRepository, tripTombstoneRepository, tripFactory, destinationFactory, tripOverlapIndex, tripSearchIndex, eventPublisher);
         validTripRequest = new TripRequest(
                 "Summer Vacation",
                 LocalDate.of(2025, 7, 1),
@@ -156,10 +202,47 @@ public class TripServiceTest {
         assertThat(actualTripResponse.getEndDate()).isEqualTo(expectedTripResponse.getEndDate());
         assertThat(actualTripResponse.getDescription()).isEqualTo(expectedTripResponse.getDescription());
     }
+    @Test
+    @DisplayName("Create multiple Trips in one call")
+    void createTrips() {
+        when(tripRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        int createdCount = tripServiceimpl.createTrips(Arrays.asList(validTripRequest, updateRequest));
+        assertThat(createdCount).isEqualTo(2);
+        verify(tripRepository, times(1)).saveAll(any(List.class));
+    }
+
+    @Test
+    @DisplayName("Import trips with destinations as one object graph per trip")
+    void importTripsWithDestinations() {
+        TripWithDestinationsRequest tripWithDestinations = new TripWithDestinationsRequest(
+                "European Grand Tour", LocalDate.of(2025, 7, 1), LocalDate.of(2025, 7, 30), "Iconic cities",
+                Arrays.asList(
+                        new DestinationRequest("Eiffel Tower", "Paris, France", LocalDate.of(2025, 7, 3), LocalDate.of(2025, 7, 7)),
+                        new DestinationRequest("Colosseum", "Rome, Italy", LocalDate.of(2025, 7, 10), LocalDate.of(2025, 7, 14))));
+        TripWithDestinationsRequest tripWithoutDestinations = new TripWithDestinationsRequest(
+                "Weekend in Berlin", LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 3), null, null);
+        when(tripRepository.saveAll(any(List.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int importedCount = tripServiceimpl.importTripsWithDestinations(Arrays.asList(tripWithDestinations, tripWithoutDestinations));
+
+        assertThat(importedCount).isEqualTo(2);
+        ArgumentCaptor<List<Trip>> savedTrips = ArgumentCaptor.forClass(List.class);
+        verify(tripRepository, times(1)).saveAll(savedTrips.capture());
+        Trip savedGrandTour = savedTrips.getValue().get(0);
+        assertThat(savedGrandTour.getDestinations()).hasSize(2);
+        assertThat(savedGrandTour.getDestinations()).allSatisfy(destination -> assertThat(destination.getTrip()).isSameAs(savedGrandTour));
+        assertThat(savedTrips.getValue().get(1).getDestinations()).isEmpty();
+        // One event for the whole batch, carrying the destinations created with each trip
+        ArgumentCaptor<TripsCreatedEvent> createdEvent = ArgumentCaptor.forClass(TripsCreatedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(createdEvent.capture());
+        assertThat(createdEvent.getValue().trips()).hasSize(2);
+        assertThat(createdEvent.getValue().trips().get(0).getDestinations()).hasSize(2);
+    }
+
     @Test
     @DisplayName("Should retrieve a trip by ID when it exists")
     void shouldRetrieveTripByIdWhenExists() {
-        when(tripRepository.findById(existingTrip1.getId())).thenReturn(Optional.of(existingTrip1));
+        when(tripRepository.findResponseById(existingTrip1.getId())).thenReturn(Optional.of(existingTripResponse1));
         TripResponse foundTrip = tripServiceimpl.getTripById(existingTrip1.getId());
         assertThat(foundTrip).isNotNull();
         assertThat(foundTrip.getId()).isEqualTo(existingTripResponse1.getId());
@@ -170,7 +253,7 @@ public class TripServiceTest {
     @DisplayName("Should throw ResourceNotFoundException when trip ID does not exist")
     void shouldThrowNotFoundExceptionWhenTripIdDoesNotExist() {
         Long nonExistentId = 999L;
-        when(tripRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(tripRepository.findResponseById(nonExistentId)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> tripServiceimpl.getTripById(nonExistentId))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Trip not found with ID: " + nonExistentId);
@@ -179,8 +262,8 @@ public class TripServiceTest {
     @Test
     @DisplayName("Should retrieve all trips successfully")
     void shouldRetrieveAllTripsSuccessfully() {
-        List<Trip> trips = Arrays.asList(existingTrip1, existingTrip2);
-        when(tripRepository.findAll()).thenReturn(trips);
+        List<TripResponse> trips = Arrays.asList(existingTripResponse1, existingTripResponse2);
+        when(tripRepository.findAllResponses()).thenReturn(trips);
         List<TripResponse> foundTrips = tripServiceimpl.getAllTrips();
         assertThat(foundTrips).isNotNull();
         assertThat(foundTrips).hasSize(2);
@@ -191,7 +274,7 @@ public class TripServiceTest {
     @Test
     @DisplayName("Should return an empty list when no trips exist")
     void shouldReturnEmptyListWhenNoTripsExist() {
-        when(tripRepository.findAll()).thenReturn(Collections.emptyList());
+        when(tripRepository.findAllResponses()).thenReturn(Collections.emptyList());
         List<TripResponse> foundTrips = tripServiceimpl.getAllTrips();
         assertThat(foundTrips).isNotNull();
         assertThat(foundTrips).isEmpty();
@@ -200,8 +283,8 @@ public class TripServiceTest {
     @Test
     @DisplayName("Should update an existing trip successfully")
     void shouldUpdateExistingTripSuccessfully() {
-        when(tripRepository.findById(existingTripToUpdate.getId())).thenReturn(Optional.of(existingTripToUpdate));
-        when(tripRepository.save(any(Trip.class))).thenReturn(updatedTripEntity);
+        when(tripRepository.findById(existingTripToUpdate.getId(), FetchProfile.SUMMARY)).thenReturn(Optional.of(existingTripToUpdate));
+        when(tripRepository.saveAndFlush(any(Trip.class))).thenReturn(updatedTripEntity);
         TripResponse actualUpdatedTrip = tripServiceimpl.updateTrip(existingTripToUpdate.getId(), updateRequest);
         assertThat(actualUpdatedTrip).isNotNull();
         assertThat(actualUpdatedTrip.getId()).isEqualTo(updatedTripResponseExpected.getId());
@@ -213,7 +296,7 @@ public class TripServiceTest {
     @DisplayName("Should throw ResourceNotFoundException when updating a non-existent trip")
     void shouldThrowNotFoundExceptionWhenUpdatingNonExistentTrip() {
         Long nonExistentId = 999L;
-        when(tripRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(tripRepository.findById(nonExistentId, FetchProfile.SUMMARY)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> tripServiceimpl.updateTrip(nonExistentId, updateRequest))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("Trip not found with ID: " + nonExistentId);
@@ -234,6 +317,9 @@ public class TripServiceTest {
         tripServiceimpl.deleteTrip(tripToDelete.getId());
         // THEN: Verify that deleteById was called exactly once on the repository
         verify(tripRepository, times(1)).deleteById(tripToDelete.getId());
+        // A tombstone records the deletion for the delta export
+        verify(tripTombstoneRepository, times(1)).save(argThat(tombstone -> tombstone.getTripId().equals(tripToDelete.getId())));
+        verify(eventPublisher, times(1)).publishEvent(new TripDeletedEvent(tripToDelete.getId()));
     }
 
     /**
@@ -255,6 +341,190 @@ public class TripServiceTest {
                 .hasMessageContaining("Trip not found with ID: " + nonExistentId);
         // Also verify that deleteById was NOT called, as the trip didn't exist
         verify(tripRepository, times(0)).deleteById(nonExistentId);
+        verify(tripTombstoneRepository, times(0)).save(any());
+    }
+
+
+    @Test
+    @DisplayName("Should page through trips by id with a cursor and count them only once")
+    void shouldPageThroughTripsByIdWithCursor() {
+        TripResponse first = new TripResponse(1L, "First", LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 2), null);
+        TripResponse second = new TripResponse(2L, "Second", LocalDate.of(2027, 2, 1), LocalDate.of(2027, 2, 2), null);
+        TripResponse third = new TripResponse(3L, "Third", LocalDate.of(2027, 3, 1), LocalDate.of(2027, 3, 2), null);
+        when(tripRepository.findResponsesAfterId(Long.MIN_VALUE, Limit.of(3))).thenReturn(List.of(first, second, third));
+        when(tripRepository.findResponsesAfterId(2L, Limit.of(3))).thenReturn(List.of(third));
+        when(tripRepository.count()).thenReturn(3L);
+
+        TripPage firstPage = tripServiceimpl.getTripsPage(2, null, TripSort.ID);
+        TripPage secondPage = tripServiceimpl.getTripsPage(2, firstPage.getNextCursor(), TripSort.ID);
+
+        assertThat(firstPage.getItems()).containsExactly(first, second);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+        assertThat(secondPage.getItems()).containsExactly(third);
+        assertThat(secondPage.getNextCursor()).isNull();
+        assertThat(secondPage.getTotalCount()).isEqualTo(3L);
+        verify(tripRepository, times(1)).count(); // Second page is served from the cached count
+    }
+
+    @Test
+    @DisplayName("Should recount trips after a write invalidates the cached count")
+    void shouldRecountTripsAfterWrite() {
+        when(tripRepository.findResponsesAfterId(Long.MIN_VALUE, Limit.of(11))).thenReturn(Collections.emptyList());
+        when(tripRepository.count()).thenReturn(0L, 1L);
+        when(tripRepository.save(any(Trip.class))).thenReturn(savedTrip);
+
+        assertThat(tripServiceimpl.getTripsPage(10, null, TripSort.ID).getTotalCount()).isZero();
+        tripServiceimpl.createTrip(validTripRequest);
+        assertThat(tripServiceimpl.getTripsPage(10, null, TripSort.ID).getTotalCount()).isEqualTo(1L);
+        verify(tripRepository, times(2)).count();
+    }
+
+    @Test
+    @DisplayName("Should continue a startDate page with undated trips once dated trips run out")
+    void shouldPageByStartDateIntoUndatedTrips() {
+        TripResponse dated = new TripResponse(7L, "Dated", LocalDate.of(2027, 5, 1), LocalDate.of(2027, 5, 2), null);
+        TripResponse undated = new TripResponse(3L, "Undated", null, null, null);
+        when(tripRepository.findFirstResponsesByStartDate(Limit.of(2))).thenReturn(List.of(dated));
+        when(tripRepository.findUndatedResponsesAfterId(Long.MIN_VALUE, Limit.of(1))).thenReturn(List.of(undated));
+        when(tripRepository.findResponsesAfterStartDate(LocalDate.of(2027, 5, 1), 7L, Limit.of(2))).thenReturn(Collections.emptyList());
+        when(tripRepository.findUndatedResponsesAfterId(Long.MIN_VALUE, Limit.of(2))).thenReturn(List.of(undated));
+        when(tripRepository.count()).thenReturn(2L);
+
+        TripPage firstPage = tripServiceimpl.getTripsPage(1, null, TripSort.START_DATE);
+        TripPage secondPage = tripServiceimpl.getTripsPage(1, firstPage.getNextCursor(), TripSort.START_DATE);
+
+        assertThat(firstPage.getItems()).containsExactly(dated);
+        assertThat(secondPage.getItems()).containsExactly(undated);
+        assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor that was issued for a different sort")
+    void shouldRejectCursorForDifferentSort() {
+        TripResponse first = new TripResponse(1L, "First", LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 2), null);
+        when(tripRepository.findResponsesAfterId(Long.MIN_VALUE, Limit.of(2))).thenReturn(List.of(first, first));
+        when(tripRepository.count()).thenReturn(2L);
+        String idCursor = tripServiceimpl.getTripsPage(1, null, TripSort.ID).getNextCursor();
+
+        assertThatThrownBy(() -> tripServiceimpl.getTripsPage(1, idCursor, TripSort.START_DATE))
+                .isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> tripServiceimpl.getTripsPage(1, "not a cursor", TripSort.ID))
+                .isInstanceOf(InvalidPageRequestException.class)
+                .hasMessage("Invalid cursor: not a cursor");
     }
 
+    @Test
+    @DisplayName("Should return the flushed, incremented version with an updated trip, so the cached copy has the new ETag")
+    void shouldReturnIncrementedVersionOfUpdatedTrip() {
+        updatedTripEntity.setVersion(4L); // As the flush leaves it
+        when(tripRepository.findById(existingTripToUpdate.getId(), FetchProfile.SUMMARY)).thenReturn(Optional.of(existingTripToUpdate));
+        when(tripRepository.saveAndFlush(existingTripToUpdate)).thenReturn(updatedTripEntity);
+
+        assertThat(tripServiceimpl.updateTrip(existingTripToUpdate.getId(), updateRequest).getVersion()).isEqualTo(4L);
+        verify(tripRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should map a fetched trip and its destinations into one nested response")
+    void shouldRetrieveTripWithDestinations() {
+        Trip trip = new Trip(5L, "Japan", LocalDate.of(2027, 4, 1), LocalDate.of(2027, 4, 10), null);
+        trip.getDestinations().add(new Destination(8L, "Mount Fuji", "Honshu, Japan",
+                LocalDate.of(2027, 4, 5), LocalDate.of(2027, 4, 6), trip));
+        when(tripRepository.findById(5L, FetchProfile.WITH_DESTINATIONS)).thenReturn(Optional.of(trip));
+        when(tripRepository.findById(6L, FetchProfile.WITH_DESTINATIONS)).thenReturn(Optional.empty());
+
+        TripWithDestinationsResponse response = tripServiceimpl.getTripWithDestinations(5L);
+
+        assertThat(response.getName()).isEqualTo("Japan");
+        assertThat(response.getDestinations()).hasSize(1);
+        assertThat(response.getDestinations().get(0).getLocation()).isEqualTo("Honshu, Japan");
+        assertThat(response.getDestinations().get(0).getTripId()).isEqualTo(5L);
+        assertThatThrownBy(() -> tripServiceimpl.getTripWithDestinations(6L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should delete the selected trips in chunks of set-based statements and announce each chunk at once")
+    void shouldDeleteTripsInBulk() {
+        List<Long> tripIds = LongStream.rangeClosed(1, 1500).boxed().toList();
+        List<Long> existingIds = tripIds.subList(0, 1200); // The last 300 IDs are unknown
+        when(tripRepository.findExistingIds(tripIds.subList(0, 1000))).thenReturn(existingIds.subList(0, 1000));
+        when(tripRepository.findExistingIds(tripIds.subList(1000, 1500))).thenReturn(existingIds.subList(1000, 1200));
+        when(destinationRepository.deleteByTripIdIn(anyList())).thenReturn(3000, 600);
+        when(tripRepository.deleteByIdIn(anyList())).thenReturn(1000, 200);
+
+        BulkOperationResponse response = tripServiceimpl.deleteTrips(new BulkDeleteRequest(tripIds, null));
+
+        assertThat(response).isEqualTo(new BulkOperationResponse(1200, 3600));
+        verify(tripTombstoneRepository).insertForTrips(eq(existingIds.subList(0, 1000)), any());
+        verify(tripTombstoneRepository).insertForTrips(eq(existingIds.subList(1000, 1200)), any());
+        verify(destinationRepository).deleteByTripIdIn(existingIds.subList(1000, 1200));
+        verify(tripRepository).deleteByIdIn(existingIds.subList(1000, 1200));
+        verify(tripRepository, never()).deleteById(any());
+        verify(tripTombstoneRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(new TripsDeletedEvent(existingIds.subList(0, 1000)));
+        verify(eventPublisher).publishEvent(new TripsDeletedEvent(existingIds.subList(1000, 1200)));
+        verify(eventPublisher, never()).publishEvent(any(TripDeletedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should resolve a bulk filter to trip IDs before deleting")
+    void shouldDeleteTripsMatchingFilter() {
+        TripFilter filter = new TripFilter(null, null, TripFilter.DateMatch.OVERLAP, "Old", null);
+        when(tripRepository.findIds(any(), eq(10000 + 1))).thenReturn(List.of(4L, 9L));
+        when(tripRepository.deleteByIdIn(List.of(4L, 9L))).thenReturn(2);
+
+        BulkOperationResponse response = tripServiceimpl.deleteTrips(new BulkDeleteRequest(null, filter));
+
+        assertThat(response.getTripsAffected()).isEqualTo(2);
+        verify(tripRepository, never()).findExistingIds(any());
+        verify(eventPublisher).publishEvent(new TripsDeletedEvent(List.of(4L, 9L)));
+    }
+
+    @Test
+    @DisplayName("Should reject a bulk filter matching more trips than one request may change, before changing any")
+    void shouldRejectBulkFilterMatchingTooManyTrips() {
+        TripFilter filter = new TripFilter(null, LocalDate.of(2030, 1, 1), TripFilter.DateMatch.OVERLAP, null, null);
+        when(tripRepository.findIds(any(), eq(10000 + 1))).thenReturn(LongStream.rangeClosed(1, 10001).boxed().toList());
+
+        assertThatThrownBy(() -> tripServiceimpl.deleteTrips(new BulkDeleteRequest(null, filter)))
+                .isInstanceOf(BulkSelectionTooLargeException.class);
+        assertThatThrownBy(() -> tripServiceimpl.updateTrips(new BulkUpdateRequest(null, filter, 7, null)))
+                .isInstanceOf(BulkSelectionTooLargeException.class);
+        verify(tripRepository, never()).deleteByIdIn(any());
+        verify(tripRepository, never()).updateByIdIn(any(), anyInt(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should update the selected trips in one statement, move their destinations and announce the new values")
+    void shouldUpdateTripsInBulk() {
+        TripResponse moved = new TripResponse(2L, "Rome", LocalDate.of(2027, 5, 8), LocalDate.of(2027, 5, 12), "Old");
+        DestinationResponse movedDestination = new DestinationResponse(20L, "Forum", "Rome", LocalDate.of(2027, 5, 9),
+                LocalDate.of(2027, 5, 10), 2L);
+        when(tripRepository.findExistingIds(List.of(2L, 3L))).thenReturn(List.of(2L));
+        when(tripRepository.updateByIdIn(eq(List.of(2L)), eq(7), isNull(), any())).thenReturn(1);
+        when(tripRepository.findResponsesByIdIn(List.of(2L))).thenReturn(List.of(moved));
+        when(destinationRepository.shiftDatesByTripIdIn(eq(List.of(2L)), eq(7), any())).thenReturn(1);
+        when(destinationRepository.findResponsesByTripIdIn(List.of(2L))).thenReturn(List.of(movedDestination));
+
+        BulkOperationResponse response = tripServiceimpl.updateTrips(new BulkUpdateRequest(List.of(2L, 3L, 2L), null, 7, null));
+
+        assertThat(response).isEqualTo(new BulkOperationResponse(1, 1));
+        verify(tripRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(new TripsUpdatedEvent(List.of(moved)));
+        verify(eventPublisher).publishEvent(new DestinationsUpdatedEvent(List.of(movedDestination)));
+    }
+
+    @Test
+    @DisplayName("Should leave the destinations alone when a bulk update only replaces descriptions")
+    void shouldNotMoveDestinationsWithoutShift() {
+        when(tripRepository.findExistingIds(List.of(2L))).thenReturn(List.of(2L));
+        when(tripRepository.updateByIdIn(eq(List.of(2L)), eq(0), eq("Postponed"), any())).thenReturn(1);
+
+        BulkOperationResponse response = tripServiceimpl.updateTrips(new BulkUpdateRequest(List.of(2L), null, null, "Postponed"));
+
+        assertThat(response).isEqualTo(new BulkOperationResponse(1, 0));
+        verify(destinationRepository, never()).shiftDatesByTripIdIn(any(), anyInt(), any());
+    }
 }